@@ -19,7 +19,6 @@
 package org.apache.maven.doxia.index;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
@@ -60,6 +59,12 @@ public class IndexEntry {
      */
     private List<IndexEntry> childEntries = new ArrayList<>();
 
+    /**
+     * The position of this entry within the child entries of its parent, only a hint as the child entries may
+     * be replaced.
+     */
+    private int index = -1;
+
     public enum Type {
         /**
          * Used for unknown types but also for the root entry
@@ -75,6 +80,8 @@ public class IndexEntry {
         FIGURE(),
         TABLE();
 
+        private static final Type[] SECTION_TYPES = {SECTION_1, SECTION_2, SECTION_3, SECTION_4, SECTION_5, SECTION_6};
+
         private final int sectionLevel;
 
         Type() {
@@ -90,10 +97,7 @@ public class IndexEntry {
                 throw new IllegalArgumentException("Level must be between " + Sink.SECTION_LEVEL_1 + " and "
                         + Sink.SECTION_LEVEL_6 + " but is " + level);
             }
-            return Arrays.stream(Type.values())
-                    .filter(t -> level == t.sectionLevel)
-                    .findAny()
-                    .orElseThrow(() -> new IllegalStateException("Could not find enum for sectionLevel " + level));
+            return SECTION_TYPES[level - Sink.SECTION_LEVEL_1];
         }
 
         public boolean isSection() {
@@ -137,6 +141,7 @@ public class IndexEntry {
         this.id = newId;
 
         if (parent != null) {
+            index = parent.childEntries.size();
             parent.childEntries.add(this);
         }
         this.type = type;
@@ -260,11 +265,11 @@ public class IndexEntry {
             return null;
         }
 
-        List<IndexEntry> entries = parent.getChildEntries();
+        List<IndexEntry> entries = parent.childEntries;
 
-        int index = entries.indexOf(this);
+        int index = indexInParent(entries);
 
-        if (index + 1 >= entries.size()) {
+        if (index < 0 || index + 1 >= entries.size()) {
             return null;
         }
 
@@ -281,17 +286,39 @@ public class IndexEntry {
             return null;
         }
 
-        List<IndexEntry> entries = parent.getChildEntries();
+        List<IndexEntry> entries = parent.childEntries;
 
-        int index = entries.indexOf(this);
+        int index = indexInParent(entries);
 
-        if (index == 0) {
+        if (index <= 0) {
             return null;
         }
 
         return entries.get(index - 1);
     }
 
+    /**
+     * Returns the position of this entry within the given child entries of its parent, in constant time unless
+     * the child entries have been modified.
+     *
+     * @param entries the child entries of the parent.
+     * @return the position or -1 if this entry is not contained.
+     */
+    private int indexInParent(List<IndexEntry> entries) {
+        if (index >= 0 && index < entries.size() && entries.get(index) == this) {
+            return index;
+        }
+
+        index = -1;
+        for (int i = 0; i < entries.size(); i++) {
+            if (entries.get(i) == this) {
+                index = i;
+                break;
+            }
+        }
+        return index;
+    }
+
     /**
      * Returns the first entry.
      *
@@ -18,18 +18,14 @@
  */
 package org.apache.maven.doxia.index;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Stack;
-import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.maven.doxia.index.IndexEntry.Type;
 import org.apache.maven.doxia.sink.Sink;
 import org.apache.maven.doxia.sink.SinkEventAttributes;
-import org.apache.maven.doxia.sink.impl.BufferingSinkProxyFactory;
-import org.apache.maven.doxia.sink.impl.BufferingSinkProxyFactory.BufferingSink;
+import org.apache.maven.doxia.sink.impl.EventBufferSink;
 import org.apache.maven.doxia.sink.impl.SinkAdapter;
-import org.apache.maven.doxia.util.DoxiaUtils;
+import org.apache.maven.doxia.util.IdRegistry;
 
 /**
  * A sink wrapper for populating an index tree for particular elements in a document.
@@ -46,11 +42,8 @@ public class IndexingSink extends org.apache.maven.doxia.sink.impl.SinkWrapper {
     /** The stack. */
     private final Stack<IndexEntry> stack;
 
-    /** A map containing all used ids of index entries as key and how often they are used as value
-     * (0-based, i.e. 0 means used 1 time). {@link AtomicInteger} is only used here as it implements
-     * a mutable integer (not for its atomicity).
-     */
-    private final Map<String, AtomicInteger> usedIds;
+    /** Encodes the ids of index entries and keeps track of the used ones. */
+    private final IdRegistry ids;
 
     private final IndexEntry rootEntry;
 
@@ -62,6 +55,18 @@ public class IndexingSink extends org.apache.maven.doxia.sink.impl.SinkWrapper {
     /** Is {@code true} if the sink is currently populating entry data (i.e. metadata about the current entry is not completely captured yet) */
     private boolean hasOpenEntry;
 
+    /** Buffers the events of the current entry, reused for all entries. */
+    private EventBufferSink bufferingSink;
+
+    /** The title of the current entry, reused for all entries. */
+    private final StringBuilder entryTitle = new StringBuilder();
+
+    /** Is {@code true} if the current entry received any title text. */
+    private boolean hasEntryTitle;
+
+    /** The anchor name of the current entry, or {@code null} if its id is derived from the title. */
+    private String entryAnchor;
+
     /**
      * @deprecated legacy constructor, use {@link #IndexingSink(Sink)} with {@link SinkAdapter} as argument and call {@link #getRootEntry()} to retrieve the index tree afterwards.
      */
@@ -82,8 +87,8 @@ public class IndexingSink extends org.apache.maven.doxia.sink.impl.SinkWrapper {
         this.rootEntry = rootEntry;
         stack = new Stack<>();
         stack.push(rootEntry);
-        usedIds = new HashMap<>();
-        usedIds.put(rootEntry.getId(), new AtomicInteger());
+        ids = new IdRegistry();
+        ids.markUsed(rootEntry.getId());
         this.type = Type.UNKNOWN;
     }
 
@@ -159,23 +164,10 @@ public class IndexingSink extends org.apache.maven.doxia.sink.impl.SinkWrapper {
                 case SECTION_4:
                 case SECTION_5:
                 case SECTION_6:
-                    // -----------------------------------------------------------------------
-                    // Sanitize the id. The most important step is to remove any blanks
-                    // -----------------------------------------------------------------------
-
-                    // append text to current entry
-                    IndexEntry entry = stack.lastElement();
-
-                    String title = entry.getTitle();
-                    if (title != null) {
-                        title += text;
-                    } else {
-                        title = text;
-                    }
-                    title = title.replaceAll("[\\r\\n]+", "");
-                    entry.setTitle(title);
-
-                    setEntryId(entry, title);
+                    // append text to current entry, the title and id are assigned once it is complete
+                    appendEntryTitle(text);
+                    hasEntryTitle = true;
+                    entryAnchor = null;
                     break;
                     // Dunno how to handle others yet
                 default:
@@ -198,9 +190,8 @@ public class IndexingSink extends org.apache.maven.doxia.sink.impl.SinkWrapper {
             case SECTION_3:
             case SECTION_4:
             case SECTION_5:
-                IndexEntry entry = stack.lastElement();
-                entry.setAnchor(true);
-                setEntryId(entry, name);
+                stack.lastElement().setAnchor(true);
+                entryAnchor = name;
                 break;
             default:
                 return false;
@@ -208,11 +199,43 @@ public class IndexingSink extends org.apache.maven.doxia.sink.impl.SinkWrapper {
         return true;
     }
 
-    private void setEntryId(IndexEntry entry, String id) {
-        if (entry.getId() != null) {
-            usedIds.remove(entry.getId());
+    /**
+     * Appends the given text to the title of the current entry, omitting line breaks.
+     *
+     * @param text the text
+     */
+    private void appendEntryTitle(String text) {
+        if (text == null) {
+            return;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c != '\r' && c != '\n') {
+                entryTitle.append(c);
+            }
+        }
+    }
+
+    /**
+     * Assigns the collected title and the id to the current entry. The id is derived from the last anchor,
+     * unless title text followed it.
+     */
+    private void assignEntryTitleAndId() {
+        IndexEntry entry = stack.peek();
+        if (hasEntryTitle) {
+            entry.setTitle(entryTitle.toString());
+        }
+        String id = entryAnchor != null ? entryAnchor : hasEntryTitle ? entry.getTitle() : null;
+        if (id != null) {
+            entry.setId(getUniqueId(ids.encodeId(id)));
         }
-        entry.setId(getUniqueId(DoxiaUtils.encodeId(id)));
+        resetEntryTitleAndId();
+    }
+
+    private void resetEntryTitleAndId() {
+        entryTitle.setLength(0);
+        hasEntryTitle = false;
+        entryAnchor = null;
     }
 
     /**
@@ -222,26 +245,24 @@ public class IndexingSink extends org.apache.maven.doxia.sink.impl.SinkWrapper {
      * @return the unique id
      */
     String getUniqueId(String id) {
-        final String uniqueId;
-
-        if (usedIds.containsKey(id)) {
-            uniqueId = id + "_" + usedIds.get(id).incrementAndGet();
-        } else {
-            usedIds.put(id, new AtomicInteger());
-            uniqueId = id;
-        }
-        return uniqueId;
+        return ids.getUniqueId(id);
     }
 
-    void indexEntryComplete() {
+    /**
+     * Completes the current entry if its metadata is still being collected, assigning its title and id and
+     * passing on the buffered events. Called on each event ending the metadata of an entry and on {@link #close()}.
+     *
+     * @since 2.1.0
+     */
+    protected void indexEntryComplete() {
         if (!hasOpenEntry) {
             return;
         }
         this.type = Type.UNKNOWN;
         // remove buffering sink from pipeline
-        BufferingSink bufferingSink = BufferingSinkProxyFactory.castAsBufferingSink(getWrappedSink());
         setWrappedSink(bufferingSink.getBufferedSink());
 
+        assignEntryTitleAndId();
         onIndexEntry(stack.peek());
 
         // flush the buffer afterwards
@@ -262,8 +283,14 @@ public class IndexingSink extends org.apache.maven.doxia.sink.impl.SinkWrapper {
     private void pushNewEntry(Type type) {
         IndexEntry entry = new IndexEntry(peek(), null, type);
         stack.push(entry);
+        resetEntryTitleAndId();
         // now buffer everything till the next index metadata is complete
-        setWrappedSink(new BufferingSinkProxyFactory().createWrapper(getWrappedSink()));
+        if (bufferingSink == null) {
+            bufferingSink = new EventBufferSink(getWrappedSink());
+        } else {
+            bufferingSink.setBufferedSink(getWrappedSink());
+        }
+        setWrappedSink(bufferingSink);
         hasOpenEntry = true;
     }
 
@@ -294,7 +321,18 @@ public class IndexingSink extends org.apache.maven.doxia.sink.impl.SinkWrapper {
 
     @Override
     public void close() {
+        indexEntryComplete();
         super.close();
         isComplete = true;
     }
+
+    /**
+     * All events need to pass this sink, as they are buffered while the metadata of an entry is collected.
+     *
+     * @return <code>false</code>
+     */
+    @Override
+    protected boolean isBypassable() {
+        return false;
+    }
 }
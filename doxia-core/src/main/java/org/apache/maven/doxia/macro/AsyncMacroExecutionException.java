@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.doxia.macro;
+
+/**
+ * Signals that a macro executed by an {@link AsyncMacroExecutor} failed. As the failure surfaces in a sink event
+ * once the macro output is spliced in, it is unchecked; the parsers convert it into a
+ * {@link org.apache.maven.doxia.parser.ParseException}, like the failure of a synchronously executed macro.
+ *
+ * @since 2.1.0
+ */
+public class AsyncMacroExecutionException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Construct a new <code>AsyncMacroExecutionException</code> for the given macro failure.
+     *
+     * @param cause the failure of the macro, not null.
+     */
+    public AsyncMacroExecutionException(MacroExecutionException cause) {
+        super(cause.getMessage(), cause);
+    }
+
+    @Override
+    public synchronized MacroExecutionException getCause() {
+        return (MacroExecutionException) super.getCause();
+    }
+}
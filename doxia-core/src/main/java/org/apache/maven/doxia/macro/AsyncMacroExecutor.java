@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.doxia.macro;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import org.apache.maven.doxia.macro.manager.MacroManager;
+import org.apache.maven.doxia.macro.manager.MacroNotFoundException;
+import org.apache.maven.doxia.sink.Sink;
+import org.apache.maven.doxia.sink.impl.EventBufferSink;
+import org.apache.maven.doxia.sink.impl.SinkAdapter;
+
+/**
+ * Executes each {@link IndependentMacro} on an executor while the document is parsed further, and splices its
+ * events into the document at the position of the macro once it is complete. Other macros are executed
+ * synchronously.
+ * <p>
+ * Macros are only executed asynchronously if the parser has been set up with an {@link AsyncMacroSinkFactory},
+ * which buffers the events following a pending macro. An instance is thread-safe and may be shared by all parsers
+ * via {@link org.apache.maven.doxia.parser.Parser#setMacroExecutor(MacroExecutor)}.
+ * </p>
+ *
+ * @since 2.1.0
+ */
+public class AsyncMacroExecutor implements MacroExecutor {
+    /** The buffered sink of the asynchronous macro output, which is only flushed to other sinks. */
+    private static final Sink DETACHED_SINK = new SinkAdapter();
+
+    private final MacroManager macroManager;
+
+    private final MacroExecutor delegate;
+
+    private final Executor executor;
+
+    /**
+     * @param macroManager the not-null macro manager to look up the macros.
+     * @param executor the not-null executor running the independent macros.
+     */
+    public AsyncMacroExecutor(MacroManager macroManager, Executor executor) {
+        this(
+                macroManager,
+                (macroId, request, sink) -> macroManager.getMacro(macroId).execute(sink, request),
+                executor);
+    }
+
+    /**
+     * @param macroManager the not-null macro manager to look up the macros.
+     * @param delegate the not-null thread-safe executor actually executing the macros,
+     * for instance a {@link CachingMacroExecutor}.
+     * @param executor the not-null executor running the independent macros.
+     */
+    public AsyncMacroExecutor(MacroManager macroManager, MacroExecutor delegate, Executor executor) {
+        this.macroManager = Objects.requireNonNull(macroManager, "macroManager cannot be null");
+        this.delegate = Objects.requireNonNull(delegate, "delegate cannot be null");
+        this.executor = Objects.requireNonNull(executor, "executor cannot be null");
+    }
+
+    @Override
+    public void executeMacro(String macroId, MacroRequest request, Sink sink)
+            throws MacroExecutionException, MacroNotFoundException {
+        if (!(sink instanceof AsyncMacroSink && macroManager.getMacro(macroId) instanceof IndependentMacro)) {
+            delegate.executeMacro(macroId, request, sink);
+            return;
+        }
+
+        CompletableFuture<EventBufferSink> output = CompletableFuture.supplyAsync(
+                () -> {
+                    EventBufferSink buffer = new EventBufferSink(DETACHED_SINK);
+                    try {
+                        delegate.executeMacro(macroId, request, buffer);
+                    } catch (MacroExecutionException | MacroNotFoundException e) {
+                        throw new CompletionException(e);
+                    }
+                    return buffer;
+                },
+                executor);
+        ((AsyncMacroSink) sink).addMacroOutput(macroId, output);
+    }
+}
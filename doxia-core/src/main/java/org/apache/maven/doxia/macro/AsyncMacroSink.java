@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.doxia.macro;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.apache.maven.doxia.sink.Sink;
+import org.apache.maven.doxia.sink.impl.EventBufferSink;
+import org.apache.maven.doxia.sink.impl.SinkWrapper;
+
+/**
+ * Splices the events of asynchronously executed macros into the document: all events following a pending macro are
+ * buffered, and passed on in document order as soon as the macro is complete. Pending macros are waited for on
+ * {@link #body_()}, {@link #flush()} and {@link #close()}.
+ *
+ * @see AsyncMacroExecutor
+ * @since 2.1.0
+ */
+class AsyncMacroSink extends SinkWrapper {
+    /** The sink receiving the events in document order. */
+    private Sink sink;
+
+    /** The pending macros in document order. */
+    private final Deque<PendingMacro> pendingMacros = new ArrayDeque<>();
+
+    AsyncMacroSink(Sink sink) {
+        super(sink);
+        this.sink = sink;
+    }
+
+    /**
+     * Add the output of a macro at the current position.
+     *
+     * @param macroId the id of the macro.
+     * @param output the events of the macro once it is complete.
+     */
+    void addMacroOutput(String macroId, CompletableFuture<EventBufferSink> output) {
+        passOn(false);
+        if (pendingMacros.isEmpty()) {
+            // the sink may have been replaced by a compiled wrapper chain
+            sink = getWrappedSink();
+        }
+        EventBufferSink following = new EventBufferSink(sink);
+        pendingMacros.add(new PendingMacro(macroId, output, following));
+        setWrappedSink(following);
+    }
+
+    /**
+     * Pass on the output of the complete macros and the events following them, in document order.
+     *
+     * @param wait whether to wait for all pending macros.
+     */
+    private void passOn(boolean wait) {
+        while (!pendingMacros.isEmpty()) {
+            PendingMacro pendingMacro = pendingMacros.peek();
+            if (!wait && !pendingMacro.output.isDone()) {
+                return;
+            }
+
+            EventBufferSink output;
+            try {
+                output = pendingMacro.output.join();
+            } catch (CompletionException e) {
+                throw toUncheckedException(pendingMacro.macroId, e.getCause());
+            }
+            output.setBufferedSink(sink);
+            output.flush();
+
+            pendingMacros.remove();
+            if (pendingMacros.isEmpty()) {
+                setWrappedSink(sink);
+            }
+            pendingMacro.following.flush();
+        }
+    }
+
+    /**
+     * @param macroId the id of the failed macro.
+     * @param failure the failure of the macro.
+     * @return the unchecked exception to throw, the same as if the macro had been executed synchronously.
+     */
+    private static RuntimeException toUncheckedException(String macroId, Throwable failure) {
+        if (failure instanceof MacroExecutionException) {
+            return new AsyncMacroExecutionException((MacroExecutionException) failure);
+        }
+        if (failure instanceof RuntimeException) {
+            return (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        return new AsyncMacroExecutionException(
+                new MacroExecutionException("Error executing macro '" + macroId + "'", failure));
+    }
+
+    @Override
+    public void body_() {
+        passOn(true);
+        super.body_();
+    }
+
+    @Override
+    public void flush() {
+        passOn(true);
+        super.flush();
+    }
+
+    @Override
+    public void close() {
+        passOn(true);
+        super.close();
+    }
+
+    /**
+     * All events need to pass this sink, as they are buffered while macros are pending.
+     *
+     * @return <code>false</code>
+     */
+    @Override
+    protected boolean isBypassable() {
+        return false;
+    }
+
+    private static final class PendingMacro {
+        private final String macroId;
+
+        private final CompletableFuture<EventBufferSink> output;
+
+        /** The events following the macro up to the next pending macro. */
+        private final EventBufferSink following;
+
+        PendingMacro(String macroId, CompletableFuture<EventBufferSink> output, EventBufferSink following) {
+            this.macroId = macroId;
+            this.output = output;
+            this.following = following;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.doxia.macro;
+
+import org.apache.maven.doxia.sink.Sink;
+import org.apache.maven.doxia.sink.impl.SinkWrapperFactory;
+
+/**
+ * Enables asynchronous macro execution: when registered with
+ * {@link org.apache.maven.doxia.parser.Parser#addSinkWrapperFactory(SinkWrapperFactory)} along with an
+ * {@link AsyncMacroExecutor}, the parser continues while independent macros are executed, and their events are
+ * spliced in at their position once they are complete.
+ * <p>
+ * The {@link AsyncMacroExecutor} only executes macros asynchronously if it receives the sink created by this
+ * factory, i.e. if no other wrapper factory with a higher priority is registered. In particular, macros are
+ * executed synchronously in combination with the {@link org.apache.maven.doxia.macro.toc.DeferredTocSinkFactory}.
+ * </p>
+ *
+ * @since 2.1.0
+ */
+public class AsyncMacroSinkFactory implements SinkWrapperFactory {
+
+    @Override
+    public Sink createWrapper(Sink sink) {
+        return new AsyncMacroSink(sink);
+    }
+
+    @Override
+    public int getPriority() {
+        // the macro executor must receive this sink, i.e. the outermost one
+        return Integer.MAX_VALUE - 1;
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.doxia.macro;
+
+/**
+ * A macro whose events only depend on its parameters and on dependencies which can be identified by a fingerprint.
+ * Its events may therefore be recorded once and replayed for each further request with equal parameters and an
+ * equal fingerprint.
+ *
+ * @see CachingMacroExecutor
+ * @since 2.1.0
+ */
+public interface CacheableMacro extends Macro {
+
+    /**
+     * Returns the fingerprint of everything the events for the given request depend on besides the macro parameters,
+     * for instance the modification times of the files being read. Fingerprints are compared with
+     * {@link Object#equals(Object)}.
+     *
+     * @param request the request.
+     * @return the fingerprint of the dependencies, or <code>null</code> if the events for this request must not be
+     * cached.
+     */
+    Object getDependencyFingerprint(MacroRequest request);
+}
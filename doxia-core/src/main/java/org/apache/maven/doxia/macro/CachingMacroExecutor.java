@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.doxia.macro;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import org.apache.maven.doxia.macro.manager.MacroManager;
+import org.apache.maven.doxia.macro.manager.MacroNotFoundException;
+import org.apache.maven.doxia.sink.Sink;
+import org.apache.maven.doxia.sink.impl.EventBufferSink;
+import org.apache.maven.doxia.sink.impl.SinkAdapter;
+
+/**
+ * Executes macros looked up from a {@link MacroManager}, and records the events of each {@link CacheableMacro}
+ * to replay them for further requests with the same macro id, base directory, parameters and dependency
+ * fingerprint. Internal parameters as defined by {@link MacroRequest#isInternalParameter(String)} are ignored.
+ * Other macros are executed for every request.
+ * <p>
+ * An instance is thread-safe and is meant to be shared by all parsers rendering a set of documents, via
+ * {@link org.apache.maven.doxia.parser.Parser#setMacroExecutor(MacroExecutor)}. The least recently used
+ * results are evicted once the maximum number of cached results is reached.
+ * </p>
+ *
+ * @since 2.1.0
+ */
+public class CachingMacroExecutor implements MacroExecutor {
+    /** The default maximum number of cached results. */
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+    /** The buffered sink of the cached results, which are only replayed on other sinks. */
+    private static final Sink DETACHED_SINK = new SinkAdapter();
+
+    private final MacroManager macroManager;
+
+    private final Map<List<Object>, EventBufferSink> results;
+
+    /**
+     * Create an executor caching up to {@link #DEFAULT_MAX_ENTRIES} results.
+     *
+     * @param macroManager the not-null macro manager to look up the macros.
+     */
+    public CachingMacroExecutor(MacroManager macroManager) {
+        this(macroManager, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * @param macroManager the not-null macro manager to look up the macros.
+     * @param maxEntries the maximum number of cached results.
+     */
+    public CachingMacroExecutor(MacroManager macroManager, int maxEntries) {
+        this.macroManager = Objects.requireNonNull(macroManager, "macroManager cannot be null");
+        this.results = new LinkedHashMap<List<Object>, EventBufferSink>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Object>, EventBufferSink> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public void executeMacro(String macroId, MacroRequest request, Sink sink)
+            throws MacroExecutionException, MacroNotFoundException {
+        Macro macro = macroManager.getMacro(macroId);
+
+        Object fingerprint = null;
+        if (macro instanceof CacheableMacro) {
+            fingerprint = ((CacheableMacro) macro).getDependencyFingerprint(request);
+        }
+        if (fingerprint == null) {
+            macro.execute(sink, request);
+            return;
+        }
+
+        List<Object> key = Arrays.asList(macroId, request.getBasedir(), getParameters(request), fingerprint);
+        EventBufferSink result;
+        synchronized (results) {
+            result = results.get(key);
+        }
+
+        if (result == null) {
+            result = new EventBufferSink(sink);
+            macro.execute(result, request);
+            // don't retain the sink of this document
+            result.setBufferedSink(DETACHED_SINK);
+            synchronized (results) {
+                results.put(key, result);
+            }
+        }
+        result.replay(sink);
+    }
+
+    private static Map<String, Object> getParameters(MacroRequest request) {
+        Map<String, Object> parameters = new TreeMap<>();
+        if (request.getParameters() != null) {
+            for (Map.Entry<String, Object> entry : request.getParameters().entrySet()) {
+                if (!MacroRequest.isInternalParameter(entry.getKey())) {
+                    parameters.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        return parameters;
+    }
+}
@@ -20,6 +20,8 @@ package org.apache.maven.doxia.macro;
 
 import java.io.File;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
 
 import org.apache.maven.doxia.parser.AbstractParser;
 import org.apache.maven.doxia.parser.Parser;
@@ -40,6 +42,15 @@ public class MacroRequest {
     /** A map of parameters. */
     private Map<String, Object> parameters;
 
+    /** Supplies the source content on demand, or {@code null} if it is contained in the parameters. */
+    private Supplier<String> sourceContentSupplier;
+
+    /** Creates the secondary parser on demand, or {@code null} if it is contained in the parameters. */
+    private Supplier<? extends AbstractParser> parserFactory;
+
+    /** The secondary parser once created by the parser factory. */
+    private AbstractParser parser;
+
     /**
      * <p>Constructor for MacroRequest.</p>
      *
@@ -56,6 +67,29 @@ public class MacroRequest {
         param.put(PARAM_PARSER, parser);
     }
 
+    /**
+     * Constructor for a MacroRequest which only obtains the source content and the secondary parser when a macro
+     * asks for them. They are not contained in the map of parameters, but still available via
+     * {@link #getParameter(String)}.
+     *
+     * @param sourceContent supplies the source content.
+     * @param parserFactory creates a new {@link org.apache.maven.doxia.parser.AbstractParser} acting as
+     * secondary parser.
+     * @param param a {@link java.util.Map} object.
+     * @param basedir a {@link java.io.File} object.
+     * @since 2.1.0
+     */
+    public MacroRequest(
+            Supplier<String> sourceContent,
+            Supplier<? extends AbstractParser> parserFactory,
+            Map<String, Object> param,
+            File basedir) {
+        this.parameters = param;
+        this.basedir = basedir;
+        this.sourceContentSupplier = Objects.requireNonNull(sourceContent, "sourceContent cannot be null");
+        this.parserFactory = Objects.requireNonNull(parserFactory, "parserFactory cannot be null");
+    }
+
     /**
      * Returns the current base directory.
      *
@@ -91,6 +125,16 @@ public class MacroRequest {
      * @return The value object.
      */
     public Object getParameter(String key) {
+        if (sourceContentSupplier != null && PARAM_SOURCE_CONTENT.equals(key)) {
+            return sourceContentSupplier.get();
+        }
+        if (parserFactory != null && PARAM_PARSER.equals(key)) {
+            if (parser == null) {
+                parser = parserFactory.get();
+                parser.setSecondParsing(true);
+            }
+            return parser;
+        }
         return parameters.get(key);
     }
 
@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.doxia.macro.snippet;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A thread-safe cache of snippets, bounded by the total number of characters of all cached snippets.
+ * The least recently used snippets are evicted first.
+ * <p>
+ * Snippets read from a <code>file:</code> URL stay valid as long as the modification time and size of the file
+ * don't change, snippets from other URLs until they time out.
+ * </p>
+ */
+final class SnippetCache {
+    /** The maximum total number of characters of all cached snippets. */
+    private final long maxWeight;
+
+    /** The entries in access order. */
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** The total number of characters of all cached snippets. */
+    private long weight;
+
+    /**
+     * @param maxWeight the maximum total number of characters of all cached snippets.
+     */
+    SnippetCache(long maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Return a valid snippet from the cache.
+     *
+     * @param key the key of the snippet.
+     * @param url the URL the snippet has been read from.
+     * @param timeout the time in milliseconds after which snippets from other than <code>file:</code> URLs are
+     * invalid.
+     * @return the snippet, or <code>null</code> if there is no valid snippet for the key.
+     */
+    String get(String key, URL url, long timeout) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+        if (entry == null) {
+            return null;
+        }
+
+        boolean valid;
+        if (entry.fileStamp != null) {
+            valid = entry.fileStamp.equals(FileStamp.of(url));
+        } else {
+            valid = System.currentTimeMillis() - entry.timeCached < timeout;
+        }
+
+        if (!valid) {
+            synchronized (this) {
+                if (entries.remove(key, entry)) {
+                    weight -= entry.content.length();
+                }
+            }
+            return null;
+        }
+        return entry.content;
+    }
+
+    /**
+     * Put a snippet into the cache, evicting the least recently used snippets if the cache is full.
+     *
+     * @param key the key of the snippet.
+     * @param content the snippet.
+     * @param fileStamp the state of the file before the snippet has been read, or <code>null</code> if the snippet
+     * hasn't been read from a file.
+     */
+    void put(String key, String content, FileStamp fileStamp) {
+        if (content.length() > maxWeight) {
+            return;
+        }
+        Entry entry = new Entry(content, System.currentTimeMillis(), fileStamp);
+        synchronized (this) {
+            Entry previous = entries.put(key, entry);
+            if (previous != null) {
+                weight -= previous.content.length();
+            }
+            weight += content.length();
+
+            Iterator<Entry> it = entries.values().iterator();
+            while (weight > maxWeight) {
+                weight -= it.next().content.length();
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * @return the total number of characters of all cached snippets.
+     */
+    synchronized long getWeight() {
+        return weight;
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(entry.getKey()).append('=').append(entry.getValue().content);
+        }
+        return sb.append('}').toString();
+    }
+
+    private static final class Entry {
+        private final String content;
+
+        private final long timeCached;
+
+        private final FileStamp fileStamp;
+
+        Entry(String content, long timeCached, FileStamp fileStamp) {
+            this.content = content;
+            this.timeCached = timeCached;
+            this.fileStamp = fileStamp;
+        }
+    }
+
+    /**
+     * The modification time and size of a file.
+     */
+    static final class FileStamp {
+        private final long lastModified;
+
+        private final long length;
+
+        private FileStamp(long lastModified, long length) {
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+
+        /**
+         * @param url an URL.
+         * @return the current state of the file, or <code>null</code> if the URL doesn't denote a file.
+         */
+        static FileStamp of(URL url) {
+            if (!"file".equals(url.getProtocol())) {
+                return null;
+            }
+            try {
+                File file = new File(url.toURI());
+                return new FileStamp(file.lastModified(), file.length());
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof FileStamp)) {
+                return false;
+            }
+            FileStamp other = (FileStamp) obj;
+            return lastModified == other.lastModified && length == other.length;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(lastModified) * 31 + Long.hashCode(length);
+        }
+    }
+}
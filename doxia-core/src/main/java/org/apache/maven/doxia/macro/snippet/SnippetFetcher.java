@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.doxia.macro.snippet;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Properties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fetches snippet sources from URLs with timeouts. If a cache directory is given, the fetched content is kept there
+ * together with its <code>ETag</code> and <code>Last-Modified</code> headers, so later fetches, also by later
+ * builds, only download content that has changed. In offline mode, content is only served from the cache directory.
+ */
+class SnippetFetcher {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SnippetFetcher.class);
+
+    private static final String ETAG = "ETag";
+
+    private static final String LAST_MODIFIED = "Last-Modified";
+
+    private final File cacheDirectory;
+
+    private final boolean offline;
+
+    private final int connectTimeout;
+
+    private final int readTimeout;
+
+    /**
+     * @param cacheDirectory the directory keeping the fetched content, or <code>null</code> to not keep it.
+     * @param offline whether to serve content only from the cache directory.
+     * @param connectTimeout the connect timeout in milliseconds.
+     * @param readTimeout the read timeout in milliseconds.
+     */
+    SnippetFetcher(File cacheDirectory, boolean offline, int connectTimeout, int readTimeout) {
+        this.cacheDirectory = cacheDirectory;
+        this.offline = offline;
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+    }
+
+    /**
+     * Fetch the content of the given URL, revalidating a cached copy if there is one.
+     * If the URL can't be read, a cached copy is served instead. Failing to cache the content does not fail the
+     * fetch.
+     *
+     * @param url the URL.
+     * @return the content.
+     * @throws IOException if the URL can't be read and there is no cached copy.
+     */
+    byte[] fetch(URL url) throws IOException {
+        Path content = null;
+        Path headers = null;
+        if (cacheDirectory != null) {
+            String key = key(url);
+            content = cacheDirectory.toPath().resolve(key + ".content");
+            headers = cacheDirectory.toPath().resolve(key + ".properties");
+        }
+        boolean cached = content != null && Files.isRegularFile(content);
+
+        if (offline) {
+            if (!cached) {
+                throw new IOException("No cached copy of " + url + " in offline mode");
+            }
+            return Files.readAllBytes(content);
+        }
+
+        Properties cachedHeaders = new Properties();
+        if (cached && Files.isRegularFile(headers)) {
+            try (InputStream in = Files.newInputStream(headers)) {
+                cachedHeaders.load(in);
+            }
+        }
+
+        byte[] bytes;
+        Properties newHeaders = new Properties();
+        try {
+            URLConnection connection = url.openConnection();
+            connection.setConnectTimeout(connectTimeout);
+            connection.setReadTimeout(readTimeout);
+
+            if (connection instanceof HttpURLConnection) {
+                HttpURLConnection httpConnection = (HttpURLConnection) connection;
+                if (cached) {
+                    if (cachedHeaders.getProperty(ETAG) != null) {
+                        httpConnection.setRequestProperty("If-None-Match", cachedHeaders.getProperty(ETAG));
+                    }
+                    if (cachedHeaders.getProperty(LAST_MODIFIED) != null) {
+                        httpConnection.setRequestProperty(
+                                "If-Modified-Since", cachedHeaders.getProperty(LAST_MODIFIED));
+                    }
+                }
+
+                int status = httpConnection.getResponseCode();
+                if (status == HttpURLConnection.HTTP_NOT_MODIFIED && cached) {
+                    httpConnection.disconnect();
+                    return Files.readAllBytes(content);
+                }
+                if (status >= HttpURLConnection.HTTP_BAD_REQUEST) {
+                    httpConnection.disconnect();
+                    throw new IOException("Server returned HTTP response code " + status + " for URL: " + url);
+                }
+
+                for (String header : new String[] {ETAG, LAST_MODIFIED}) {
+                    String value = httpConnection.getHeaderField(header);
+                    if (value != null) {
+                        newHeaders.setProperty(header, value);
+                    }
+                }
+            }
+
+            try (InputStream in = connection.getInputStream()) {
+                bytes = readAllBytes(in);
+            }
+        } catch (IOException e) {
+            if (!cached) {
+                throw e;
+            }
+            LOGGER.warn("Serving cached copy of {} as it could not be fetched: {}", url, e.getMessage());
+            return Files.readAllBytes(content);
+        }
+
+        if (content != null) {
+            try {
+                store(content, headers, bytes, newHeaders);
+            } catch (IOException e) {
+                // the content was downloaded, only later fetches will have to download it again
+                LOGGER.warn("Could not cache the content of {} in {}: {}", url, cacheDirectory, e.getMessage());
+            }
+        }
+        return bytes;
+    }
+
+    private static void store(Path content, Path headers, byte[] bytes, Properties newHeaders) throws IOException {
+        Files.createDirectories(content.getParent());
+
+        // write to temporary files first, so concurrent builds never read partial content
+        Path tmpContent = Files.createTempFile(content.getParent(), "snippet", ".tmp");
+        Path tmpHeaders = Files.createTempFile(content.getParent(), "snippet", ".tmp");
+        try {
+            Files.write(tmpContent, bytes);
+            try (OutputStream out = Files.newOutputStream(tmpHeaders)) {
+                newHeaders.store(out, null);
+            }
+            // a stale header file at worst causes an unconditional request
+            Files.deleteIfExists(headers);
+            Files.move(tmpContent, content, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(tmpHeaders, headers, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmpContent);
+            Files.deleteIfExists(tmpHeaders);
+        }
+    }
+
+    private static byte[] readAllBytes(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @param url the URL.
+     * @return the file name of the cached copy of the URL.
+     */
+    private static String key(URL url) {
+        try {
+            byte[] digest =
+                    MessageDigest.getInstance("SHA-256").digest(url.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder key = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                key.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+}
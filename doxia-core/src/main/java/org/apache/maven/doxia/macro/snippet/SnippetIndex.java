@@ -0,0 +1,253 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.doxia.macro.snippet;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * The lines of a snippet source together with the positions of all its demarcators, so all snippets of the source
+ * are extracted from a single read. Reads the same snippets as {@link SnippetReader}.
+ */
+final class SnippetIndex {
+    /** The maximum number of indexed files. */
+    private static final int MAX_FILES = 32;
+
+    /** The maximum number of indexed contents of other than <code>file:</code> URLs. */
+    private static final int MAX_URLS = 32;
+
+    /** The indexes of recently used contents of other than <code>file:</code> URLs by URL and encoding. */
+    private static final Map<String, SnippetIndex> URL_INDEXES =
+            new LinkedHashMap<String, SnippetIndex>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, SnippetIndex> eldest) {
+                    return size() > MAX_URLS;
+                }
+            };
+
+    /** The indexes of recently used files by URL and encoding. */
+    private static final Map<String, SnippetIndex> FILE_INDEXES =
+            new LinkedHashMap<String, SnippetIndex>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, SnippetIndex> eldest) {
+                    return size() > MAX_FILES;
+                }
+            };
+
+    private final URL source;
+
+    /** The time the content has been indexed. */
+    private final long timeIndexed = System.currentTimeMillis();
+
+    /** The state of the file when it was read, or {@code null} if the content has been fetched otherwise. */
+    private final SnippetCache.FileStamp fileStamp;
+
+    private final List<String> lines;
+
+    /** The line numbers of all lines containing a START or END demarcator for any snippet id. */
+    private final int[] demarcators;
+
+    /** Whether the corresponding demarcator line contains the START word. */
+    private final boolean[] isStart;
+
+    /** Whether the corresponding demarcator line contains the END word. */
+    private final boolean[] isEnd;
+
+    /** The lines of each snippet already extracted. */
+    private final Map<String, List<String>> snippetLines = new HashMap<>();
+
+    private SnippetIndex(URL source, SnippetCache.FileStamp fileStamp, List<String> lines) {
+        this.source = source;
+        this.fileStamp = fileStamp;
+        this.lines = lines;
+
+        List<Integer> demarcatorList = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (SnippetReader.SNIPPET_PATTERN.matcher(line).find()
+                    && (SnippetReader.START_PATTERN.matcher(line).find()
+                            || SnippetReader.END_PATTERN.matcher(line).find())) {
+                demarcatorList.add(i);
+            }
+        }
+
+        demarcators = new int[demarcatorList.size()];
+        isStart = new boolean[demarcators.length];
+        isEnd = new boolean[demarcators.length];
+        for (int i = 0; i < demarcators.length; i++) {
+            demarcators[i] = demarcatorList.get(i);
+            String line = lines.get(demarcators[i]);
+            isStart[i] = SnippetReader.START_PATTERN.matcher(line).find();
+            isEnd[i] = SnippetReader.END_PATTERN.matcher(line).find();
+        }
+    }
+
+    /**
+     * Return the index of a file, reading the file only if it has changed since it was indexed.
+     *
+     * @param url the <code>file:</code> URL of the file.
+     * @param encoding the encoding of the file, may be null.
+     * @param fileStamp the current state of the file.
+     * @return the index.
+     * @throws IOException if the file can't be read.
+     */
+    static SnippetIndex forFile(URL url, String encoding, SnippetCache.FileStamp fileStamp) throws IOException {
+        String key = url + " " + encoding;
+        SnippetIndex index;
+        synchronized (FILE_INDEXES) {
+            index = FILE_INDEXES.get(key);
+        }
+        if (index == null || !index.fileStamp.equals(fileStamp)) {
+            index = new SnippetIndex(url, fileStamp, readLines(url.openStream(), encoding));
+            synchronized (FILE_INDEXES) {
+                FILE_INDEXES.put(key, index);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Return the index of the content of an URL, fetching the content only if it has not been indexed
+     * within the timeout.
+     *
+     * @param url the URL, not a <code>file:</code> URL.
+     * @param encoding the encoding of the content, may be null.
+     * @param fetcher the fetcher of the content.
+     * @param timeout the time in milliseconds after which the index is outdated.
+     * @return the index.
+     * @throws IOException if the content can't be fetched or decoded.
+     */
+    static SnippetIndex forUrl(URL url, String encoding, SnippetFetcher fetcher, long timeout) throws IOException {
+        String key = url + " " + encoding;
+        SnippetIndex index;
+        synchronized (URL_INDEXES) {
+            index = URL_INDEXES.get(key);
+        }
+        if (index == null || System.currentTimeMillis() - index.timeIndexed >= timeout) {
+            index = forContent(url, fetcher.fetch(url), encoding);
+            synchronized (URL_INDEXES) {
+                URL_INDEXES.put(key, index);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Return the index of content fetched from an URL.
+     *
+     * @param url the URL.
+     * @param content the content of the URL.
+     * @param encoding the encoding of the content, may be null.
+     * @return the index.
+     * @throws IOException if the content can't be decoded.
+     */
+    static SnippetIndex forContent(URL url, byte[] content, String encoding) throws IOException {
+        return new SnippetIndex(url, null, readLines(new ByteArrayInputStream(content), encoding));
+    }
+
+    private static List<String> readLines(InputStream in, String encoding) throws IOException {
+        BufferedReader reader;
+        if (encoding == null || "".equals(encoding)) {
+            reader = new BufferedReader(new InputStreamReader(in));
+        } else {
+            reader = new BufferedReader(new InputStreamReader(in, encoding));
+        }
+
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader withReader = reader) {
+            String line;
+            while ((line = withReader.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Reads the snippet with given id.
+     *
+     * @param snippetId The id of the snippet, or null to read the whole source.
+     * @return The snippet.
+     * @throws IOException if the demarcators of the snippet can't be found.
+     */
+    StringBuffer readSnippet(String snippetId) throws IOException {
+        List<String> snippet;
+        if (snippetId == null || snippetId.isEmpty()) {
+            snippet = lines;
+        } else {
+            synchronized (snippetLines) {
+                snippet = snippetLines.get(snippetId);
+            }
+            if (snippet == null) {
+                snippet = findLines(snippetId);
+                synchronized (snippetLines) {
+                    snippetLines.put(snippetId, snippet);
+                }
+            }
+        }
+        return SnippetReader.toSnippet(snippet);
+    }
+
+    private List<String> findLines(String snippetId) throws IOException {
+        Pattern idPattern = SnippetReader.demarcatorPattern(snippetId);
+
+        int start = -1;
+        List<String> snippet = new ArrayList<>();
+        for (int i = 0; i < demarcators.length; i++) {
+            int lineNumber = demarcators[i];
+            if (!idPattern.matcher(lines.get(lineNumber)).find()) {
+                continue;
+            }
+
+            if (isStart[i]) {
+                if (start >= 0) {
+                    // a repeated start demarcator is skipped
+                    snippet.addAll(lines.subList(start + 1, lineNumber));
+                }
+                start = lineNumber;
+            } else if (isEnd[i]) {
+                if (start < 0) {
+                    break;
+                }
+                snippet.addAll(lines.subList(start + 1, lineNumber));
+                return Collections.unmodifiableList(snippet);
+            }
+        }
+
+        if (start < 0) {
+            throw new IOException("Failed to find START of snippet " + snippetId + " in file at URL: " + source);
+        }
+        throw new IOException("Failed to find END of snippet " + snippetId + " in file at URL: " + source);
+    }
+}
@@ -25,10 +25,10 @@ import java.io.File;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.util.HashMap;
-import java.util.Map;
 
 import org.apache.maven.doxia.macro.AbstractMacro;
+import org.apache.maven.doxia.macro.CacheableMacro;
+import org.apache.maven.doxia.macro.IndependentMacro;
 import org.apache.maven.doxia.macro.MacroExecutionException;
 import org.apache.maven.doxia.macro.MacroRequest;
 import org.apache.maven.doxia.sink.Sink;
@@ -41,53 +41,75 @@ import org.slf4j.LoggerFactory;
  */
 @Singleton
 @Named("snippet")
-public class SnippetMacro extends AbstractMacro {
+public class SnippetMacro extends AbstractMacro implements CacheableMacro, IndependentMacro {
     private static final Logger LOGGER = LoggerFactory.getLogger(SnippetMacro.class);
 
     /**
-     * Holds the cache.
+     * The maximum number of characters of all cached snippets.
      */
-    private static Map<String, String> cache = new HashMap<>();
+    private static final long MAX_CACHE_WEIGHT = 8 * 1024 * 1024;
+
+    /**
+     * Holds the cache, shared by all instances.
+     */
+    private static final SnippetCache CACHE = new SnippetCache(MAX_CACHE_WEIGHT);
 
     private static final int HOUR = 60;
 
     /**
-     * One hour default cache.
+     * The system property giving the default cache directory.
      */
-    private long timeout = HOUR * HOUR * 1000;
+    public static final String CACHE_DIRECTORY_PROPERTY = "doxia.snippet.cacheDirectory";
+
+    /**
+     * The system property enabling the offline mode by default.
+     */
+    public static final String OFFLINE_PROPERTY = "doxia.snippet.offline";
+
+    private static final int DEFAULT_CONNECT_TIMEOUT = 10 * 1000;
+
+    private static final int DEFAULT_READ_TIMEOUT = 30 * 1000;
 
     /**
-     * Holds the time cache.
+     * One hour default cache for snippets from other than <code>file:</code> URLs.
      */
-    private static Map<String, Long> timeCached = new HashMap<>();
+    private long timeout = HOUR * HOUR * 1000;
 
     /**
-     * Debug.
+     * The directory keeping snippets fetched from other than <code>file:</code> URLs across builds,
+     * or <code>null</code> to not keep them.
      */
-    private boolean debug = false;
+    private File cacheDirectory = System.getProperty(CACHE_DIRECTORY_PROPERTY) != null
+            ? new File(System.getProperty(CACHE_DIRECTORY_PROPERTY))
+            : null;
 
     /**
-     * in case of Exception during snippet download error will ignored and empty content returned.
+     * Whether snippets from other than <code>file:</code> URLs are only served from the cache directory.
      */
-    private boolean ignoreDownloadError = true;
+    private boolean offline = Boolean.getBoolean(OFFLINE_PROPERTY);
+
+    private int connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+
+    private int readTimeout = DEFAULT_READ_TIMEOUT;
 
     public void execute(Sink sink, MacroRequest request) throws MacroExecutionException {
         String id = (String) request.getParameter("id");
 
-        String urlParam = (String) request.getParameter("url");
-
-        String fileParam = (String) request.getParameter("file");
+        boolean debug = false;
 
         String debugParam = (String) request.getParameter("debug");
 
         if (debugParam != null) {
-            this.debug = Boolean.parseBoolean(debugParam);
+            debug = Boolean.parseBoolean(debugParam);
         }
 
+        // in case of Exception during snippet download error will ignored and empty content returned
+        boolean ignoreDownloadError = true;
+
         String ignoreDownloadErrorParam = (String) request.getParameter("ignoreDownloadError");
 
         if (ignoreDownloadErrorParam != null) {
-            this.ignoreDownloadError = Boolean.parseBoolean(ignoreDownloadErrorParam);
+            ignoreDownloadError = Boolean.parseBoolean(ignoreDownloadErrorParam);
         }
 
         boolean verbatim = true;
@@ -108,6 +130,55 @@ public class SnippetMacro extends AbstractMacro {
 
         String encoding = (String) request.getParameter("encoding");
 
+        URL url = getUrl(request);
+
+        StringBuffer snippet;
+
+        try {
+            snippet = getSnippet(url, encoding, id, debug, ignoreDownloadError);
+        } catch (IOException e) {
+            throw new MacroExecutionException("Error reading snippet", e);
+        }
+
+        if (verbatim) {
+            sink.verbatim(source ? SinkEventAttributeSet.SOURCE : null);
+
+            sink.text(snippet.toString());
+
+            sink.verbatim_();
+        } else {
+            sink.rawText(snippet.toString());
+        }
+    }
+
+    /**
+     * The events only depend on the parameters as long as the snippet file is unchanged. Snippets from other URLs are
+     * not cached here but only by the snippet cache, where they time out.
+     *
+     * @param request the request.
+     * @return the state of the snippet file, or <code>null</code> if the snippet isn't read from a file or debug
+     * output is requested.
+     */
+    @Override
+    public Object getDependencyFingerprint(MacroRequest request) {
+        if (Boolean.parseBoolean((String) request.getParameter("debug"))) {
+            // the debug output tells whether the snippet has been cached
+            return null;
+        }
+        return SnippetCache.FileStamp.of(getUrl(request));
+    }
+
+    /**
+     * Return the URL of the snippet, given either by the <code>url</code> or the <code>file</code> parameter.
+     *
+     * @param request the request.
+     * @return the URL.
+     */
+    private static URL getUrl(MacroRequest request) {
+        String urlParam = (String) request.getParameter("url");
+
+        String fileParam = (String) request.getParameter("file");
+
         URL url;
 
         if (!(urlParam == null || urlParam.isEmpty())) {
@@ -132,23 +203,7 @@ public class SnippetMacro extends AbstractMacro {
             throw new IllegalArgumentException("Either the 'url' or the 'file' param has to be provided");
         }
 
-        StringBuffer snippet;
-
-        try {
-            snippet = getSnippet(url, encoding, id);
-        } catch (IOException e) {
-            throw new MacroExecutionException("Error reading snippet", e);
-        }
-
-        if (verbatim) {
-            sink.verbatim(source ? SinkEventAttributeSet.SOURCE : null);
-
-            sink.text(snippet.toString());
-
-            sink.verbatim_();
-        } else {
-            sink.rawText(snippet.toString());
-        }
+        return url;
     }
 
     /**
@@ -157,13 +212,18 @@ public class SnippetMacro extends AbstractMacro {
      * @param url The URL to parse.
      * @param encoding The encoding of the URL to parse.
      * @param id  The id of the snippet.
+     * @param debug Whether to append debug information to the snippet.
+     * @param ignoreDownloadError Whether to return an error message instead of failing if the URL can't be read.
      * @return The snippet.
      * @throws IOException if something goes wrong.
      */
-    private StringBuffer getSnippet(URL url, String encoding, String id) throws IOException {
+    private StringBuffer getSnippet(URL url, String encoding, String id, boolean debug, boolean ignoreDownloadError)
+            throws IOException {
         StringBuffer result;
 
-        String cachedSnippet = getCachedSnippet(url, id);
+        String globalId = globalSnippetId(url, id);
+
+        String cachedSnippet = CACHE.get(globalId, url, timeout);
 
         if (cachedSnippet != null) {
             result = new StringBuffer(cachedSnippet);
@@ -173,11 +233,20 @@ public class SnippetMacro extends AbstractMacro {
             }
         } else {
             try {
-                result = new SnippetReader(url, encoding).readSnippet(id);
-                cacheSnippet(url, id, result.toString());
+                // determine the state of the file before reading, so a concurrent modification invalidates the snippet
+                SnippetCache.FileStamp fileStamp = SnippetCache.FileStamp.of(url);
+                if (fileStamp != null) {
+                    // read all snippets of a file at once
+                    result = SnippetIndex.forFile(url, encoding, fileStamp).readSnippet(id);
+                } else {
+                    // fetch the content once for all snippets
+                    result = SnippetIndex.forUrl(url, encoding, getFetcher(), timeout)
+                            .readSnippet(id);
+                }
+                CACHE.put(globalId, result.toString(), fileStamp);
                 if (debug) {
                     result.append("(Fetched from url, cache content ")
-                            .append(cache)
+                            .append(CACHE)
                             .append(")");
                 }
             } catch (IOException e) {
@@ -193,104 +262,77 @@ public class SnippetMacro extends AbstractMacro {
     }
 
     /**
-     * Return a snippet from the cache.
+     * Return a global identifier for the snippet.
      *
      * @param url The URL to parse.
      * @param id  The id of the snippet.
-     * @return The snippet.
+     * @return An identifier, concatenated url and id,
+     *         or just url.toString() if id is empty or null.
      */
-    private String getCachedSnippet(URL url, String id) {
-        if (isCacheTimedout(url, id)) {
-            removeFromCache(url, id);
+    private String globalSnippetId(URL url, String id) {
+        if (id == null || id.isEmpty()) {
+            return url.toString();
         }
-        return cache.get(globalSnippetId(url, id));
-    }
 
-    /**
-     * Return true if the snippet has been cached longer than
-     * the current timeout.
-     *
-     * @param url The URL to parse.
-     * @param id  The id of the snippet.
-     * @return True if timeout exceeded.
-     */
-    boolean isCacheTimedout(URL url, String id) {
-        return timeInCache(url, id) >= timeout;
+        return url + " " + id;
     }
 
     /**
-     * Return the time the snippet has been cached.
+     * Puts the given snippet into the cache.
      *
-     * @param url The URL to parse.
-     * @param id  The id of the snippet.
-     * @return The cache time.
+     * @param url     The URL to parse.
+     * @param id      The id of the snippet.
+     * @param content The content of the snippet.
      */
-    long timeInCache(URL url, String id) {
-        return System.currentTimeMillis() - getTimeCached(url, id);
+    public void cacheSnippet(URL url, String id, String content) {
+        CACHE.put(globalSnippetId(url, id), content, SnippetCache.FileStamp.of(url));
     }
 
     /**
-     * Return the absolute value of when the snippet has been cached.
+     * Set the cache timeout for snippets from other than <code>file:</code> URLs.
      *
-     * @param url The URL to parse.
-     * @param id  The id of the snippet.
-     * @return The cache time.
+     * @param time The timeout to set.
      */
-    long getTimeCached(URL url, String id) {
-        String globalId = globalSnippetId(url, id);
-
-        return timeCached.containsKey(globalId) ? timeCached.get(globalId) : 0;
+    public void setCacheTimeout(int time) {
+        this.timeout = time;
     }
 
     /**
-     * Removes the snippet from the cache.
+     * Set the directory keeping snippets fetched from other than <code>file:</code> URLs, so they are only
+     * downloaded again if they have changed. Defaults to the value of the system property
+     * {@value #CACHE_DIRECTORY_PROPERTY}.
      *
-     * @param url The URL to parse.
-     * @param id  The id of the snippet.
+     * @param cacheDirectory the cache directory, or <code>null</code> to not keep fetched snippets.
+     * @since 2.1.0
      */
-    private void removeFromCache(URL url, String id) {
-        String globalId = globalSnippetId(url, id);
-
-        timeCached.remove(globalId);
-
-        cache.remove(globalId);
+    public void setCacheDirectory(File cacheDirectory) {
+        this.cacheDirectory = cacheDirectory;
     }
 
     /**
-     * Return a global identifier for the snippet.
+     * Set whether snippets from other than <code>file:</code> URLs are only served from the cache directory.
+     * Defaults to the value of the system property {@value #OFFLINE_PROPERTY}.
      *
-     * @param url The URL to parse.
-     * @param id  The id of the snippet.
-     * @return An identifier, concatenated url and id,
-     *         or just url.toString() if id is empty or null.
+     * @param offline <code>true</code> to not fetch any snippets.
+     * @since 2.1.0
      */
-    private String globalSnippetId(URL url, String id) {
-        if (id == null || id.isEmpty()) {
-            return url.toString();
-        }
-
-        return url + " " + id;
+    public void setOffline(boolean offline) {
+        this.offline = offline;
     }
 
     /**
-     * Puts the given snippet into the cache.
+     * Set the timeouts for fetching snippets from other than <code>file:</code> URLs.
      *
-     * @param url     The URL to parse.
-     * @param id      The id of the snippet.
-     * @param content The content of the snippet.
+     * @param connectTimeout the connect timeout in milliseconds.
+     * @param readTimeout the read timeout in milliseconds.
+     * @since 2.1.0
      */
-    public void cacheSnippet(URL url, String id, String content) {
-        cache.put(globalSnippetId(url, id), content);
-
-        timeCached.put(globalSnippetId(url, id), System.currentTimeMillis());
+    public void setTimeouts(int connectTimeout, int readTimeout) {
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
     }
 
-    /**
-     * Set the cache timeout.
-     *
-     * @param time The timeout to set.
-     */
-    public void setCacheTimeout(int time) {
-        this.timeout = time;
+    private SnippetFetcher getFetcher() {
+        return new SnippetFetcher(cacheDirectory, offline, connectTimeout, readTimeout);
     }
 }
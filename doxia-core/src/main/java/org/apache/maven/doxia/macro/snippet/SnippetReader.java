@@ -33,6 +33,15 @@ public class SnippetReader {
     /** System-dependent EOL. */
     private static final String EOL = System.getProperty("line.separator");
 
+    /** Matches the SNIPPET word of a demarcator. */
+    static final Pattern SNIPPET_PATTERN = demarcatorPattern("(?i:SNIPPET)");
+
+    /** Matches the START word of a demarcator. */
+    static final Pattern START_PATTERN = demarcatorPattern("(?i:START)");
+
+    /** Matches the END word of a demarcator. */
+    static final Pattern END_PATTERN = demarcatorPattern("(?i:END)");
+
     /** The source. */
     private URL source;
 
@@ -67,7 +76,16 @@ public class SnippetReader {
      * @throws java.io.IOException if something goes wrong.
      */
     public StringBuffer readSnippet(String snippetId) throws IOException {
-        List<String> lines = readLines(snippetId);
+        return toSnippet(readLines(snippetId));
+    }
+
+    /**
+     * Joins the given lines, removing their common indent.
+     *
+     * @param lines A List of lines.
+     * @return The snippet.
+     */
+    static StringBuffer toSnippet(List<String> lines) {
         int minIndent = minIndent(lines);
         StringBuffer result = new StringBuffer();
         for (String line : lines) {
@@ -83,7 +101,7 @@ public class SnippetReader {
      * @param lines A List of lines.
      * @return the minimal indent.
      */
-    int minIndent(List<String> lines) {
+    static int minIndent(List<String> lines) {
         int minIndent = Integer.MAX_VALUE;
         for (String line : lines) {
             minIndent = Math.min(minIndent, indent(line));
@@ -97,7 +115,7 @@ public class SnippetReader {
      * @param line A line.
      * @return the indent.
      */
-    int indent(String line) {
+    static int indent(String line) {
         char[] chars = line.toCharArray();
         int indent = 0;
         for (; indent < chars.length; indent++) {
@@ -178,13 +196,26 @@ public class SnippetReader {
     protected static boolean isDemarcator(String snippetId, String what, String line) {
         // SNIPPET and what are case insensitive
         // SNIPPET and what can switch order
-        String snippetRegExp = "(^|\\W)(?i:SNIPPET)($|\\W)";
-        String snippetIdRegExp = "(^|\\W)" + snippetId + "($|\\W)";
-        String whatRegExp = "(^|\\W)(?i:" + what + ")($|\\W)";
+        Pattern whatPattern;
+        if ("START".equals(what)) {
+            whatPattern = START_PATTERN;
+        } else if ("END".equals(what)) {
+            whatPattern = END_PATTERN;
+        } else {
+            whatPattern = demarcatorPattern("(?i:" + what + ")");
+        }
 
-        return Pattern.compile(snippetRegExp).matcher(line).find()
-                && Pattern.compile(whatRegExp).matcher(line).find()
-                && Pattern.compile(snippetIdRegExp).matcher(line).find();
+        return SNIPPET_PATTERN.matcher(line).find()
+                && whatPattern.matcher(line).find()
+                && demarcatorPattern(snippetId).matcher(line).find();
+    }
+
+    /**
+     * @param regExp the regular expression of a word of a demarcator.
+     * @return the pattern matching the word within a line.
+     */
+    static Pattern demarcatorPattern(String regExp) {
+        return Pattern.compile("(^|\\W)" + regExp + "($|\\W)");
     }
 
     /**
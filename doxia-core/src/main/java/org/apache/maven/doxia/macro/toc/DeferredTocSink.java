@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.doxia.macro.toc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import org.apache.maven.doxia.index.IndexEntry;
+import org.apache.maven.doxia.index.IndexingSink;
+import org.apache.maven.doxia.sink.Sink;
+import org.apache.maven.doxia.sink.impl.EventBufferSink;
+import org.apache.maven.doxia.sink.impl.SinkWrapper;
+
+/**
+ * Indexes the whole document while passing it on, and writes the tables of contents requested by {@link TocMacro}
+ * at their position once the document is complete, i.e. on {@link #body_()} or at the latest on {@link #close()}.
+ * All events following the first table of contents are buffered until then.
+ *
+ * @see DeferredTocSinkFactory
+ * @since 2.1.0
+ */
+class DeferredTocSink extends IndexingSink {
+    /** The sink receiving the events after indexing. */
+    private Sink sink;
+
+    private final Output output;
+
+    private final List<BiConsumer<Sink, IndexEntry>> tocWriters = new ArrayList<>();
+
+    /** The events following each table of contents. */
+    private final List<EventBufferSink> buffers = new ArrayList<>();
+
+    DeferredTocSink(Sink sink) {
+        this(sink, new Output(sink));
+    }
+
+    private DeferredTocSink(Sink sink, Output output) {
+        super(output);
+        this.sink = sink;
+        this.output = output;
+    }
+
+    /**
+     * Add a table of contents at the current position.
+     *
+     * @param tocWriter writes the table of contents for the root entry of the complete document.
+     */
+    void addToc(BiConsumer<Sink, IndexEntry> tocWriter) {
+        if (buffers.isEmpty()) {
+            // the output may have been replaced by a compiled wrapper chain
+            sink = output.getWrappedSink();
+        }
+        EventBufferSink buffer = new EventBufferSink(sink);
+        tocWriters.add(tocWriter);
+        buffers.add(buffer);
+        output.bufferInto(buffer);
+    }
+
+    @Override
+    public void body_() {
+        indexEntryComplete();
+        writeTocs();
+        super.body_();
+    }
+
+    @Override
+    public void close() {
+        // the tables of contents need the title and id of the last entry
+        indexEntryComplete();
+        writeTocs();
+        super.close();
+    }
+
+    private void writeTocs() {
+        if (tocWriters.isEmpty()) {
+            return;
+        }
+
+        IndexEntry rootEntry = peek();
+        while (rootEntry.getParent() != null) {
+            rootEntry = rootEntry.getParent();
+        }
+
+        output.passTo(sink);
+        for (int i = 0; i < tocWriters.size(); i++) {
+            tocWriters.get(i).accept(sink, rootEntry);
+            buffers.get(i).flush();
+        }
+        tocWriters.clear();
+        buffers.clear();
+    }
+
+    /**
+     * Receives the events after indexing, either passing them to the sink or to the buffer of the last table
+     * of contents.
+     */
+    private static final class Output extends SinkWrapper {
+        /** Whether the events are buffered until the tables of contents are written. */
+        private boolean buffering;
+
+        Output(Sink sink) {
+            super(sink);
+        }
+
+        void bufferInto(EventBufferSink buffer) {
+            setWrappedSink(buffer);
+            buffering = true;
+        }
+
+        void passTo(Sink sink) {
+            setWrappedSink(sink);
+            buffering = false;
+        }
+
+        @Override
+        public void flush() {
+            // flushing a buffer would emit its events before the table of contents
+            if (!buffering) {
+                super.flush();
+            }
+        }
+
+        @Override
+        protected boolean isBypassable() {
+            return false;
+        }
+    }
+}
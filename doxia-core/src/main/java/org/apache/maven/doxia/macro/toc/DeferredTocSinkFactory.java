@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.doxia.macro.toc;
+
+import org.apache.maven.doxia.sink.Sink;
+import org.apache.maven.doxia.sink.impl.SinkWrapperFactory;
+
+/**
+ * Enables single pass tables of contents: when registered with
+ * {@link org.apache.maven.doxia.parser.Parser#addSinkWrapperFactory(SinkWrapperFactory)}, the {@link TocMacro}
+ * doesn't parse the document a second time to collect its sections. Instead the sections are collected
+ * while the document is parsed, and each table of contents is written at its position when the sink is closed.
+ *
+ * @since 2.1.0
+ */
+public class DeferredTocSinkFactory implements SinkWrapperFactory {
+
+    @Override
+    public Sink createWrapper(Sink sink) {
+        return new DeferredTocSink(sink);
+    }
+
+    @Override
+    public int getPriority() {
+        // must come first, as the toc macro receives the outermost sink
+        return Integer.MAX_VALUE;
+    }
+}
@@ -74,6 +74,10 @@ import org.apache.maven.doxia.util.DoxiaUtils;
  * &lt;/macro&gt;
  * </pre>
  *
+ * By default the macro parses the whole document a second time to collect its sections. If the parser has a
+ * {@link DeferredTocSinkFactory} registered, the sections are collected during the main parse instead and the TOC is
+ * written at its position once the document is complete.
+ *
  * @author <a href="mailto:vincent.siveton@gmail.com">Vincent Siveton</a>
  */
 @Singleton
@@ -103,6 +107,18 @@ public class TocMacro extends AbstractMacro {
             return;
         }
 
+        if (sink instanceof DeferredTocSink) {
+            // single pass: the sink collects the entries and writes the TOC once the document is complete
+            TocMacro toc = new TocMacro();
+            toc.section = section;
+            toc.fromDepth = fromDepth;
+            toc.toDepth = toDepth;
+            SinkEventAttributes listAttributes = getAttributesFromMap(request.getParameters());
+            ((DeferredTocSink) sink)
+                    .addToc((tocSink, rootEntry) -> toc.writeTocForIndexEntry(tocSink, listAttributes, rootEntry));
+            return;
+        }
+
         IndexingSink tocSink = new IndexingSink(new SinkAdapter());
         try {
             parser.parse(new StringReader(source), tocSink);
@@ -40,6 +40,7 @@ import org.apache.maven.doxia.macro.manager.MacroManager;
 import org.apache.maven.doxia.macro.manager.MacroNotFoundException;
 import org.apache.maven.doxia.sink.Sink;
 import org.apache.maven.doxia.sink.impl.CreateAnchorsForIndexEntriesFactory;
+import org.apache.maven.doxia.sink.impl.SinkWrapperChain;
 import org.apache.maven.doxia.sink.impl.SinkWrapperFactory;
 import org.apache.maven.doxia.sink.impl.SinkWrapperFactoryComparator;
 
@@ -205,6 +206,8 @@ public abstract class AbstractParser implements Parser, MacroExecutor {
     /**
      * Creates a sink pipeline built from all registered {@link SinkWrapperFactory} objects.
      * For secondary parsers (i.e. ones with {@link #isSecondParsing()} returning {@code true} just the given original sink is returned.
+     * The pipeline is compiled with {@link SinkWrapperChain#compile(Sink)}, so that each event skips the wrappers not
+     * overriding it.
      * @param sink
      * @return the Sink pipeline to be used
      */
@@ -217,7 +220,7 @@ public abstract class AbstractParser implements Parser, MacroExecutor {
         for (SinkWrapperFactory factory : getSinkWrapperFactories()) {
             currentSink = factory.createWrapper(currentSink);
         }
-        return currentSink;
+        return SinkWrapperChain.compile(currentSink);
     }
 
     /**
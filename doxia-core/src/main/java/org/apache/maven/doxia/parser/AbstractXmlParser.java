@@ -35,11 +35,13 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.maven.doxia.macro.AsyncMacroExecutionException;
 import org.apache.maven.doxia.macro.MacroExecutionException;
 import org.apache.maven.doxia.markup.XmlMarkup;
 import org.apache.maven.doxia.sink.Sink;
 import org.apache.maven.doxia.sink.impl.AbstractLocator;
 import org.apache.maven.doxia.sink.impl.SinkEventAttributeSet;
+import org.apache.maven.doxia.sink.impl.SinkUtils;
 import org.apache.maven.doxia.util.DoxiaStringUtils;
 import org.apache.maven.doxia.util.HtmlTools;
 import org.apache.maven.doxia.util.XmlValidator;
@@ -78,6 +80,17 @@ public abstract class AbstractXmlParser extends AbstractParser implements XmlMar
     private static final Pattern PATTERN_ENTITY_2 =
             Pattern.compile(ENTITY_START + "(\\s)+([^>|^\\s]+)(\\s)+\"(\\s)*(&(#x?[0-9a-fA-F]{1,5};)*)(\\s)*\"(\\s)*>");
 
+    /** Whether a parser class overrides {@link #getText(XmlPullParser)}. */
+    private static final ClassValue<Boolean> OVERRIDES_GET_TEXT = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return SinkUtils.isOverridden(type, AbstractXmlParser.class, "getText", XmlPullParser.class);
+        }
+    };
+
+    /** Receives the start and length of the text characters of the parser. */
+    private final int[] textRange = new int[2];
+
     private boolean ignorableWhitespace;
 
     private boolean collapsibleWhitespace;
@@ -140,6 +153,8 @@ public abstract class AbstractXmlParser extends AbstractParser implements XmlMar
             throw new ParseException("Error parsing the model", ex, ex.getLineNumber(), ex.getColumnNumber());
         } catch (MacroExecutionException ex) {
             throw new ParseException("Macro execution failed", ex);
+        } catch (AsyncMacroExecutionException ex) {
+            throw new ParseException("Macro execution failed", ex.getCause());
         }
 
         setSecondParsing(false);
@@ -223,10 +238,8 @@ public abstract class AbstractXmlParser extends AbstractParser implements XmlMar
             } else if (eventType == XmlPullParser.END_TAG) {
                 handleEndTag(parser, sink);
             } else if (eventType == XmlPullParser.TEXT) {
-                String text = getText(parser);
-
                 if (isIgnorableWhitespace()) {
-                    if (text.trim().length() != 0) {
+                    if (getText(parser).trim().length() != 0) {
                         handleText(parser, sink);
                     }
                 } else {
@@ -292,14 +305,34 @@ public abstract class AbstractXmlParser extends AbstractParser implements XmlMar
      * @throws org.codehaus.plexus.util.xml.pull.XmlPullParserException if there's a problem parsing the model
      */
     protected void handleText(XmlPullParser parser, Sink sink) throws XmlPullParserException {
-        String text = getText(parser);
-
         /*
          * NOTE: Don't do any whitespace trimming here. Whitespace normalization has already been performed by the
          * parser so any whitespace that makes it here is significant.
          */
-        if (text != null && !text.isEmpty()) {
-            sink.text(text);
+        emitText(parser, sink);
+    }
+
+    /**
+     * Emits the text of the current event as text event if it is not empty. Unless the text has to be trimmed or
+     * collapsed, the characters of the parser are passed to the sink without creating a String.
+     *
+     * @param parser A parser, not null.
+     * @param sink the sink to receive the event. Not null.
+     * @see #getText(XmlPullParser)
+     * @see Sink#text(char[], int, int)
+     * @since 2.1.0
+     */
+    protected void emitText(XmlPullParser parser, Sink sink) {
+        if (isTrimmableWhitespace() || isCollapsibleWhitespace() || OVERRIDES_GET_TEXT.get(getClass())) {
+            String text = getText(parser);
+            if (text != null && !text.isEmpty()) {
+                sink.text(text);
+            }
+        } else {
+            char[] chars = parser.getTextCharacters(textRange);
+            if (chars != null && textRange[1] > 0) {
+                sink.text(chars, textRange[0], textRange[1]);
+            }
         }
     }
 
@@ -572,16 +572,14 @@ public class Xhtml5BaseParser extends AbstractXmlParser implements HtmlMarkup {
 
     @Override
     protected void handleText(XmlPullParser parser, Sink sink) throws XmlPullParserException {
-        String text = getText(parser);
-
         /*
          * NOTE: Don't do any whitespace trimming here. Whitespace normalization has already been performed by the
          * parser so any whitespace that makes it here is significant.
          *
          * NOTE: text within script tags is ignored, scripting code should be embedded in CDATA.
          */
-        if ((text != null && !text.isEmpty()) && !isScriptBlock()) {
-            sink.text(text);
+        if (!isScriptBlock()) {
+            emitText(parser, sink);
         }
     }
 
@@ -23,8 +23,10 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
-import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.util.Objects;
 
 import org.apache.maven.doxia.sink.Sink;
@@ -39,6 +41,56 @@ import org.apache.maven.doxia.sink.SinkFactory;
  * @since 1.1
  */
 public abstract class AbstractTextSinkFactory implements SinkFactory {
+    /** The buffer size used when writing into a file. */
+    private int outputBufferSize = ByteChannelWriter.DEFAULT_BUFFER_SIZE;
+
+    /** Only replace output files whose content changed. */
+    private boolean writeIfChanged;
+
+    /**
+     * Sets the size of the buffer used when writing a sink into a file. Documents which fit into
+     * the buffer are written at once when the sink is closed, whatever their encoded size.
+     *
+     * @param outputBufferSize the buffer size in chars.
+     * @since 2.1.0
+     */
+    public void setOutputBufferSize(int outputBufferSize) {
+        this.outputBufferSize = outputBufferSize;
+    }
+
+    /**
+     * Return the size of the buffer used when writing a sink into a file.
+     *
+     * @return the buffer size in chars.
+     * @since 2.1.0
+     */
+    public int getOutputBufferSize() {
+        return outputBufferSize;
+    }
+
+    /**
+     * Sets whether sinks created with {@link #createSink(File, String, String)} only replace an existing
+     * output file when the generated content differs from it. The output is compared with the existing
+     * file while it is written, an unchanged file is not written at all and keeps its modification time,
+     * a changed one is written into a temporary file which atomically replaces it when the sink is closed.
+     *
+     * @param writeIfChanged <code>true</code> to leave unchanged output files untouched.
+     * @since 2.1.0
+     */
+    public void setWriteIfChanged(boolean writeIfChanged) {
+        this.writeIfChanged = writeIfChanged;
+    }
+
+    /**
+     * Return whether unchanged output files are left untouched.
+     *
+     * @return <code>true</code> if only changed output files are replaced.
+     * @since 2.1.0
+     */
+    public boolean isWriteIfChanged() {
+        return writeIfChanged;
+    }
+
     /**
      * Create a text Sink for a given encoding.
      *
@@ -63,8 +115,52 @@ public abstract class AbstractTextSinkFactory implements SinkFactory {
             }
         }
 
-        Writer writer = Files.newBufferedWriter(new File(outputDir, outputName).toPath(), Charset.forName(encoding));
-        return createSink(writer, encoding);
+        // resolve the charset before the output file is touched
+        Charset charset = Charset.forName(encoding);
+        return createSink(openOutputChannel(new File(outputDir, outputName)), charset, encoding);
+    }
+
+    /**
+     * Create a sink writing into a channel, closing the channel if the sink can't be created.
+     *
+     * @param channel the channel receiving the encoded output, closed when the sink is closed.
+     * @param charset the charset of the encoding.
+     * @param encoding the name of the encoding.
+     * @return a Sink writing into the channel.
+     */
+    Sink createSink(WritableByteChannel channel, Charset charset, String encoding) {
+        try {
+            Writer writer = new ByteChannelWriter(channel, charset, outputBufferSize);
+            return createSink(writer, encoding);
+        } catch (RuntimeException e) {
+            try {
+                channel.close();
+            } catch (IOException ioe) {
+                e.addSuppressed(ioe);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Open the channel which receives the encoded output of a sink created with
+     * {@link #createSink(File, String, String)}. The channel is closed when the sink is closed.
+     *
+     * @param outputFile the output file.
+     * @return a channel writing into the output file, never <code>null</code>.
+     * @throws java.io.IOException if the file cannot be opened.
+     * @since 2.1.0
+     */
+    protected WritableByteChannel openOutputChannel(File outputFile) throws IOException {
+        if (writeIfChanged) {
+            return new WriteIfChangedChannel(outputFile.toPath());
+        }
+
+        return FileChannel.open(
+                outputFile.toPath(),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
     }
 
     public Sink createSink(OutputStream out) throws IOException {
@@ -39,6 +39,8 @@ public abstract class AbstractXmlSink extends SinkAdapter implements XmlMarkup {
 
     private boolean insertNewline = true;
 
+    private boolean compact;
+
     /**
      * <p>Setter for the field <code>insertNewline</code>.</p>
      *
@@ -48,6 +50,28 @@ public abstract class AbstractXmlSink extends SinkAdapter implements XmlMarkup {
         this.insertNewline = insertNewline;
     }
 
+    /**
+     * Sets whether this sink omits optional whitespace from its output: no EOL is inserted
+     * before block tags and simple tags are written as <code>&lt;tag/&gt;</code>.
+     * Subclasses may omit further whitespace which does not change the meaning of the output.
+     *
+     * @param compact <code>true</code> to write compact output.
+     * @since 2.1.0
+     */
+    public void setCompact(boolean compact) {
+        this.compact = compact;
+    }
+
+    /**
+     * Return whether this sink omits optional whitespace from its output.
+     *
+     * @return <code>true</code> if this sink writes compact output.
+     * @since 2.1.0
+     */
+    public boolean isCompact() {
+        return this.compact;
+    }
+
     /**
      * Sets the default namespace that is prepended to all tags written by this sink.
      *
@@ -68,6 +92,13 @@ public abstract class AbstractXmlSink extends SinkAdapter implements XmlMarkup {
         return this.nameSpace;
     }
 
+    @Override
+    protected void init() {
+        super.init();
+
+        this.firstTag = true;
+    }
+
     /**
      * Starts a Tag. For instance:
      * <pre>
@@ -110,7 +141,7 @@ public abstract class AbstractXmlSink extends SinkAdapter implements XmlMarkup {
 
         StringBuilder sb = new StringBuilder();
 
-        if (insertNewline && t.isBlock() && !firstTag) {
+        if (insertNewline && !compact && t.isBlock() && !firstTag) {
             sb.append(EOL);
         }
         firstTag = false;
@@ -126,7 +157,10 @@ public abstract class AbstractXmlSink extends SinkAdapter implements XmlMarkup {
         sb.append(SinkUtils.getAttributeString(att));
 
         if (isSimpleTag) {
-            sb.append(SPACE).append(SLASH);
+            if (!compact) {
+                sb.append(SPACE);
+            }
+            sb.append(SLASH);
         }
 
         sb.append(GREATER_THAN);
@@ -198,4 +232,16 @@ public abstract class AbstractXmlSink extends SinkAdapter implements XmlMarkup {
      * @param text the given text to write
      */
     protected abstract void write(String text);
+
+    /**
+     * Write a range of characters to the sink. The default implementation calls {@link #write(String)}.
+     *
+     * @param text the array containing the text to write
+     * @param offset the index of the first character to write
+     * @param length the number of characters to write
+     * @since 2.1.0
+     */
+    protected void write(char[] text, int offset, int length) {
+        write(new String(text, offset, length));
+    }
 }
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.doxia.sink.impl;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.maven.doxia.sink.Sink;
+import org.apache.maven.doxia.sink.SinkFactory;
+
+/**
+ * A <code>SinkFactory</code> which renders all files into a single ZIP (or JAR) stream instead of
+ * separate files.
+ * <p>
+ * A sink created with {@link #createSink(File, String, String)} writes the entry named after the path of the
+ * output file relative to the base directory of the archive, no file or directory is created on disk.
+ * Each sink buffers its own output and appends it as one complete entry when it is closed, so sinks may be
+ * used concurrently by several threads: entries are added in the order the sinks are closed.
+ * </p>
+ * <p>
+ * Sinks created into an <code>OutputStream</code> are passed through to the decorated factory unchanged.
+ * </p>
+ *
+ * @since 2.1.0
+ */
+public class ArchiveSinkFactory implements SinkFactory, Closeable {
+    private final SinkFactory sinkFactory;
+
+    private final Path baseDir;
+
+    private final ZipOutputStream zip;
+
+    private boolean closed;
+
+    /**
+     * Create a factory rendering into an archive.
+     *
+     * @param sinkFactory the not-null factory creating the sinks for each entry.
+     * @param baseDir the not-null directory corresponding to the root of the archive.
+     * @param out the not-null stream receiving the archive, closed by {@link #close()}.
+     */
+    public ArchiveSinkFactory(SinkFactory sinkFactory, File baseDir, OutputStream out) {
+        this.sinkFactory = Objects.requireNonNull(sinkFactory, "sinkFactory cannot be null");
+        this.baseDir = Objects.requireNonNull(baseDir, "baseDir cannot be null")
+                .toPath()
+                .toAbsolutePath()
+                .normalize();
+        this.zip = new ZipOutputStream(new BufferedOutputStream(Objects.requireNonNull(out, "out cannot be null")));
+    }
+
+    @Override
+    public Sink createSink(File outputDir, String outputName) throws IOException {
+        return createSink(outputDir, outputName, "UTF-8");
+    }
+
+    @Override
+    public Sink createSink(File outputDir, String outputName, String encoding) throws IOException {
+        Objects.requireNonNull(outputDir, "outputDir cannot be null");
+        Objects.requireNonNull(outputName, "outputName cannot be null");
+
+        return sinkFactory.createSink(new EntryOutputStream(getEntryName(outputDir, outputName)), encoding);
+    }
+
+    @Override
+    public Sink createSink(OutputStream out) throws IOException {
+        return sinkFactory.createSink(out);
+    }
+
+    @Override
+    public Sink createSink(OutputStream out, String encoding) throws IOException {
+        return sinkFactory.createSink(out, encoding);
+    }
+
+    /**
+     * Finish the archive and close its stream. Sinks closed afterwards fail to add their entry.
+     *
+     * @throws java.io.IOException if the archive cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (zip) {
+            if (!closed) {
+                closed = true;
+                zip.close();
+            }
+        }
+    }
+
+    private String getEntryName(File outputDir, String outputName) {
+        Path output = outputDir.toPath().toAbsolutePath().resolve(outputName).normalize();
+
+        if (!output.startsWith(baseDir) || output.equals(baseDir)) {
+            throw new IllegalArgumentException("The file '" + output + "' is not inside '" + baseDir + "'.");
+        }
+
+        return baseDir.relativize(output).toString().replace(File.separatorChar, '/');
+    }
+
+    private void addEntry(String name, ByteArrayOutputStream content) throws IOException {
+        synchronized (zip) {
+            if (closed) {
+                throw new IOException("Cannot add entry '" + name + "', the archive is already closed.");
+            }
+
+            zip.putNextEntry(new ZipEntry(name));
+            content.writeTo(zip);
+            zip.closeEntry();
+        }
+    }
+
+    /**
+     * Buffers the content of one entry until it is closed.
+     */
+    private final class EntryOutputStream extends ByteArrayOutputStream {
+        private final String name;
+
+        private boolean entryClosed;
+
+        EntryOutputStream(String name) {
+            super(8192);
+            this.name = name;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!entryClosed) {
+                entryClosed = true;
+                addEntry(name, this);
+            }
+        }
+    }
+}
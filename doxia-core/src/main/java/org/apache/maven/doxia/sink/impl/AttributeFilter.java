@@ -0,0 +1,319 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.doxia.sink.impl;
+
+import javax.swing.text.AttributeSet;
+import javax.swing.text.MutableAttributeSet;
+
+import java.util.BitSet;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.doxia.sink.SinkEventAttributes;
+
+/**
+ * A precompiled filter of attribute names, the counterpart of {@link SinkUtils#filterAttributes(AttributeSet,
+ * String[])} for sinks filtering the attributes of nearly every element.
+ * <p>
+ * Each attribute name used by any filter has an id, and a filter is the set of ids it accepts. The well-known
+ * names interned by {@link SinkEventAttributeSet} carry their id, so checking them is an identity lookup and a
+ * bit test; other names are looked up by value. {@link #apply(MutableAttributeSet)} doesn't copy the attributes:
+ * they are returned unchanged if all of them are accepted, and as a read-only view otherwise.
+ * </p>
+ *
+ * @see SinkUtils
+ * @since 2.1.0
+ */
+public final class AttributeFilter {
+    /** The ids of the attribute names used by filters which are not well-known. */
+    private static final Map<String, Integer> IDS = new ConcurrentHashMap<>();
+
+    private static final AtomicInteger NEXT_ID = new AtomicInteger(SinkEventAttributeSet.getWellKnownNameCount());
+
+    /**
+     * The filter for {@link SinkUtils#SINK_BASE_ATTRIBUTES}.
+     */
+    public static final AttributeFilter SINK_BASE_ATTRIBUTES = new AttributeFilter(SinkUtils.SINK_BASE_ATTRIBUTES);
+
+    /**
+     * The filter for {@link SinkUtils#SINK_BR_ATTRIBUTES}.
+     */
+    public static final AttributeFilter SINK_BR_ATTRIBUTES = new AttributeFilter(SinkUtils.SINK_BR_ATTRIBUTES);
+
+    /**
+     * The filter for {@link SinkUtils#SINK_IMG_ATTRIBUTES}.
+     */
+    public static final AttributeFilter SINK_IMG_ATTRIBUTES = new AttributeFilter(SinkUtils.SINK_IMG_ATTRIBUTES);
+
+    /**
+     * The filter for {@link SinkUtils#SINK_SECTION_ATTRIBUTES}.
+     */
+    public static final AttributeFilter SINK_SECTION_ATTRIBUTES =
+            new AttributeFilter(SinkUtils.SINK_SECTION_ATTRIBUTES);
+
+    /**
+     * The filter for {@link SinkUtils#SINK_VERBATIM_ATTRIBUTES}.
+     */
+    public static final AttributeFilter SINK_VERBATIM_ATTRIBUTES =
+            new AttributeFilter(SinkUtils.SINK_VERBATIM_ATTRIBUTES);
+
+    /**
+     * The filter for {@link SinkUtils#SINK_HR_ATTRIBUTES}.
+     */
+    public static final AttributeFilter SINK_HR_ATTRIBUTES = new AttributeFilter(SinkUtils.SINK_HR_ATTRIBUTES);
+
+    /**
+     * The filter for {@link SinkUtils#SINK_LINK_ATTRIBUTES}.
+     */
+    public static final AttributeFilter SINK_LINK_ATTRIBUTES = new AttributeFilter(SinkUtils.SINK_LINK_ATTRIBUTES);
+
+    /**
+     * The filter for {@link SinkUtils#SINK_TABLE_ATTRIBUTES}.
+     */
+    public static final AttributeFilter SINK_TABLE_ATTRIBUTES = new AttributeFilter(SinkUtils.SINK_TABLE_ATTRIBUTES);
+
+    /**
+     * The filter for {@link SinkUtils#SINK_TD_ATTRIBUTES}.
+     */
+    public static final AttributeFilter SINK_TD_ATTRIBUTES = new AttributeFilter(SinkUtils.SINK_TD_ATTRIBUTES);
+
+    /**
+     * The filter for {@link SinkUtils#SINK_TR_ATTRIBUTES}.
+     */
+    public static final AttributeFilter SINK_TR_ATTRIBUTES = new AttributeFilter(SinkUtils.SINK_TR_ATTRIBUTES);
+
+    /** The ids of the accepted attribute names. */
+    private final BitSet accepted = new BitSet();
+
+    /**
+     * Compiles a filter.
+     *
+     * @param names the names of the attributes to keep, in any order.
+     */
+    public AttributeFilter(String... names) {
+        for (String name : names) {
+            int id = SinkEventAttributeSet.getWellKnownId(SinkEventAttributeSet.internName(name));
+            accepted.set(id >= 0 ? id : IDS.computeIfAbsent(name, n -> NEXT_ID.getAndIncrement()));
+        }
+    }
+
+    /**
+     * @param name an attribute name.
+     * @return <code>true</code> if attributes with the given name are kept by this filter.
+     */
+    public boolean accepts(Object name) {
+        if (name == null) {
+            return false;
+        }
+        int id = SinkEventAttributeSet.getWellKnownId(name);
+        if (id < 0) {
+            id = lookupId(name.toString());
+        }
+        return id >= 0 && accepted.get(id);
+    }
+
+    /**
+     * @param name an attribute name which is not an interned instance.
+     * @return the id of the name, or -1 if no filter uses it.
+     */
+    private static int lookupId(String name) {
+        int id = SinkEventAttributeSet.getWellKnownId(SinkEventAttributeSet.internName(name));
+        if (id < 0) {
+            Integer otherId = IDS.get(name);
+            id = otherId != null ? otherId : -1;
+        }
+        return id;
+    }
+
+    /**
+     * Filters the given attributes, removing all attributes whose name is not accepted.
+     * The attributes are not copied, so the result must not be modified.
+     *
+     * @param attributes the attributes to filter, may be null.
+     * @return the given attributes if all of them are accepted, a read-only view of the accepted attributes
+     * otherwise, or null if the given attributes are null.
+     */
+    public MutableAttributeSet apply(MutableAttributeSet attributes) {
+        if (attributes == null) {
+            return null;
+        }
+
+        int count = 0;
+        if (attributes instanceof SinkEventAttributeSet) {
+            // no enumeration needed
+            SinkEventAttributeSet set = (SinkEventAttributeSet) attributes;
+            for (int i = 0; i < set.getAttributeCount(); i++) {
+                if (accepts(set.getAttributeName(i))) {
+                    count++;
+                }
+            }
+        } else {
+            Enumeration<?> names = attributes.getAttributeNames();
+            while (names.hasMoreElements()) {
+                if (accepts(names.nextElement())) {
+                    count++;
+                }
+            }
+        }
+
+        if (count == attributes.getAttributeCount()) {
+            return attributes;
+        }
+        return new FilteredAttributes(attributes, count);
+    }
+
+    /**
+     * A read-only view of the accepted attributes of an attribute set.
+     */
+    private final class FilteredAttributes implements SinkEventAttributes {
+        private final AttributeSet attributes;
+
+        private final int count;
+
+        FilteredAttributes(AttributeSet attributes, int count) {
+            this.attributes = attributes;
+            this.count = count;
+        }
+
+        @Override
+        public int getAttributeCount() {
+            return count;
+        }
+
+        @Override
+        public boolean isDefined(Object attrName) {
+            return accepts(attrName) && attributes.isDefined(attrName);
+        }
+
+        @Override
+        public boolean isEqual(AttributeSet attr) {
+            return getAttributeCount() == attr.getAttributeCount() && containsAttributes(attr);
+        }
+
+        @Override
+        public AttributeSet copyAttributes() {
+            return new SinkEventAttributeSet(this);
+        }
+
+        @Override
+        public Object getAttribute(Object key) {
+            return isDefined(key) ? attributes.getAttribute(key) : null;
+        }
+
+        @Override
+        public Enumeration<?> getAttributeNames() {
+            final Enumeration<?> names = attributes.getAttributeNames();
+
+            return new Enumeration<Object>() {
+                private Object next = findNext();
+
+                private Object findNext() {
+                    while (names.hasMoreElements()) {
+                        Object name = names.nextElement();
+                        if (accepts(name)) {
+                            return name;
+                        }
+                    }
+                    return null;
+                }
+
+                @Override
+                public boolean hasMoreElements() {
+                    return next != null;
+                }
+
+                @Override
+                public Object nextElement() {
+                    if (next == null) {
+                        throw new NoSuchElementException();
+                    }
+                    Object name = next;
+                    next = findNext();
+                    return name;
+                }
+            };
+        }
+
+        @Override
+        public boolean containsAttribute(Object name, Object value) {
+            return value.equals(getAttribute(name));
+        }
+
+        @Override
+        public boolean containsAttributes(AttributeSet attrs) {
+            Enumeration<?> names = attrs.getAttributeNames();
+            while (names.hasMoreElements()) {
+                Object name = names.nextElement();
+                if (!attrs.getAttribute(name).equals(getAttribute(name))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public AttributeSet getResolveParent() {
+            return null;
+        }
+
+        @Override
+        public void addAttribute(Object name, Object value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void addAttributes(AttributeSet attrs) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void removeAttribute(Object name) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void removeAttributes(Enumeration<?> names) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void removeAttributes(AttributeSet attrs) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setResolveParent(AttributeSet parent) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder s = new StringBuilder();
+            Enumeration<?> names = getAttributeNames();
+            while (names.hasMoreElements()) {
+                Object key = names.nextElement();
+                s.append(' ').append(key).append('=').append(getAttribute(key));
+            }
+            return s.toString();
+        }
+    }
+}
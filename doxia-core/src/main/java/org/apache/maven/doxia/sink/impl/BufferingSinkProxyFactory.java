@@ -29,7 +29,10 @@ import org.apache.maven.doxia.sink.Sink;
 
 /**
  * Buffers all method calls on the proxied Sink until its {@link Sink#flush()} is called.
+ * @deprecated Use {@link org.apache.maven.doxia.sink.impl.EventBufferSink} instead which buffers the events without
+ * reflection.
  */
+@Deprecated
 public class BufferingSinkProxyFactory implements SinkWrapperFactory {
 
     private static final class MethodWithArguments {
@@ -40,6 +43,14 @@ public class BufferingSinkProxyFactory implements SinkWrapperFactory {
             super();
             this.method = method;
             this.args = args;
+            if (args != null) {
+                for (int i = 0; i < args.length; i++) {
+                    // the characters of char-range text events may be reused after the event
+                    if (args[i] instanceof char[]) {
+                        args[i] = ((char[]) args[i]).clone();
+                    }
+                }
+            }
         }
 
         void invoke(Object object) {
@@ -0,0 +1,241 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.doxia.sink.impl;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A <code>Writer</code> that encodes characters with a {@link CharsetEncoder} directly into a
+ * {@link ByteBuffer} and writes them to a {@link WritableByteChannel}.
+ * <p>
+ * Characters are only encoded and written once the buffer is full, on {@link #flush()} or on {@link #close()},
+ * so a document which fits into the buffer is written with a single channel write. The byte buffer is sized to
+ * hold the encoded content of a full char buffer in the worst case of the charset.
+ * The buffers and encoders are pooled per thread and reused by the next writer opened on the same thread,
+ * which avoids setting up a new writer stack for every output file.
+ * </p>
+ * <p>
+ * Like {@link java.nio.file.Files#newBufferedWriter(java.nio.file.Path, Charset, java.nio.file.OpenOption...)},
+ * malformed or unmappable characters are reported as {@link java.nio.charset.CharacterCodingException}.
+ * </p>
+ *
+ * @since 2.1.0
+ */
+public class ByteChannelWriter extends Writer {
+    /** The default buffer size in chars. */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    /** The minimum buffer size, big enough to hold any pending surrogate pair. */
+    private static final int MIN_BUFFER_SIZE = 16;
+
+    private static final ThreadLocal<Buffers> POOL = new ThreadLocal<>();
+
+    private final WritableByteChannel channel;
+
+    private final Buffers buffers;
+
+    private final CharsetEncoder encoder;
+
+    private final CharBuffer chars;
+
+    private final ByteBuffer bytes;
+
+    private boolean closed;
+
+    /**
+     * Create a writer with the {@link #DEFAULT_BUFFER_SIZE default buffer size}.
+     *
+     * @param channel the not-null channel to write to, closed when this writer is closed.
+     * @param charset the not-null charset used to encode the characters.
+     */
+    public ByteChannelWriter(WritableByteChannel channel, Charset charset) {
+        this(channel, charset, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Create a writer.
+     *
+     * @param channel the not-null channel to write to, closed when this writer is closed.
+     * @param charset the not-null charset used to encode the characters.
+     * @param bufferSize the size of the char buffer, documents of at most this many chars are written at once.
+     */
+    public ByteChannelWriter(WritableByteChannel channel, Charset charset, int bufferSize) {
+        this.channel = Objects.requireNonNull(channel, "channel cannot be null");
+        Objects.requireNonNull(charset, "charset cannot be null");
+
+        this.buffers = Buffers.acquire(Math.max(bufferSize, MIN_BUFFER_SIZE));
+        this.encoder = buffers.encoder(charset);
+        this.chars = buffers.chars;
+        this.bytes = buffers.bytes(encoder);
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        ensureOpen();
+        chars.put((char) c);
+        if (!chars.hasRemaining()) {
+            encode(false);
+        }
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            int n = Math.min(len, chars.remaining());
+            chars.put(cbuf, off, n);
+            off += n;
+            len -= n;
+            if (!chars.hasRemaining()) {
+                encode(false);
+            }
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            int n = Math.min(len, chars.remaining());
+            chars.put(str, off, off + n);
+            off += n;
+            len -= n;
+            if (!chars.hasRemaining()) {
+                encode(false);
+            }
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        encode(false);
+        drain();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try (WritableByteChannel c = channel) {
+            encode(true);
+            drain();
+        } finally {
+            buffers.release();
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Writer closed");
+        }
+    }
+
+    private void encode(boolean endOfInput) throws IOException {
+        chars.flip();
+        try {
+            CoderResult result;
+            while (!(result = encoder.encode(chars, bytes, endOfInput)).isUnderflow()) {
+                if (result.isOverflow()) {
+                    drain();
+                } else {
+                    result.throwException();
+                }
+            }
+            if (endOfInput) {
+                while (encoder.flush(bytes).isOverflow()) {
+                    drain();
+                }
+            }
+        } finally {
+            // keeps a trailing high surrogate until its low surrogate is written
+            chars.compact();
+        }
+    }
+
+    private void drain() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        bytes.clear();
+    }
+
+    /**
+     * The buffers and encoders of one thread, handed to one open writer at a time.
+     */
+    private static final class Buffers {
+        private final CharBuffer chars;
+
+        private ByteBuffer bytes;
+
+        private final Map<Charset, CharsetEncoder> encoders = new HashMap<>();
+
+        private Buffers(int bufferSize) {
+            this.chars = CharBuffer.allocate(bufferSize);
+        }
+
+        static Buffers acquire(int bufferSize) {
+            Buffers buffers = POOL.get();
+            if (buffers == null || buffers.chars.capacity() != bufferSize) {
+                // none pooled, in use by another open writer of this thread, or another size
+                return new Buffers(bufferSize);
+            }
+            POOL.remove();
+            return buffers;
+        }
+
+        CharsetEncoder encoder(Charset charset) {
+            return encoders.computeIfAbsent(charset, Charset::newEncoder).reset();
+        }
+
+        /**
+         * @param encoder the encoder of the writer.
+         * @return a byte buffer large enough for the encoded content of the full char buffer.
+         */
+        ByteBuffer bytes(CharsetEncoder encoder) {
+            int capacity = (int) Math.ceil(chars.capacity() * (double) encoder.maxBytesPerChar());
+            if (bytes == null || bytes.capacity() < capacity) {
+                bytes = ByteBuffer.allocateDirect(capacity);
+            }
+            return bytes;
+        }
+
+        void release() {
+            chars.clear();
+            if (bytes != null) {
+                bytes.clear();
+            }
+            POOL.set(this);
+        }
+    }
+}
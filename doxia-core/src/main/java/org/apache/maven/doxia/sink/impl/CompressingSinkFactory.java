@@ -0,0 +1,330 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.doxia.sink.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.maven.doxia.sink.Sink;
+import org.apache.maven.doxia.sink.SinkFactory;
+
+/**
+ * A <code>SinkFactory</code> decorator which writes pre-compressed sidecar files next to each output file.
+ * <p>
+ * Besides <code>page.html</code>, a sink created with {@link #createSink(File, String, String)} writes
+ * <code>page.html.gz</code>, and one sidecar per additionally {@link #addCompressor(String, Compressor) registered}
+ * compressor (for instance <code>page.html.br</code> when a Brotli codec is available). The output bytes are
+ * compressed in the same pass as they are written, the written file is never read back.
+ * </p>
+ * <p>
+ * If the decorated factory is an {@link AbstractTextSinkFactory}, it writes the output file itself, so its
+ * output buffer size applies, and with {@link AbstractTextSinkFactory#setWriteIfChanged(boolean) write-if-changed}
+ * mode neither the output file nor its sidecars are replaced when their content didn't change.
+ * Other factories write into a stream opened by this decorator.
+ * </p>
+ * <p>
+ * Sinks created into an <code>OutputStream</code> are passed through to the decorated factory unchanged.
+ * </p>
+ *
+ * @since 2.1.0
+ */
+public class CompressingSinkFactory implements SinkFactory {
+    /**
+     * Creates a compressing stream for a sidecar file.
+     */
+    @FunctionalInterface
+    public interface Compressor {
+        /**
+         * Create a stream compressing into the given sidecar stream.
+         *
+         * @param out the not-null stream of the sidecar file.
+         * @return a stream compressing into <code>out</code>, closing it when closed.
+         * @throws java.io.IOException if any.
+         */
+        OutputStream compress(OutputStream out) throws IOException;
+    }
+
+    /** The extension of gzip sidecar files. */
+    public static final String GZIP_EXTENSION = ".gz";
+
+    private final SinkFactory sinkFactory;
+
+    private final Map<String, Compressor> compressors = new LinkedHashMap<>();
+
+    /**
+     * Decorate a sink factory with a gzip compressor.
+     *
+     * @param sinkFactory the not-null decorated sink factory.
+     */
+    public CompressingSinkFactory(SinkFactory sinkFactory) {
+        this.sinkFactory = Objects.requireNonNull(sinkFactory, "sinkFactory cannot be null");
+
+        addCompressor(GZIP_EXTENSION, out -> new GZIPOutputStream(out, 8192) {
+            {
+                // sidecars are compressed once and served many times
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        });
+    }
+
+    /**
+     * Register a compressor producing sidecar files with the given extension, replacing any compressor
+     * registered for the same extension.
+     *
+     * @param extension the extension appended to the output name, for instance <code>.br</code>.
+     * @param compressor the compressor, <code>null</code> to not write sidecar files with this extension.
+     */
+    public void addCompressor(String extension, Compressor compressor) {
+        Objects.requireNonNull(extension, "extension cannot be null");
+
+        if (compressor == null) {
+            compressors.remove(extension);
+        } else {
+            compressors.put(extension, compressor);
+        }
+    }
+
+    @Override
+    public Sink createSink(File outputDir, String outputName) throws IOException {
+        return createSink(outputDir, outputName, "UTF-8");
+    }
+
+    @Override
+    public Sink createSink(File outputDir, String outputName, String encoding) throws IOException {
+        Objects.requireNonNull(outputDir, "outputDir cannot be null");
+
+        if (!outputDir.exists()) {
+            outputDir.mkdirs();
+        } else {
+            if (!outputDir.isDirectory()) {
+                throw new IllegalArgumentException("The dir '" + outputDir + "' is not a directory.");
+            }
+        }
+
+        File outputFile = new File(outputDir, outputName);
+        if (sinkFactory instanceof AbstractTextSinkFactory) {
+            AbstractTextSinkFactory textSinkFactory = (AbstractTextSinkFactory) sinkFactory;
+            // resolve the charset before any file is touched
+            Charset charset = Charset.forName(encoding);
+            List<OutputStream> sidecars = openSidecars(outputFile);
+            WritableByteChannel channel;
+            try {
+                channel = textSinkFactory.openOutputChannel(outputFile);
+            } catch (IOException | RuntimeException e) {
+                closeAll(sidecars, e);
+                throw e;
+            }
+            return textSinkFactory.createSink(new TeeChannel(channel, sidecars), charset, encoding);
+        }
+
+        List<OutputStream> outputs = new ArrayList<>(compressors.size() + 1);
+        try {
+            outputs.add(Files.newOutputStream(outputFile.toPath()));
+            outputs.addAll(openSidecars(outputFile));
+        } catch (IOException | RuntimeException e) {
+            closeAll(outputs, e);
+            throw e;
+        }
+
+        return sinkFactory.createSink(new TeeOutputStream(outputs), encoding);
+    }
+
+    /**
+     * Open the compressing streams of all sidecar files of an output file.
+     *
+     * @param outputFile the output file.
+     * @return the compressing streams, closing the sidecar files when closed.
+     * @throws java.io.IOException if a sidecar file can't be opened.
+     */
+    private List<OutputStream> openSidecars(File outputFile) throws IOException {
+        List<OutputStream> sidecars = new ArrayList<>(compressors.size());
+        try {
+            for (Map.Entry<String, Compressor> compressor : compressors.entrySet()) {
+                OutputStream sidecar = openSidecar(new File(outputFile.getPath() + compressor.getKey()));
+                try {
+                    sidecars.add(compressor.getValue().compress(sidecar));
+                } catch (IOException | RuntimeException e) {
+                    sidecar.close();
+                    throw e;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            closeAll(sidecars, e);
+            throw e;
+        }
+        return sidecars;
+    }
+
+    private OutputStream openSidecar(File sidecarFile) throws IOException {
+        if (sinkFactory instanceof AbstractTextSinkFactory) {
+            // same write mode as the output file
+            return Channels.newOutputStream(((AbstractTextSinkFactory) sinkFactory).openOutputChannel(sidecarFile));
+        }
+        return Files.newOutputStream(sidecarFile.toPath());
+    }
+
+    @Override
+    public Sink createSink(OutputStream out) throws IOException {
+        return sinkFactory.createSink(out);
+    }
+
+    @Override
+    public Sink createSink(OutputStream out, String encoding) throws IOException {
+        return sinkFactory.createSink(out, encoding);
+    }
+
+    private static void closeAll(List<OutputStream> outputs, Throwable failure) {
+        for (OutputStream out : outputs) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                failure.addSuppressed(e);
+            }
+        }
+    }
+
+    /**
+     * Writes the bytes written into a channel to several streams as well.
+     */
+    private static final class TeeChannel implements WritableByteChannel {
+        private final WritableByteChannel channel;
+
+        private final List<OutputStream> outputs;
+
+        /** Copies the bytes of direct buffers, reused for all writes. */
+        private final byte[] scratch = new byte[8192];
+
+        TeeChannel(WritableByteChannel channel, List<OutputStream> outputs) {
+            this.channel = channel;
+            this.outputs = outputs;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            ByteBuffer written = src.duplicate();
+            int length = channel.write(src);
+            written.limit(written.position() + length);
+            if (written.hasArray()) {
+                for (OutputStream out : outputs) {
+                    out.write(written.array(), written.arrayOffset() + written.position(), length);
+                }
+            } else {
+                while (written.hasRemaining()) {
+                    int n = Math.min(written.remaining(), scratch.length);
+                    written.get(scratch, 0, n);
+                    for (OutputStream out : outputs) {
+                        out.write(scratch, 0, n);
+                    }
+                }
+            }
+            return length;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return channel.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            IOException failure = null;
+            try {
+                channel.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+            try {
+                new TeeOutputStream(outputs).close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    /**
+     * Writes the same bytes to several streams.
+     */
+    private static final class TeeOutputStream extends OutputStream {
+        private final List<OutputStream> outputs;
+
+        TeeOutputStream(List<OutputStream> outputs) {
+            this.outputs = outputs;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            for (OutputStream out : outputs) {
+                out.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            for (OutputStream out : outputs) {
+                out.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            for (OutputStream out : outputs) {
+                out.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            IOException failure = null;
+            for (OutputStream out : outputs) {
+                try {
+                    out.close();
+                } catch (IOException e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+}
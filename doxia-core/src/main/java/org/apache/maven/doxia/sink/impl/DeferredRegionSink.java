@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.doxia.sink.impl;
+
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+import org.apache.maven.doxia.sink.Sink;
+
+/**
+ * A sink with named regions which can be rendered after the rest of the page, for instance a table of contents
+ * which is only known at the end of the page.
+ * <p>
+ * All output is kept in a {@link DeferredRegionWriter}. {@link #addRegion(String)} inserts a region at the
+ * current position and returns a sink writing into it. The page is written to the underlying writer when this
+ * sink is closed, with each region spliced in at its position.
+ * </p>
+ * <p>
+ * In contrast to {@link RandomAccessSink}, only one sink is created per region, and the output is neither
+ * encoded nor copied before it is written to the underlying writer.
+ * </p>
+ *
+ * @since 2.1.0
+ */
+public class DeferredRegionSink extends SinkWrapper {
+    private final DeferredRegionWriter writer;
+
+    private final Function<Writer, Sink> sinkCreator;
+
+    private final Map<String, Sink> regionSinks = new LinkedHashMap<>();
+
+    /**
+     * Create a sink with deferred regions.
+     *
+     * @param out the not-null writer receiving the complete page when this sink is closed.
+     * @param sinkCreator creates the sinks for the page and each region, for instance <code>Xhtml5BaseSink::new</code>.
+     */
+    public DeferredRegionSink(Writer out, Function<Writer, Sink> sinkCreator) {
+        this(new DeferredRegionWriter(out), sinkCreator);
+    }
+
+    private DeferredRegionSink(DeferredRegionWriter writer, Function<Writer, Sink> sinkCreator) {
+        super(Objects.requireNonNull(sinkCreator, "sinkCreator cannot be null").apply(writer));
+        this.writer = writer;
+        this.sinkCreator = sinkCreator;
+    }
+
+    /**
+     * Insert a region at the current position. The returned sink may be used until this sink is closed.
+     *
+     * @param name the not-null name of the region, unique within this sink.
+     * @return the sink rendering the content of the region.
+     * @throws java.lang.IllegalArgumentException if a region with that name already exists.
+     */
+    public Sink addRegion(String name) {
+        // make sure everything emitted so far ends up before the region
+        getWrappedSink().flush();
+
+        Sink regionSink = sinkCreator.apply(writer.addRegion(name));
+        regionSinks.put(name, regionSink);
+        return regionSink;
+    }
+
+    /**
+     * @param name the name of a region.
+     * @return the sink rendering the content of the region, or <code>null</code> if there is no region with
+     * that name.
+     */
+    public Sink getRegion(String name) {
+        return regionSinks.get(name);
+    }
+
+    /**
+     * Close the sinks of all regions, then write the complete page to the underlying writer.
+     */
+    @Override
+    public void close() {
+        for (Sink regionSink : regionSinks.values()) {
+            regionSink.close();
+        }
+        super.close();
+    }
+}
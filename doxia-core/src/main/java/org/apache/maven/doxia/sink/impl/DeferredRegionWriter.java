@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.doxia.sink.impl;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A <code>Writer</code> which keeps its output in memory, with named regions which can be filled later.
+ * <p>
+ * The output is recorded as a rope of char chunks: appending never copies what has been written
+ * before. {@link #addRegion(String)} inserts a hole at the current position and returns a writer for its
+ * content, which can be written at any time before this writer is closed. Regions may contain regions
+ * themselves. {@link #close()} writes the chunks and regions in order to the underlying writer and closes it.
+ * </p>
+ * <p>
+ * This is useful for late-bound content like tables of contents, page counts or "last updated" blocks, which
+ * are only known after the rest of the page has been rendered.
+ * </p>
+ *
+ * @since 2.1.0
+ * @see DeferredRegionSink
+ */
+public class DeferredRegionWriter extends Writer {
+    private static final int INITIAL_CHUNK_SIZE = 256;
+
+    private static final int MAX_CHUNK_SIZE = 8192;
+
+    private final Writer out;
+
+    /** The written chunks and regions, in order. */
+    private final List<Object> segments = new ArrayList<>();
+
+    private final Map<String, DeferredRegionWriter> regions = new HashMap<>();
+
+    private Chunk chunk;
+
+    private int nextChunkSize = INITIAL_CHUNK_SIZE;
+
+    private boolean closed;
+
+    /**
+     * Create a writer deferring all output until it is closed.
+     *
+     * @param out the not-null writer receiving the complete output on {@link #close()}.
+     */
+    public DeferredRegionWriter(Writer out) {
+        this.out = Objects.requireNonNull(out, "out cannot be null");
+    }
+
+    private DeferredRegionWriter() {
+        this.out = null;
+    }
+
+    /**
+     * Insert a region at the current position.
+     *
+     * @param name the not-null name of the region, unique within this writer.
+     * @return the writer for the content of the region, which doesn't need to be closed.
+     * @throws java.lang.IllegalArgumentException if a region with that name already exists.
+     */
+    public Writer addRegion(String name) {
+        Objects.requireNonNull(name, "name cannot be null");
+        if (closed) {
+            throw new IllegalStateException("The writer is already closed.");
+        }
+        if (regions.containsKey(name)) {
+            throw new IllegalArgumentException("Region '" + name + "' already exists.");
+        }
+
+        DeferredRegionWriter region = new DeferredRegionWriter();
+        regions.put(name, region);
+        segments.add(region);
+        chunk = null;
+        return region;
+    }
+
+    /**
+     * @param name the name of a region.
+     * @return the writer for the content of the region, or <code>null</code> if there is no region with that name.
+     */
+    public Writer getRegion(String name) {
+        return regions.get(name);
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        ensureOpen();
+        Chunk current = currentChunk();
+        current.chars[current.length++] = (char) c;
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || off + len > cbuf.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        ensureOpen();
+
+        while (len > 0) {
+            Chunk current = currentChunk();
+            int count = Math.min(len, current.chars.length - current.length);
+            System.arraycopy(cbuf, off, current.chars, current.length, count);
+            current.length += count;
+            off += count;
+            len -= count;
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || off + len > str.length()) {
+            throw new IndexOutOfBoundsException();
+        }
+        ensureOpen();
+
+        while (len > 0) {
+            Chunk current = currentChunk();
+            int count = Math.min(len, current.chars.length - current.length);
+            str.getChars(off, off + count, current.chars, current.length);
+            current.length += count;
+            off += count;
+            len -= count;
+        }
+    }
+
+    /**
+     * Does nothing, as no output can be written before all regions have been filled.
+     */
+    @Override
+    public void flush() {
+        // nop
+    }
+
+    /**
+     * Write the complete output to the underlying writer and close it. Closing a region only prevents further
+     * writes to it.
+     *
+     * @throws java.io.IOException if the output cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        if (out != null) {
+            try {
+                writeTo(out);
+            } finally {
+                out.close();
+            }
+        }
+    }
+
+    private void writeTo(Writer writer) throws IOException {
+        for (Object segment : segments) {
+            if (segment instanceof Chunk) {
+                Chunk written = (Chunk) segment;
+                writer.write(written.chars, 0, written.length);
+            } else {
+                ((DeferredRegionWriter) segment).writeTo(writer);
+            }
+        }
+    }
+
+    private Chunk currentChunk() {
+        if (chunk == null || chunk.length == chunk.chars.length) {
+            // start small, as regions often only contain a few characters
+            chunk = new Chunk(nextChunkSize);
+            segments.add(chunk);
+            nextChunkSize = Math.min(MAX_CHUNK_SIZE, nextChunkSize * 2);
+        }
+        return chunk;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("The writer is already closed.");
+        }
+    }
+
+    private static final class Chunk {
+        private final char[] chars;
+
+        private int length;
+
+        Chunk(int size) {
+            chars = new char[size];
+        }
+    }
+}
@@ -0,0 +1,1119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.doxia.sink.impl;
+
+import javax.swing.text.AttributeSet;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.apache.maven.doxia.sink.Locator;
+import org.apache.maven.doxia.sink.Sink;
+import org.apache.maven.doxia.sink.SinkEventAttributes;
+
+/**
+ * Buffers all events until {@link #flush()} is called, which replays them on the buffered sink.
+ * <p>
+ * The events are recorded in a compact form: one int per event in an event array, and their arguments in
+ * an int and an object array. Replaying dispatches each event directly to the according {@link Sink} method,
+ * without reflection or boxing. After flushing, the buffer is empty and may be reused, also for another
+ * buffered sink via {@link #setBufferedSink(Sink)}.
+ * </p>
+ * <p>
+ * Like {@link SinkWrapper}, this sink only records the Doxia 1.1+ variants of the legacy events.
+ * {@link #close()} and {@link #setDocumentLocator(Locator)} are buffered as well,
+ * while {@link #getDocumentLocator()} returns the locator of the buffered sink.
+ * </p>
+ *
+ * @since 2.1.0
+ */
+public class EventBufferSink extends AbstractSink {
+    private static final int HEAD = 0;
+    private static final int HEAD_END = 1;
+    private static final int TITLE = 2;
+    private static final int TITLE_END = 3;
+    private static final int AUTHOR = 4;
+    private static final int AUTHOR_END = 5;
+    private static final int DATE = 6;
+    private static final int DATE_END = 7;
+    private static final int BODY = 8;
+    private static final int BODY_END = 9;
+    private static final int ARTICLE = 10;
+    private static final int ARTICLE_END = 11;
+    private static final int NAVIGATION = 12;
+    private static final int NAVIGATION_END = 13;
+    private static final int SIDEBAR = 14;
+    private static final int SIDEBAR_END = 15;
+    private static final int SECTION = 16;
+    private static final int SECTION_END = 17;
+    private static final int SECTION_TITLE = 18;
+    private static final int SECTION_TITLE_END = 19;
+    private static final int HEADER = 20;
+    private static final int HEADER_END = 21;
+    private static final int CONTENT = 22;
+    private static final int CONTENT_END = 23;
+    private static final int FOOTER = 24;
+    private static final int FOOTER_END = 25;
+    private static final int LIST = 26;
+    private static final int LIST_END = 27;
+    private static final int LIST_ITEM = 28;
+    private static final int LIST_ITEM_END = 29;
+    private static final int NUMBERED_LIST = 30;
+    private static final int NUMBERED_LIST_END = 31;
+    private static final int NUMBERED_LIST_ITEM = 32;
+    private static final int NUMBERED_LIST_ITEM_END = 33;
+    private static final int DEFINITION_LIST = 34;
+    private static final int DEFINITION_LIST_END = 35;
+    private static final int DEFINITION_LIST_ITEM = 36;
+    private static final int DEFINITION_LIST_ITEM_END = 37;
+    private static final int DEFINITION = 38;
+    private static final int DEFINITION_END = 39;
+    private static final int DEFINED_TERM = 40;
+    private static final int DEFINED_TERM_END = 41;
+    private static final int FIGURE = 42;
+    private static final int FIGURE_END = 43;
+    private static final int FIGURE_CAPTION = 44;
+    private static final int FIGURE_CAPTION_END = 45;
+    private static final int FIGURE_GRAPHICS = 46;
+    private static final int TABLE = 47;
+    private static final int TABLE_END = 48;
+    private static final int TABLE_ROWS = 49;
+    private static final int TABLE_ROWS_END = 50;
+    private static final int TABLE_ROW = 51;
+    private static final int TABLE_ROW_END = 52;
+    private static final int TABLE_CELL = 53;
+    private static final int TABLE_CELL_END = 54;
+    private static final int TABLE_HEADER_CELL = 55;
+    private static final int TABLE_HEADER_CELL_END = 56;
+    private static final int TABLE_CAPTION = 57;
+    private static final int TABLE_CAPTION_END = 58;
+    private static final int PARAGRAPH = 59;
+    private static final int PARAGRAPH_END = 60;
+    private static final int DATA = 61;
+    private static final int DATA_END = 62;
+    private static final int TIME = 63;
+    private static final int TIME_END = 64;
+    private static final int ADDRESS = 65;
+    private static final int ADDRESS_END = 66;
+    private static final int BLOCKQUOTE = 67;
+    private static final int BLOCKQUOTE_END = 68;
+    private static final int DIVISION = 69;
+    private static final int DIVISION_END = 70;
+    private static final int VERBATIM = 71;
+    private static final int VERBATIM_END = 72;
+    private static final int HORIZONTAL_RULE = 73;
+    private static final int PAGE_BREAK = 74;
+    private static final int ANCHOR = 75;
+    private static final int ANCHOR_END = 76;
+    private static final int LINK = 77;
+    private static final int LINK_END = 78;
+    private static final int INLINE = 79;
+    private static final int INLINE_END = 80;
+    private static final int ITALIC = 81;
+    private static final int ITALIC_END = 82;
+    private static final int BOLD = 83;
+    private static final int BOLD_END = 84;
+    private static final int MONOSPACED = 85;
+    private static final int MONOSPACED_END = 86;
+    private static final int LINE_BREAK = 87;
+    private static final int LINE_BREAK_OPPORTUNITY = 88;
+    private static final int NON_BREAKING_SPACE = 89;
+    private static final int TEXT = 90;
+    private static final int RAW_TEXT = 91;
+    private static final int COMMENT = 92;
+    private static final int COMMENT_WITH_LINE_BREAK = 93;
+    private static final int UNKNOWN = 94;
+    private static final int SET_DOCUMENT_LOCATOR = 95;
+    private static final int CLOSE = 96;
+
+    private Sink bufferedSink;
+
+    private int[] events = new int[64];
+
+    private int eventCount;
+
+    private int[] intArguments = new int[16];
+
+    private int intCount;
+
+    private Object[] objectArguments = new Object[64];
+
+    private int objectCount;
+
+    /**
+     * Create a buffer for the given sink.
+     *
+     * @param bufferedSink the not-null sink which receives the events on {@link #flush()}.
+     */
+    public EventBufferSink(Sink bufferedSink) {
+        setBufferedSink(bufferedSink);
+    }
+
+    /**
+     * @return the sink which receives the events on {@link #flush()}.
+     */
+    public Sink getBufferedSink() {
+        return bufferedSink;
+    }
+
+    /**
+     * Sets the sink which receives the events on {@link #flush()}.
+     *
+     * @param bufferedSink the not-null buffered sink.
+     */
+    public void setBufferedSink(Sink bufferedSink) {
+        this.bufferedSink = Objects.requireNonNull(bufferedSink, "bufferedSink cannot be null");
+    }
+
+    /**
+     * @return the number of buffered events.
+     */
+    public int size() {
+        return eventCount;
+    }
+
+    /**
+     * @return {@code true} if no event is buffered.
+     */
+    public boolean isEmpty() {
+        return eventCount == 0;
+    }
+
+    /**
+     * Discards all buffered events.
+     */
+    public void clear() {
+        Arrays.fill(objectArguments, 0, objectCount, null);
+        eventCount = 0;
+        intCount = 0;
+        objectCount = 0;
+    }
+
+    /**
+     * Replays all buffered events on the buffered sink and empties the buffer.
+     * The buffered sink itself is not flushed.
+     */
+    @Override
+    public void flush() {
+        replay(bufferedSink, false);
+        clear();
+    }
+
+    /**
+     * Replays all buffered events on the given sink, keeping them buffered. This allows to emit the same events
+     * several times, therefore the attributes are copied for each replay as sinks may modify them.
+     *
+     * @param sink the not-null sink which receives the events.
+     */
+    public void replay(Sink sink) {
+        replay(Objects.requireNonNull(sink, "sink cannot be null"), true);
+    }
+
+    private void replay(Sink sink, boolean copyAttributes) {
+        int i = 0;
+        int o = 0;
+        for (int e = 0; e < eventCount; e++) {
+            switch (events[e]) {
+                case HEAD:
+                    sink.head(attributes(objectArguments[o++], copyAttributes));
+                    break;
+                case HEAD_END:
+                    sink.head_();
+                    break;
+                case TITLE:
+                    sink.title(attributes(objectArguments[o++], copyAttributes));
+                    break;
+                case TITLE_END:
+                    sink.title_();
+                    break;
+                case AUTHOR:
+                    sink.author(attributes(objectArguments[o++], copyAttributes));
+                    break;
+                case AUTHOR_END:
+                    sink.author_();
+                    break;
+                case DATE:
+                    sink.date(attributes(objectArguments[o++], copyAttributes));
+                    break;
+                case DATE_END:
+                    sink.date_();
+                    break;
+                case BODY:
+                    sink.body(attributes(objectArguments[o++], copyAttributes));
+                    break;
+                case BODY_END:
+                    sink.body_();
+                    break;
+                case ARTICLE:
+                    sink.article(attributes(objectArguments[o++], copyAttributes));
+                    break;
+                case ARTICLE_END:
+                    sink.article_();
+                    break;
+                case NAVIGATION:
+                    sink.navigation(attributes(objectArguments[o++], copyAttributes));
+                    break;
+                case NAVIGATION_END:
+                    sink.navigation_();
+                    break;
+                case SIDEBAR:
+                    sink.sidebar(attributes(objectArguments[o++], copyAttributes));
+                    break;
+                case SIDEBAR_END:
+                    sink.sidebar_();
+                    break;
+                case SECTION:
+                    sink.section(intArguments[i++], attributes(objectArguments[o++], copyAttributes));
+                    break;
+                case SECTION_END:
+                    sink.section_(intArguments[i++]);
+                    break;
+                case SECTION_TITLE:
+                    sink.sectionTitle(intArguments[i++], attributes(objectArguments[o++], copyAttributes));
+                    break;
+                case SECTION_TITLE_END:
+                    sink.sectionTitle_(intArguments[i++]);
+                    break;
+                case HEADER:
+                    sink.header(attributes(objectArguments[o++], copyAttributes));
+                    break;
+                case HEADER_END:
+                    sink.header_();
+                    break;
+                case CONTENT:
+                    sink.content(attributes(objectArguments[o++], copyAttributes));
+                    break;
+                case CONTENT_END:
+                    sink.content_();
+                    break;
+                case FOOTER:
+                    sink.footer(attributes(objectArguments[o++], copyAttributes));
+                    break;
+                case FOOTER_END:
+                    sink.footer_();
+                    break;
+                case LIST:
+                    sink.list(attributes(objectArguments[o++], copyAttributes));
+                    break;
+                case LIST_END:
+                    sink.list_();
+                    break;
+                case LIST_ITEM:
+                    sink.listItem(attributes(objectArguments[o++], copyAttributes));
+                    break;
+                case LIST_ITEM_END:
+                    sink.listItem_();
+                    break;
+                case NUMBERED_LIST:
+                    sink.numberedList(intArguments[i++], attributes(objectArguments[o++], copyAttributes));
+                    break;
+                case NUMBERED_LIST_END:
+                    sink.numberedList_();
+                    break;
+                case NUMBERED_LIST_ITEM:
+                    sink.numberedListItem(attributes(objectArguments[o++], copyAttributes));
+                    break;
+                case NUMBERED_LIST_ITEM_END:
+                    sink.numberedListItem_();
+                    break;
+                case DEFINITION_LIST:
+                    sink.definitionList(attributes(objectArguments[o++], copyAttributes));
+                    break;
+                case DEFINITION_LIST_END:
+                    sink.definitionList_();
+                    break;
+                case DEFINITION_LIST_ITEM:
+                    sink.definitionListItem(attributes(objectArguments[o++], copyAttributes));
+                    break;
+                case DEFINITION_LIST_ITEM_END:
+                    sink.definitionListItem_();
+                    break;
+                case DEFINITION:
+                    sink.definition(attributes(objectArguments[o++], copyAttributes));
+                    break;
+                case DEFINITION_END:
+                    sink.definition_();
+                    break;
+                case DEFINED_TERM:
+                    sink.definedTerm(attributes(objectArguments[o++], copyAttributes));
+                    break;
+                case DEFINED_TERM_END:
+                    sink.definedTerm_();
+                    break;
+                case FIGURE:
+                    sink.figure(attributes(objectArguments[o++], copyAttributes));
+                    break;
+                case FIGURE_END:
+                    sink.figure_();
+                    break;
+                case FIGURE_CAPTION:
+                    sink.figureCaption(attributes(objectArguments[o++], copyAttributes));
+                    break;
+                case FIGURE_CAPTION_END:
+                    sink.figureCaption_();
+                    break;
+                case FIGURE_GRAPHICS:
+                    sink.figureGraphics(
+                            (String) objectArguments[o++], attributes(objectArguments[o++], copyAttributes));
+                    break;
+                case TABLE:
+                    sink.table(attributes(objectArguments[o++], copyAttributes));
+                    break;
+                case TABLE_END:
+                    sink.table_();
+                    break;
+                case TABLE_ROWS:
+                    sink.tableRows((int[]) objectArguments[o++], intArguments[i++] != 0);
+                    break;
+                case TABLE_ROWS_END:
+                    sink.tableRows_();
+                    break;
+                case TABLE_ROW:
+                    sink.tableRow(attributes(objectArguments[o++], copyAttributes));
+                    break;
+                case TABLE_ROW_END:
+                    sink.tableRow_();
+                    break;
+                case TABLE_CELL:
+                    sink.tableCell(attributes(objectArguments[o++], copyAttributes));
+                    break;
+                case TABLE_CELL_END:
+                    sink.tableCell_();
+                    break;
+                case TABLE_HEADER_CELL:
+                    sink.tableHeaderCell(attributes(objectArguments[o++], copyAttributes));
+                    break;
+                case TABLE_HEADER_CELL_END:
+                    sink.tableHeaderCell_();
+                    break;
+                case TABLE_CAPTION:
+                    sink.tableCaption(attributes(objectArguments[o++], copyAttributes));
+                    break;
+                case TABLE_CAPTION_END:
+                    sink.tableCaption_();
+                    break;
+                case PARAGRAPH:
+                    sink.paragraph(attributes(objectArguments[o++], copyAttributes));
+                    break;
+                case PARAGRAPH_END:
+                    sink.paragraph_();
+                    break;
+                case DATA:
+                    sink.data((String) objectArguments[o++], attributes(objectArguments[o++], copyAttributes));
+                    break;
+                case DATA_END:
+                    sink.data_();
+                    break;
+                case TIME:
+                    sink.time((String) objectArguments[o++], attributes(objectArguments[o++], copyAttributes));
+                    break;
+                case TIME_END:
+                    sink.time_();
+                    break;
+                case ADDRESS:
+                    sink.address(attributes(objectArguments[o++], copyAttributes));
+                    break;
+                case ADDRESS_END:
+                    sink.address_();
+                    break;
+                case BLOCKQUOTE:
+                    sink.blockquote(attributes(objectArguments[o++], copyAttributes));
+                    break;
+                case BLOCKQUOTE_END:
+                    sink.blockquote_();
+                    break;
+                case DIVISION:
+                    sink.division(attributes(objectArguments[o++], copyAttributes));
+                    break;
+                case DIVISION_END:
+                    sink.division_();
+                    break;
+                case VERBATIM:
+                    sink.verbatim(attributes(objectArguments[o++], copyAttributes));
+                    break;
+                case VERBATIM_END:
+                    sink.verbatim_();
+                    break;
+                case HORIZONTAL_RULE:
+                    sink.horizontalRule(attributes(objectArguments[o++], copyAttributes));
+                    break;
+                case PAGE_BREAK:
+                    sink.pageBreak();
+                    break;
+                case ANCHOR:
+                    sink.anchor((String) objectArguments[o++], attributes(objectArguments[o++], copyAttributes));
+                    break;
+                case ANCHOR_END:
+                    sink.anchor_();
+                    break;
+                case LINK:
+                    sink.link((String) objectArguments[o++], attributes(objectArguments[o++], copyAttributes));
+                    break;
+                case LINK_END:
+                    sink.link_();
+                    break;
+                case INLINE:
+                    sink.inline(attributes(objectArguments[o++], copyAttributes));
+                    break;
+                case INLINE_END:
+                    sink.inline_();
+                    break;
+                case ITALIC:
+                    sink.italic();
+                    break;
+                case ITALIC_END:
+                    sink.italic_();
+                    break;
+                case BOLD:
+                    sink.bold();
+                    break;
+                case BOLD_END:
+                    sink.bold_();
+                    break;
+                case MONOSPACED:
+                    sink.monospaced();
+                    break;
+                case MONOSPACED_END:
+                    sink.monospaced_();
+                    break;
+                case LINE_BREAK:
+                    sink.lineBreak(attributes(objectArguments[o++], copyAttributes));
+                    break;
+                case LINE_BREAK_OPPORTUNITY:
+                    sink.lineBreakOpportunity(attributes(objectArguments[o++], copyAttributes));
+                    break;
+                case NON_BREAKING_SPACE:
+                    sink.nonBreakingSpace();
+                    break;
+                case TEXT:
+                    sink.text((String) objectArguments[o++], attributes(objectArguments[o++], copyAttributes));
+                    break;
+                case RAW_TEXT:
+                    sink.rawText((String) objectArguments[o++]);
+                    break;
+                case COMMENT:
+                    sink.comment((String) objectArguments[o++]);
+                    break;
+                case COMMENT_WITH_LINE_BREAK:
+                    sink.comment((String) objectArguments[o++], intArguments[i++] != 0);
+                    break;
+                case UNKNOWN:
+                    sink.unknown(
+                            (String) objectArguments[o++],
+                            (Object[]) objectArguments[o++],
+                            attributes(objectArguments[o++], copyAttributes));
+                    break;
+                case SET_DOCUMENT_LOCATOR:
+                    sink.setDocumentLocator((Locator) objectArguments[o++]);
+                    break;
+                case CLOSE:
+                    sink.close();
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown buffered event " + events[e]);
+            }
+        }
+    }
+
+    private static SinkEventAttributes attributes(Object attributes, boolean copy) {
+        if (attributes == null || !copy) {
+            return (SinkEventAttributes) attributes;
+        }
+
+        AttributeSet attributeSet = ((SinkEventAttributes) attributes).copyAttributes();
+        return attributeSet instanceof SinkEventAttributes
+                ? (SinkEventAttributes) attributeSet
+                : new SinkEventAttributeSet((SinkEventAttributes) attributes);
+    }
+
+    @Override
+    public Locator getDocumentLocator() {
+        return bufferedSink.getDocumentLocator();
+    }
+
+    @Override
+    public void head(SinkEventAttributes attributes) {
+        add(HEAD);
+        addObject(attributes);
+    }
+
+    @Override
+    public void head_() {
+        add(HEAD_END);
+    }
+
+    @Override
+    public void title(SinkEventAttributes attributes) {
+        add(TITLE);
+        addObject(attributes);
+    }
+
+    @Override
+    public void title_() {
+        add(TITLE_END);
+    }
+
+    @Override
+    public void author(SinkEventAttributes attributes) {
+        add(AUTHOR);
+        addObject(attributes);
+    }
+
+    @Override
+    public void author_() {
+        add(AUTHOR_END);
+    }
+
+    @Override
+    public void date(SinkEventAttributes attributes) {
+        add(DATE);
+        addObject(attributes);
+    }
+
+    @Override
+    public void date_() {
+        add(DATE_END);
+    }
+
+    @Override
+    public void body(SinkEventAttributes attributes) {
+        add(BODY);
+        addObject(attributes);
+    }
+
+    @Override
+    public void body_() {
+        add(BODY_END);
+    }
+
+    @Override
+    public void article(SinkEventAttributes attributes) {
+        add(ARTICLE);
+        addObject(attributes);
+    }
+
+    @Override
+    public void article_() {
+        add(ARTICLE_END);
+    }
+
+    @Override
+    public void navigation(SinkEventAttributes attributes) {
+        add(NAVIGATION);
+        addObject(attributes);
+    }
+
+    @Override
+    public void navigation_() {
+        add(NAVIGATION_END);
+    }
+
+    @Override
+    public void sidebar(SinkEventAttributes attributes) {
+        add(SIDEBAR);
+        addObject(attributes);
+    }
+
+    @Override
+    public void sidebar_() {
+        add(SIDEBAR_END);
+    }
+
+    @Override
+    public void section(int level, SinkEventAttributes attributes) {
+        add(SECTION);
+        addInt(level);
+        addObject(attributes);
+    }
+
+    @Override
+    public void section_(int level) {
+        add(SECTION_END);
+        addInt(level);
+    }
+
+    @Override
+    public void sectionTitle(int level, SinkEventAttributes attributes) {
+        add(SECTION_TITLE);
+        addInt(level);
+        addObject(attributes);
+    }
+
+    @Override
+    public void sectionTitle_(int level) {
+        add(SECTION_TITLE_END);
+        addInt(level);
+    }
+
+    @Override
+    public void header(SinkEventAttributes attributes) {
+        add(HEADER);
+        addObject(attributes);
+    }
+
+    @Override
+    public void header_() {
+        add(HEADER_END);
+    }
+
+    @Override
+    public void content(SinkEventAttributes attributes) {
+        add(CONTENT);
+        addObject(attributes);
+    }
+
+    @Override
+    public void content_() {
+        add(CONTENT_END);
+    }
+
+    @Override
+    public void footer(SinkEventAttributes attributes) {
+        add(FOOTER);
+        addObject(attributes);
+    }
+
+    @Override
+    public void footer_() {
+        add(FOOTER_END);
+    }
+
+    @Override
+    public void list(SinkEventAttributes attributes) {
+        add(LIST);
+        addObject(attributes);
+    }
+
+    @Override
+    public void list_() {
+        add(LIST_END);
+    }
+
+    @Override
+    public void listItem(SinkEventAttributes attributes) {
+        add(LIST_ITEM);
+        addObject(attributes);
+    }
+
+    @Override
+    public void listItem_() {
+        add(LIST_ITEM_END);
+    }
+
+    @Override
+    public void numberedList(int numbering, SinkEventAttributes attributes) {
+        add(NUMBERED_LIST);
+        addInt(numbering);
+        addObject(attributes);
+    }
+
+    @Override
+    public void numberedList_() {
+        add(NUMBERED_LIST_END);
+    }
+
+    @Override
+    public void numberedListItem(SinkEventAttributes attributes) {
+        add(NUMBERED_LIST_ITEM);
+        addObject(attributes);
+    }
+
+    @Override
+    public void numberedListItem_() {
+        add(NUMBERED_LIST_ITEM_END);
+    }
+
+    @Override
+    public void definitionList(SinkEventAttributes attributes) {
+        add(DEFINITION_LIST);
+        addObject(attributes);
+    }
+
+    @Override
+    public void definitionList_() {
+        add(DEFINITION_LIST_END);
+    }
+
+    @Override
+    public void definitionListItem(SinkEventAttributes attributes) {
+        add(DEFINITION_LIST_ITEM);
+        addObject(attributes);
+    }
+
+    @Override
+    public void definitionListItem_() {
+        add(DEFINITION_LIST_ITEM_END);
+    }
+
+    @Override
+    public void definition(SinkEventAttributes attributes) {
+        add(DEFINITION);
+        addObject(attributes);
+    }
+
+    @Override
+    public void definition_() {
+        add(DEFINITION_END);
+    }
+
+    @Override
+    public void definedTerm(SinkEventAttributes attributes) {
+        add(DEFINED_TERM);
+        addObject(attributes);
+    }
+
+    @Override
+    public void definedTerm_() {
+        add(DEFINED_TERM_END);
+    }
+
+    @Override
+    public void figure(SinkEventAttributes attributes) {
+        add(FIGURE);
+        addObject(attributes);
+    }
+
+    @Override
+    public void figure_() {
+        add(FIGURE_END);
+    }
+
+    @Override
+    public void figureCaption(SinkEventAttributes attributes) {
+        add(FIGURE_CAPTION);
+        addObject(attributes);
+    }
+
+    @Override
+    public void figureCaption_() {
+        add(FIGURE_CAPTION_END);
+    }
+
+    @Override
+    public void figureGraphics(String src, SinkEventAttributes attributes) {
+        add(FIGURE_GRAPHICS);
+        addObject(src);
+        addObject(attributes);
+    }
+
+    @Override
+    public void table(SinkEventAttributes attributes) {
+        add(TABLE);
+        addObject(attributes);
+    }
+
+    @Override
+    public void table_() {
+        add(TABLE_END);
+    }
+
+    @Override
+    public void tableRows(int[] justification, boolean grid) {
+        add(TABLE_ROWS);
+        addObject(justification);
+        addInt(grid ? 1 : 0);
+    }
+
+    @Override
+    public void tableRows_() {
+        add(TABLE_ROWS_END);
+    }
+
+    @Override
+    public void tableRow(SinkEventAttributes attributes) {
+        add(TABLE_ROW);
+        addObject(attributes);
+    }
+
+    @Override
+    public void tableRow_() {
+        add(TABLE_ROW_END);
+    }
+
+    @Override
+    public void tableCell(SinkEventAttributes attributes) {
+        add(TABLE_CELL);
+        addObject(attributes);
+    }
+
+    @Override
+    public void tableCell_() {
+        add(TABLE_CELL_END);
+    }
+
+    @Override
+    public void tableHeaderCell(SinkEventAttributes attributes) {
+        add(TABLE_HEADER_CELL);
+        addObject(attributes);
+    }
+
+    @Override
+    public void tableHeaderCell_() {
+        add(TABLE_HEADER_CELL_END);
+    }
+
+    @Override
+    public void tableCaption(SinkEventAttributes attributes) {
+        add(TABLE_CAPTION);
+        addObject(attributes);
+    }
+
+    @Override
+    public void tableCaption_() {
+        add(TABLE_CAPTION_END);
+    }
+
+    @Override
+    public void paragraph(SinkEventAttributes attributes) {
+        add(PARAGRAPH);
+        addObject(attributes);
+    }
+
+    @Override
+    public void paragraph_() {
+        add(PARAGRAPH_END);
+    }
+
+    @Override
+    public void data(String value, SinkEventAttributes attributes) {
+        add(DATA);
+        addObject(value);
+        addObject(attributes);
+    }
+
+    @Override
+    public void data_() {
+        add(DATA_END);
+    }
+
+    @Override
+    public void time(String datetime, SinkEventAttributes attributes) {
+        add(TIME);
+        addObject(datetime);
+        addObject(attributes);
+    }
+
+    @Override
+    public void time_() {
+        add(TIME_END);
+    }
+
+    @Override
+    public void address(SinkEventAttributes attributes) {
+        add(ADDRESS);
+        addObject(attributes);
+    }
+
+    @Override
+    public void address_() {
+        add(ADDRESS_END);
+    }
+
+    @Override
+    public void blockquote(SinkEventAttributes attributes) {
+        add(BLOCKQUOTE);
+        addObject(attributes);
+    }
+
+    @Override
+    public void blockquote_() {
+        add(BLOCKQUOTE_END);
+    }
+
+    @Override
+    public void division(SinkEventAttributes attributes) {
+        add(DIVISION);
+        addObject(attributes);
+    }
+
+    @Override
+    public void division_() {
+        add(DIVISION_END);
+    }
+
+    @Override
+    public void verbatim(SinkEventAttributes attributes) {
+        add(VERBATIM);
+        addObject(attributes);
+    }
+
+    @Override
+    public void verbatim_() {
+        add(VERBATIM_END);
+    }
+
+    @Override
+    public void horizontalRule(SinkEventAttributes attributes) {
+        add(HORIZONTAL_RULE);
+        addObject(attributes);
+    }
+
+    @Override
+    public void pageBreak() {
+        add(PAGE_BREAK);
+    }
+
+    @Override
+    public void anchor(String name, SinkEventAttributes attributes) {
+        add(ANCHOR);
+        addObject(name);
+        addObject(attributes);
+    }
+
+    @Override
+    public void anchor_() {
+        add(ANCHOR_END);
+    }
+
+    @Override
+    public void link(String name, SinkEventAttributes attributes) {
+        add(LINK);
+        addObject(name);
+        addObject(attributes);
+    }
+
+    @Override
+    public void link_() {
+        add(LINK_END);
+    }
+
+    @Override
+    public void inline(SinkEventAttributes attributes) {
+        add(INLINE);
+        addObject(attributes);
+    }
+
+    @Override
+    public void inline_() {
+        add(INLINE_END);
+    }
+
+    @Override
+    public void italic() {
+        add(ITALIC);
+    }
+
+    @Override
+    public void italic_() {
+        add(ITALIC_END);
+    }
+
+    @Override
+    public void bold() {
+        add(BOLD);
+    }
+
+    @Override
+    public void bold_() {
+        add(BOLD_END);
+    }
+
+    @Override
+    public void monospaced() {
+        add(MONOSPACED);
+    }
+
+    @Override
+    public void monospaced_() {
+        add(MONOSPACED_END);
+    }
+
+    @Override
+    public void lineBreak(SinkEventAttributes attributes) {
+        add(LINE_BREAK);
+        addObject(attributes);
+    }
+
+    @Override
+    public void lineBreakOpportunity(SinkEventAttributes attributes) {
+        add(LINE_BREAK_OPPORTUNITY);
+        addObject(attributes);
+    }
+
+    @Override
+    public void nonBreakingSpace() {
+        add(NON_BREAKING_SPACE);
+    }
+
+    @Override
+    public void text(String text, SinkEventAttributes attributes) {
+        add(TEXT);
+        addObject(text);
+        addObject(attributes);
+    }
+
+    @Override
+    public void rawText(String text) {
+        add(RAW_TEXT);
+        addObject(text);
+    }
+
+    @Override
+    public void comment(String comment) {
+        add(COMMENT);
+        addObject(comment);
+    }
+
+    @Override
+    public void comment(String comment, boolean endsWithLineBreak) {
+        add(COMMENT_WITH_LINE_BREAK);
+        addObject(comment);
+        addInt(endsWithLineBreak ? 1 : 0);
+    }
+
+    @Override
+    public void unknown(String name, Object[] requiredParams, SinkEventAttributes attributes) {
+        add(UNKNOWN);
+        addObject(name);
+        addObject(requiredParams);
+        addObject(attributes);
+    }
+
+    @Override
+    public void setDocumentLocator(Locator locator) {
+        add(SET_DOCUMENT_LOCATOR);
+        addObject(locator);
+    }
+
+    @Override
+    public void close() {
+        add(CLOSE);
+    }
+
+    private void add(int event) {
+        if (eventCount == events.length) {
+            events = Arrays.copyOf(events, eventCount * 2);
+        }
+        events[eventCount++] = event;
+    }
+
+    private void addInt(int value) {
+        if (intCount == intArguments.length) {
+            intArguments = Arrays.copyOf(intArguments, intCount * 2);
+        }
+        intArguments[intCount++] = value;
+    }
+
+    private void addObject(Object value) {
+        if (objectCount == objectArguments.length) {
+            objectArguments = Arrays.copyOf(objectArguments, objectCount * 2);
+        }
+        objectArguments[objectCount++] = value;
+    }
+}
@@ -28,10 +28,11 @@ import org.apache.maven.doxia.sink.Sink;
 
 /**
  * May be used to invoke the same method on a List of Sinks.
- * @deprecated Use the {@link SinkWrapper} approach which doesn't require the use of dynamic proxies.
+ * @deprecated Use {@link TeeSink} or the {@link SinkWrapper} approach which don't require the use of dynamic proxies.
  *
  * @author <a href="mailto:trygvis@inamo.no">Trygve Laugst&oslash;l</a>
  * @see SinkWrapper
+ * @see TeeSink
  */
 @Deprecated
 public class PipelineSink implements InvocationHandler {
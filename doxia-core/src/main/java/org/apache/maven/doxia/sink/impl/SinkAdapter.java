@@ -28,6 +28,21 @@ import org.apache.maven.doxia.sink.SinkEventAttributes;
  * @author <a href="mailto:vincent.siveton@gmail.com">Vincent Siveton</a>
  */
 public class SinkAdapter extends AbstractSink {
+    /** Whether a subclass overrides {@link #text(String, SinkEventAttributes)}. */
+    private static final ClassValue<Boolean> HANDLES_TEXT = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return SinkUtils.isOverridden(type, SinkAdapter.class, "text", String.class, SinkEventAttributes.class);
+        }
+    };
+
+    /** Whether a subclass overrides {@link #rawText(String)}. */
+    private static final ClassValue<Boolean> HANDLES_RAW_TEXT = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return SinkUtils.isOverridden(type, SinkAdapter.class, "rawText", String.class);
+        }
+    };
 
     @Override
     public void head_() {
@@ -259,6 +274,17 @@ public class SinkAdapter extends AbstractSink {
         // nop
     }
 
+    /**
+     * {@inheritDoc}
+     * Only creates a String of the characters if {@link #rawText(String)} is overridden.
+     */
+    @Override
+    public void rawText(char[] text, int offset, int length) {
+        if (HANDLES_RAW_TEXT.get(getClass())) {
+            rawText(new String(text, offset, length));
+        }
+    }
+
     @Override
     public void comment(String comment) {
         // nop
@@ -504,6 +530,17 @@ public class SinkAdapter extends AbstractSink {
         // nop
     }
 
+    /**
+     * {@inheritDoc}
+     * Only creates a String of the characters if {@link #text(String, SinkEventAttributes)} is overridden.
+     */
+    @Override
+    public void text(char[] text, int offset, int length, SinkEventAttributes attributes) {
+        if (HANDLES_TEXT.get(getClass())) {
+            text(new String(text, offset, length), attributes);
+        }
+    }
+
     @Override
     public void unknown(String name, Object[] requiredParams, SinkEventAttributes attributes) {
         // nop
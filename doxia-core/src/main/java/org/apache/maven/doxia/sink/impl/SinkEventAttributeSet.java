@@ -20,20 +20,53 @@ package org.apache.maven.doxia.sink.impl;
 
 import javax.swing.text.AttributeSet;
 
-import java.util.Collections;
+import java.lang.reflect.Field;
 import java.util.Enumeration;
-import java.util.LinkedHashMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 
 import org.apache.maven.doxia.sink.SinkEventAttributes;
 
 /**
- * Implementation of MutableAttributeSet using a LinkedHashMap.
+ * Implementation of MutableAttributeSet using arrays of names and values in insertion order.
+ * <p>
+ * Copies share the arrays of the original set until either of them is modified, so copying is cheap.
+ * The names of the well-known attributes defined in {@link SinkEventAttributes} are interned, so all sets
+ * refer to the same name instances.
+ * </p>
  *
  * @author ltheussl
  * @since 1.1
  */
 public class SinkEventAttributeSet implements SinkEventAttributes, Cloneable {
+    private static final String[] NO_NAMES = new String[0];
+
+    private static final Object[] NO_VALUES = new Object[0];
+
+    /** The well-known attribute names by name. */
+    private static final Map<String, String> WELL_KNOWN_NAMES = new HashMap<>();
+
+    /** The ids of the well-known attribute names, keyed by the interned instances. */
+    private static final Map<String, Integer> WELL_KNOWN_IDS = new IdentityHashMap<>();
+
+    static {
+        for (Field field : SinkEventAttributes.class.getFields()) {
+            if (field.getType() == String.class) {
+                try {
+                    String name = (String) field.get(null);
+                    if (WELL_KNOWN_NAMES.putIfAbsent(name, name) == null) {
+                        WELL_KNOWN_IDS.put(name, WELL_KNOWN_IDS.size());
+                    }
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+    }
+
     /**
      * An unmodifiable attribute set containing only an underline attribute.
      */
@@ -105,7 +138,16 @@ public class SinkEventAttributeSet implements SinkEventAttributes, Cloneable {
         JUSTIFY = new SinkEventAttributeSet(ALIGN, "justify").unmodifiable();
     }
 
-    private Map<String, Object> attribs;
+    private String[] names;
+
+    private Object[] values;
+
+    private int size;
+
+    /** Whether the arrays are shared with another set or an enumeration, and must be copied before modifying them. */
+    private boolean shared;
+
+    private boolean unmodifiable;
 
     private AttributeSet resolveParent;
 
@@ -122,7 +164,8 @@ public class SinkEventAttributeSet implements SinkEventAttributes, Cloneable {
      * @param size the initial number of attribs.
      */
     public SinkEventAttributeSet(int size) {
-        attribs = new LinkedHashMap<>(size);
+        names = size == 0 ? NO_NAMES : new String[size];
+        values = size == 0 ? NO_VALUES : new Object[size];
     }
 
     /**
@@ -139,10 +182,11 @@ public class SinkEventAttributeSet implements SinkEventAttributes, Cloneable {
             throw new IllegalArgumentException("Missing attribute!");
         }
 
-        attribs = new LinkedHashMap<>(n / 2);
+        names = new String[n / 2];
+        values = new Object[n / 2];
 
         for (int i = 0; i < n; i += 2) {
-            attribs.put(attributes[i], attributes[i + 1]);
+            put(attributes[i], attributes[i + 1]);
         }
     }
 
@@ -153,14 +197,25 @@ public class SinkEventAttributeSet implements SinkEventAttributes, Cloneable {
      * @param attributes the specified AttributeSet.
      */
     public SinkEventAttributeSet(AttributeSet attributes) {
-        attribs = new LinkedHashMap<>(attributes.getAttributeCount());
+        if (attributes instanceof SinkEventAttributeSet && attributes.getResolveParent() == null) {
+            SinkEventAttributeSet other = (SinkEventAttributeSet) attributes;
+            other.share();
+            names = other.names;
+            values = other.values;
+            size = other.size;
+            shared = true;
+            return;
+        }
 
-        Enumeration<?> names = attributes.getAttributeNames();
+        names = new String[attributes.getAttributeCount()];
+        values = new Object[names.length];
 
-        while (names.hasMoreElements()) {
-            Object name = names.nextElement();
+        Enumeration<?> attributeNames = attributes.getAttributeNames();
+
+        while (attributeNames.hasMoreElements()) {
+            Object name = attributeNames.nextElement();
 
-            attribs.put(name.toString(), attributes.getAttribute(name));
+            put(name.toString(), attributes.getAttribute(name));
         }
     }
 
@@ -173,7 +228,7 @@ public class SinkEventAttributeSet implements SinkEventAttributes, Cloneable {
      * @since 1.1.1
      */
     public SinkEventAttributeSet unmodifiable() {
-        this.attribs = Collections.unmodifiableMap(attribs);
+        this.unmodifiable = true;
 
         return this;
     }
@@ -184,7 +239,7 @@ public class SinkEventAttributeSet implements SinkEventAttributes, Cloneable {
      * @return true if the set is empty.
      */
     public boolean isEmpty() {
-        return attribs.isEmpty();
+        return size == 0;
     }
 
     /**
@@ -193,11 +248,45 @@ public class SinkEventAttributeSet implements SinkEventAttributes, Cloneable {
      * @return a int.
      */
     public int getAttributeCount() {
-        return attribs.size();
+        return size;
+    }
+
+    /**
+     * @param index the index of an attribute, less than {@link #getAttributeCount()}.
+     * @return the name of the attribute, without enumerating the names.
+     */
+    String getAttributeName(int index) {
+        return names[index];
+    }
+
+    /**
+     * @param name an attribute name.
+     * @return the interned instance of the name if it is well-known, the name itself otherwise.
+     */
+    static String internName(String name) {
+        String wellKnownName = WELL_KNOWN_NAMES.get(name);
+        return wellKnownName != null ? wellKnownName : name;
+    }
+
+    /**
+     * @param name an attribute name.
+     * @return the id of the name, between 0 and {@link #getWellKnownNameCount()}, if it is an interned
+     * well-known name, -1 otherwise. Names equal to but not the same as an interned name have no id.
+     */
+    static int getWellKnownId(Object name) {
+        Integer id = WELL_KNOWN_IDS.get(name);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * @return the number of well-known attribute names.
+     */
+    static int getWellKnownNameCount() {
+        return WELL_KNOWN_IDS.size();
     }
 
     public boolean isDefined(Object attrName) {
-        return attribs.containsKey(attrName);
+        return indexOf(attrName) >= 0;
     }
 
     public boolean isEqual(AttributeSet attr) {
@@ -219,11 +308,32 @@ public class SinkEventAttributeSet implements SinkEventAttributes, Cloneable {
      * @return a {@link java.util.Enumeration} object.
      */
     public Enumeration<String> getAttributeNames() {
-        return Collections.enumeration(attribs.keySet());
+        // the enumeration keeps iterating over the current names if the set is modified
+        share();
+        final String[] enumeratedNames = names;
+        final int count = size;
+
+        return new Enumeration<String>() {
+            private int index;
+
+            @Override
+            public boolean hasMoreElements() {
+                return index < count;
+            }
+
+            @Override
+            public String nextElement() {
+                if (index >= count) {
+                    throw new NoSuchElementException();
+                }
+                return enumeratedNames[index++];
+            }
+        };
     }
 
     public Object getAttribute(Object key) {
-        Object value = attribs.get(key);
+        int index = indexOf(key);
+        Object value = index >= 0 ? values[index] : null;
 
         if (value == null) {
             AttributeSet parent = getResolveParent();
@@ -259,7 +369,8 @@ public class SinkEventAttributeSet implements SinkEventAttributes, Cloneable {
      * Adds an attribute with the given name and value.
      */
     public void addAttribute(Object name, Object value) {
-        attribs.put(name.toString(), value);
+        checkModifiable();
+        put(name.toString(), value);
     }
 
     public void addAttributes(AttributeSet attributes) {
@@ -277,7 +388,19 @@ public class SinkEventAttributeSet implements SinkEventAttributes, Cloneable {
     }
 
     public void removeAttribute(Object name) {
-        attribs.remove(name);
+        checkModifiable();
+
+        int index = indexOf(name);
+        if (index < 0) {
+            return;
+        }
+
+        ensureCapacity(size);
+        size--;
+        System.arraycopy(names, index + 1, names, index, size - index);
+        System.arraycopy(values, index + 1, values, index, size - index);
+        names[size] = null;
+        values[size] = null;
     }
 
     public void removeAttributes(Enumeration<?> names) {
@@ -295,7 +418,11 @@ public class SinkEventAttributeSet implements SinkEventAttributes, Cloneable {
         if (attributes == null) {
             return;
         } else if (attributes == this) {
-            attribs.clear();
+            checkModifiable();
+            names = NO_NAMES;
+            values = NO_VALUES;
+            size = 0;
+            shared = false;
         } else {
             Enumeration<?> names = attributes.getAttributeNames();
 
@@ -325,8 +452,12 @@ public class SinkEventAttributeSet implements SinkEventAttributes, Cloneable {
 
     @Override
     public Object clone() {
-        SinkEventAttributeSet attr = new SinkEventAttributeSet(attribs.size());
-        attr.attribs = new LinkedHashMap<>(attribs);
+        share();
+        SinkEventAttributeSet attr = new SinkEventAttributeSet(0);
+        attr.names = names;
+        attr.values = values;
+        attr.size = size;
+        attr.shared = true;
 
         if (resolveParent != null) {
             attr.resolveParent = resolveParent.copyAttributes();
@@ -339,7 +470,12 @@ public class SinkEventAttributeSet implements SinkEventAttributes, Cloneable {
     public int hashCode() {
         final int parentHash = (resolveParent == null ? 0 : resolveParent.hashCode());
 
-        return attribs.hashCode() + parentHash;
+        int hash = 0;
+        for (int i = 0; i < size; i++) {
+            hash += names[i].hashCode() ^ Objects.hashCode(values[i]);
+        }
+
+        return hash + parentHash;
     }
 
     @Override
@@ -355,6 +491,60 @@ public class SinkEventAttributeSet implements SinkEventAttributes, Cloneable {
         return false;
     }
 
+    private int indexOf(Object name) {
+        for (int i = 0; i < size; i++) {
+            if (names[i] == name || names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void put(String name, Object value) {
+        int index = indexOf(name);
+        if (index >= 0) {
+            ensureCapacity(size);
+            values[index] = value;
+            return;
+        }
+
+        ensureCapacity(size + 1);
+        names[size] = internName(name);
+        values[size] = value;
+        size++;
+    }
+
+    /**
+     * Makes sure the arrays are not shared and can hold the given number of attributes.
+     */
+    private void ensureCapacity(int capacity) {
+        if (shared || names.length < capacity) {
+            int length = names.length < capacity ? Math.max(capacity, Math.max(4, names.length * 2)) : names.length;
+            String[] newNames = new String[length];
+            Object[] newValues = new Object[length];
+            System.arraycopy(names, 0, newNames, 0, size);
+            System.arraycopy(values, 0, newValues, 0, size);
+            names = newNames;
+            values = newValues;
+            shared = false;
+        }
+    }
+
+    /**
+     * Marks the arrays as shared. Unmodifiable sets are never modified, so their arrays needn't be marked.
+     */
+    private void share() {
+        if (!unmodifiable) {
+            shared = true;
+        }
+    }
+
+    private void checkModifiable() {
+        if (unmodifiable) {
+            throw new UnsupportedOperationException("Unmodifiable attribute set");
+        }
+    }
+
     @Override
     public String toString() {
         StringBuilder s = new StringBuilder();
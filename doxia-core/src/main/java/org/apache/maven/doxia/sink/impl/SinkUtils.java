@@ -252,4 +252,26 @@ public class SinkUtils {
 
         return atts;
     }
+
+    /**
+     * Determines whether a method of a base class is overridden by a subclass.
+     *
+     * @param type the subclass.
+     * @param base the base class declaring the method.
+     * @param name the name of the method.
+     * @param parameterTypes the parameter types of the method.
+     * @return <code>true</code> if the method is declared by the subclass or a class between it and the base class.
+     * @since 2.1.0
+     */
+    public static boolean isOverridden(Class<?> type, Class<?> base, String name, Class<?>... parameterTypes) {
+        for (Class<?> c = type; c != null && c != base; c = c.getSuperclass()) {
+            try {
+                c.getDeclaredMethod(name, parameterTypes);
+                return true;
+            } catch (NoSuchMethodException e) {
+                // try the superclass
+            }
+        }
+        return false;
+    }
 }
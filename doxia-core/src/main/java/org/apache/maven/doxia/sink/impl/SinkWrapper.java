@@ -33,6 +33,22 @@ import org.apache.maven.doxia.sink.SinkEventAttributes;
  */
 public class SinkWrapper extends AbstractSink {
 
+    /** Whether a wrapper class overrides {@link #text(String, SinkEventAttributes)}. */
+    private static final ClassValue<Boolean> HANDLES_TEXT = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return SinkUtils.isOverridden(type, SinkWrapper.class, "text", String.class, SinkEventAttributes.class);
+        }
+    };
+
+    /** Whether a wrapper class overrides {@link #rawText(String)}. */
+    private static final ClassValue<Boolean> HANDLES_RAW_TEXT = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return SinkUtils.isOverridden(type, SinkWrapper.class, "rawText", String.class);
+        }
+    };
+
     private Sink delegate;
 
     public SinkWrapper(Sink delegate) {
@@ -48,6 +64,19 @@ public class SinkWrapper extends AbstractSink {
         delegate = sink;
     }
 
+    /**
+     * Determines whether the events not overridden by this wrapper may be emitted directly to the wrapped sink,
+     * bypassing this wrapper (see {@link SinkWrapperChain}).
+     * Subclasses are not bypassed unless they opt in, as they may replace their delegate with
+     * {@link #setWrappedSink(Sink)} while receiving events. Subclasses which don't should return <code>true</code>.
+     *
+     * @return <code>true</code> for this class, which only passes on events, <code>false</code> for subclasses
+     * @since 2.1.0
+     */
+    protected boolean isBypassable() {
+        return getClass() == SinkWrapper.class;
+    }
+
     @Override
     public void head(SinkEventAttributes attributes) {
         delegate.head(attributes);
@@ -508,6 +537,34 @@ public class SinkWrapper extends AbstractSink {
         delegate.rawText(text);
     }
 
+    /**
+     * {@inheritDoc}
+     * Passes the characters on to the wrapped sink, unless the text events with a String are overridden by
+     * the wrapper, which then receives the text as String.
+     */
+    @Override
+    public void text(char[] text, int offset, int length, SinkEventAttributes attributes) {
+        if (HANDLES_TEXT.get(getClass())) {
+            text(new String(text, offset, length), attributes);
+        } else {
+            delegate.text(text, offset, length, attributes);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Passes the characters on to the wrapped sink, unless {@link #rawText(String)} is overridden by the wrapper,
+     * which then receives the text as String.
+     */
+    @Override
+    public void rawText(char[] text, int offset, int length) {
+        if (HANDLES_RAW_TEXT.get(getClass())) {
+            rawText(new String(text, offset, length));
+        } else {
+            delegate.rawText(text, offset, length);
+        }
+    }
+
     @Override
     public void comment(String comment) {
         delegate.comment(comment);
@@ -0,0 +1,847 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.doxia.sink.impl;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.maven.doxia.sink.Locator;
+import org.apache.maven.doxia.sink.Sink;
+import org.apache.maven.doxia.sink.SinkEventAttributes;
+
+/**
+ * A compiled chain of {@link SinkWrapper}s, which routes each event directly to the first wrapper overriding it.
+ * <p>
+ * Most sink wrappers only override a few events, all others are passed through unchanged to the wrapped sink.
+ * In a chain of stacked wrappers each event would therefore traverse all wrappers until it reaches the
+ * innermost sink. {@link #compile(Sink)} determines once per wrapper class which events are overridden and
+ * re-links the wrappers, so that an event skips all wrappers not interested in it.
+ * The events each wrapper receives and emits are the same as without compilation.
+ * </p>
+ * <p>
+ * Wrappers replacing their delegate with {@link SinkWrapper#setWrappedSink(Sink)} while receiving events
+ * must not be skipped, so only wrappers returning <code>true</code> from {@link SinkWrapper#isBypassable()}
+ * are re-linked. Subclasses of {@link SinkWrapper} have to opt in.
+ * </p>
+ *
+ * @since 2.1.0
+ */
+public final class SinkWrapperChain extends AbstractSink {
+    private static final int HEAD = 0;
+    private static final int HEAD_END = 1;
+    private static final int TITLE = 2;
+    private static final int TITLE_END = 3;
+    private static final int AUTHOR = 4;
+    private static final int AUTHOR_END = 5;
+    private static final int DATE = 6;
+    private static final int DATE_END = 7;
+    private static final int BODY = 8;
+    private static final int BODY_END = 9;
+    private static final int ARTICLE = 10;
+    private static final int ARTICLE_END = 11;
+    private static final int NAVIGATION = 12;
+    private static final int NAVIGATION_END = 13;
+    private static final int SIDEBAR = 14;
+    private static final int SIDEBAR_END = 15;
+    private static final int SECTION = 16;
+    private static final int SECTION_END = 17;
+    private static final int SECTION_TITLE = 18;
+    private static final int SECTION_TITLE_END = 19;
+    private static final int HEADER = 20;
+    private static final int HEADER_END = 21;
+    private static final int CONTENT = 22;
+    private static final int CONTENT_END = 23;
+    private static final int FOOTER = 24;
+    private static final int FOOTER_END = 25;
+    private static final int LIST = 26;
+    private static final int LIST_END = 27;
+    private static final int LIST_ITEM = 28;
+    private static final int LIST_ITEM_END = 29;
+    private static final int NUMBERED_LIST = 30;
+    private static final int NUMBERED_LIST_END = 31;
+    private static final int NUMBERED_LIST_ITEM = 32;
+    private static final int NUMBERED_LIST_ITEM_END = 33;
+    private static final int DEFINITION_LIST = 34;
+    private static final int DEFINITION_LIST_END = 35;
+    private static final int DEFINITION_LIST_ITEM = 36;
+    private static final int DEFINITION_LIST_ITEM_END = 37;
+    private static final int DEFINITION = 38;
+    private static final int DEFINITION_END = 39;
+    private static final int DEFINED_TERM = 40;
+    private static final int DEFINED_TERM_END = 41;
+    private static final int FIGURE = 42;
+    private static final int FIGURE_END = 43;
+    private static final int FIGURE_CAPTION = 44;
+    private static final int FIGURE_CAPTION_END = 45;
+    private static final int FIGURE_GRAPHICS = 46;
+    private static final int TABLE = 47;
+    private static final int TABLE_END = 48;
+    private static final int TABLE_ROWS = 49;
+    private static final int TABLE_ROWS_END = 50;
+    private static final int TABLE_ROW = 51;
+    private static final int TABLE_ROW_END = 52;
+    private static final int TABLE_CELL = 53;
+    private static final int TABLE_CELL_END = 54;
+    private static final int TABLE_HEADER_CELL = 55;
+    private static final int TABLE_HEADER_CELL_END = 56;
+    private static final int TABLE_CAPTION = 57;
+    private static final int TABLE_CAPTION_END = 58;
+    private static final int PARAGRAPH = 59;
+    private static final int PARAGRAPH_END = 60;
+    private static final int DATA = 61;
+    private static final int DATA_END = 62;
+    private static final int TIME = 63;
+    private static final int TIME_END = 64;
+    private static final int ADDRESS = 65;
+    private static final int ADDRESS_END = 66;
+    private static final int BLOCKQUOTE = 67;
+    private static final int BLOCKQUOTE_END = 68;
+    private static final int DIVISION = 69;
+    private static final int DIVISION_END = 70;
+    private static final int VERBATIM = 71;
+    private static final int VERBATIM_END = 72;
+    private static final int HORIZONTAL_RULE = 73;
+    private static final int PAGE_BREAK = 74;
+    private static final int ANCHOR = 75;
+    private static final int ANCHOR_END = 76;
+    private static final int LINK = 77;
+    private static final int LINK_END = 78;
+    private static final int INLINE = 79;
+    private static final int INLINE_END = 80;
+    private static final int ITALIC = 81;
+    private static final int ITALIC_END = 82;
+    private static final int BOLD = 83;
+    private static final int BOLD_END = 84;
+    private static final int MONOSPACED = 85;
+    private static final int MONOSPACED_END = 86;
+    private static final int LINE_BREAK = 87;
+    private static final int LINE_BREAK_OPPORTUNITY = 88;
+    private static final int NON_BREAKING_SPACE = 89;
+    private static final int TEXT = 90;
+    private static final int RAW_TEXT = 91;
+    private static final int TEXT_CHARS = 92;
+    private static final int RAW_TEXT_CHARS = 93;
+    private static final int COMMENT = 94;
+    private static final int COMMENT_WITH_LINE_BREAK = 95;
+    private static final int UNKNOWN = 96;
+    private static final int FLUSH = 97;
+    private static final int CLOSE = 98;
+    private static final int SET_DOCUMENT_LOCATOR = 99;
+    private static final int GET_DOCUMENT_LOCATOR = 100;
+
+    private static final int EVENT_COUNT = 101;
+
+    private static final Method[] EVENT_METHODS = new Method[EVENT_COUNT];
+
+    static {
+        register(HEAD, "head", SinkEventAttributes.class);
+        register(HEAD_END, "head_");
+        register(TITLE, "title", SinkEventAttributes.class);
+        register(TITLE_END, "title_");
+        register(AUTHOR, "author", SinkEventAttributes.class);
+        register(AUTHOR_END, "author_");
+        register(DATE, "date", SinkEventAttributes.class);
+        register(DATE_END, "date_");
+        register(BODY, "body", SinkEventAttributes.class);
+        register(BODY_END, "body_");
+        register(ARTICLE, "article", SinkEventAttributes.class);
+        register(ARTICLE_END, "article_");
+        register(NAVIGATION, "navigation", SinkEventAttributes.class);
+        register(NAVIGATION_END, "navigation_");
+        register(SIDEBAR, "sidebar", SinkEventAttributes.class);
+        register(SIDEBAR_END, "sidebar_");
+        register(SECTION, "section", int.class, SinkEventAttributes.class);
+        register(SECTION_END, "section_", int.class);
+        register(SECTION_TITLE, "sectionTitle", int.class, SinkEventAttributes.class);
+        register(SECTION_TITLE_END, "sectionTitle_", int.class);
+        register(HEADER, "header", SinkEventAttributes.class);
+        register(HEADER_END, "header_");
+        register(CONTENT, "content", SinkEventAttributes.class);
+        register(CONTENT_END, "content_");
+        register(FOOTER, "footer", SinkEventAttributes.class);
+        register(FOOTER_END, "footer_");
+        register(LIST, "list", SinkEventAttributes.class);
+        register(LIST_END, "list_");
+        register(LIST_ITEM, "listItem", SinkEventAttributes.class);
+        register(LIST_ITEM_END, "listItem_");
+        register(NUMBERED_LIST, "numberedList", int.class, SinkEventAttributes.class);
+        register(NUMBERED_LIST_END, "numberedList_");
+        register(NUMBERED_LIST_ITEM, "numberedListItem", SinkEventAttributes.class);
+        register(NUMBERED_LIST_ITEM_END, "numberedListItem_");
+        register(DEFINITION_LIST, "definitionList", SinkEventAttributes.class);
+        register(DEFINITION_LIST_END, "definitionList_");
+        register(DEFINITION_LIST_ITEM, "definitionListItem", SinkEventAttributes.class);
+        register(DEFINITION_LIST_ITEM_END, "definitionListItem_");
+        register(DEFINITION, "definition", SinkEventAttributes.class);
+        register(DEFINITION_END, "definition_");
+        register(DEFINED_TERM, "definedTerm", SinkEventAttributes.class);
+        register(DEFINED_TERM_END, "definedTerm_");
+        register(FIGURE, "figure", SinkEventAttributes.class);
+        register(FIGURE_END, "figure_");
+        register(FIGURE_CAPTION, "figureCaption", SinkEventAttributes.class);
+        register(FIGURE_CAPTION_END, "figureCaption_");
+        register(FIGURE_GRAPHICS, "figureGraphics", String.class, SinkEventAttributes.class);
+        register(TABLE, "table", SinkEventAttributes.class);
+        register(TABLE_END, "table_");
+        register(TABLE_ROWS, "tableRows", int[].class, boolean.class);
+        register(TABLE_ROWS_END, "tableRows_");
+        register(TABLE_ROW, "tableRow", SinkEventAttributes.class);
+        register(TABLE_ROW_END, "tableRow_");
+        register(TABLE_CELL, "tableCell", SinkEventAttributes.class);
+        register(TABLE_CELL_END, "tableCell_");
+        register(TABLE_HEADER_CELL, "tableHeaderCell", SinkEventAttributes.class);
+        register(TABLE_HEADER_CELL_END, "tableHeaderCell_");
+        register(TABLE_CAPTION, "tableCaption", SinkEventAttributes.class);
+        register(TABLE_CAPTION_END, "tableCaption_");
+        register(PARAGRAPH, "paragraph", SinkEventAttributes.class);
+        register(PARAGRAPH_END, "paragraph_");
+        register(DATA, "data", String.class, SinkEventAttributes.class);
+        register(DATA_END, "data_");
+        register(TIME, "time", String.class, SinkEventAttributes.class);
+        register(TIME_END, "time_");
+        register(ADDRESS, "address", SinkEventAttributes.class);
+        register(ADDRESS_END, "address_");
+        register(BLOCKQUOTE, "blockquote", SinkEventAttributes.class);
+        register(BLOCKQUOTE_END, "blockquote_");
+        register(DIVISION, "division", SinkEventAttributes.class);
+        register(DIVISION_END, "division_");
+        register(VERBATIM, "verbatim", SinkEventAttributes.class);
+        register(VERBATIM_END, "verbatim_");
+        register(HORIZONTAL_RULE, "horizontalRule", SinkEventAttributes.class);
+        register(PAGE_BREAK, "pageBreak");
+        register(ANCHOR, "anchor", String.class, SinkEventAttributes.class);
+        register(ANCHOR_END, "anchor_");
+        register(LINK, "link", String.class, SinkEventAttributes.class);
+        register(LINK_END, "link_");
+        register(INLINE, "inline", SinkEventAttributes.class);
+        register(INLINE_END, "inline_");
+        register(ITALIC, "italic");
+        register(ITALIC_END, "italic_");
+        register(BOLD, "bold");
+        register(BOLD_END, "bold_");
+        register(MONOSPACED, "monospaced");
+        register(MONOSPACED_END, "monospaced_");
+        register(LINE_BREAK, "lineBreak", SinkEventAttributes.class);
+        register(LINE_BREAK_OPPORTUNITY, "lineBreakOpportunity", SinkEventAttributes.class);
+        register(NON_BREAKING_SPACE, "nonBreakingSpace");
+        register(TEXT, "text", String.class, SinkEventAttributes.class);
+        register(RAW_TEXT, "rawText", String.class);
+        register(TEXT_CHARS, "text", char[].class, int.class, int.class, SinkEventAttributes.class);
+        register(RAW_TEXT_CHARS, "rawText", char[].class, int.class, int.class);
+        register(COMMENT, "comment", String.class);
+        register(COMMENT_WITH_LINE_BREAK, "comment", String.class, boolean.class);
+        register(UNKNOWN, "unknown", String.class, Object[].class, SinkEventAttributes.class);
+        register(FLUSH, "flush");
+        register(CLOSE, "close");
+        register(SET_DOCUMENT_LOCATOR, "setDocumentLocator", Locator.class);
+        register(GET_DOCUMENT_LOCATOR, "getDocumentLocator");
+    }
+
+    /** The events overridden by each wrapper class. */
+    private static final ClassValue<boolean[]> INTERCEPTED_EVENTS = new ClassValue<boolean[]>() {
+        @Override
+        protected boolean[] computeValue(Class<?> type) {
+            boolean[] intercepted = new boolean[EVENT_COUNT];
+            for (int event = 0; event < EVENT_COUNT; event++) {
+                Method method = EVENT_METHODS[event];
+                try {
+                    intercepted[event] = type.getMethod(method.getName(), method.getParameterTypes())
+                                    .getDeclaringClass()
+                            != SinkWrapper.class;
+                } catch (NoSuchMethodException e) {
+                    throw new IllegalStateException("Method " + method + " not found in " + type, e);
+                }
+            }
+            // a wrapper handling the text as String receives it as String from SinkWrapper
+            intercepted[TEXT_CHARS] |= intercepted[TEXT];
+            intercepted[RAW_TEXT_CHARS] |= intercepted[RAW_TEXT];
+            return intercepted;
+        }
+    };
+
+    /** The receiver of each event. */
+    private final Sink[] targets;
+
+    private SinkWrapperChain(Sink[] targets) {
+        this.targets = targets;
+    }
+
+    /**
+     * Compile the chain of wrappers starting with the given sink.
+     * <p>
+     * The delegates of all bypassable wrappers in the chain are replaced, so the wrappers should not be used
+     * on their own afterwards. Sinks other than {@link SinkWrapper} end the chain.
+     * </p>
+     *
+     * @param sink the outermost sink of the chain.
+     * @return the sink to emit the events to, this is the given sink if nothing can be skipped.
+     */
+    public static Sink compile(Sink sink) {
+        List<SinkWrapper> wrappers = new ArrayList<>();
+        Sink innermost = sink;
+        while (innermost instanceof SinkWrapper && ((SinkWrapper) innermost).isBypassable()) {
+            wrappers.add((SinkWrapper) innermost);
+            innermost = ((SinkWrapper) innermost).getWrappedSink();
+        }
+
+        if (innermost instanceof SinkWrapper) {
+            // the chain continues behind a wrapper which cannot be bypassed
+            SinkWrapper barrier = (SinkWrapper) innermost;
+            barrier.setWrappedSink(compile(barrier.getWrappedSink()));
+        }
+
+        if (wrappers.size() < 2) {
+            return sink;
+        }
+
+        // link each wrapper to the compiled chain of the wrappers behind it, from the inside out
+        Sink[] targets = new Sink[EVENT_COUNT];
+        Arrays.fill(targets, innermost);
+        Sink next = innermost;
+        for (int i = wrappers.size() - 1; i >= 0; i--) {
+            SinkWrapper wrapper = wrappers.get(i);
+            wrapper.setWrappedSink(next);
+
+            targets = targets.clone();
+            boolean[] intercepted = INTERCEPTED_EVENTS.get(wrapper.getClass());
+            for (int event = 0; event < EVENT_COUNT; event++) {
+                if (intercepted[event]) {
+                    targets[event] = wrapper;
+                }
+            }
+            next = new SinkWrapperChain(targets);
+        }
+        return next;
+    }
+
+    private static void register(int event, String name, Class<?>... parameterTypes) {
+        try {
+            EVENT_METHODS[event] = SinkWrapper.class.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void head(SinkEventAttributes attributes) {
+        targets[HEAD].head(attributes);
+    }
+
+    @Override
+    public void head_() {
+        targets[HEAD_END].head_();
+    }
+
+    @Override
+    public void title(SinkEventAttributes attributes) {
+        targets[TITLE].title(attributes);
+    }
+
+    @Override
+    public void title_() {
+        targets[TITLE_END].title_();
+    }
+
+    @Override
+    public void author(SinkEventAttributes attributes) {
+        targets[AUTHOR].author(attributes);
+    }
+
+    @Override
+    public void author_() {
+        targets[AUTHOR_END].author_();
+    }
+
+    @Override
+    public void date(SinkEventAttributes attributes) {
+        targets[DATE].date(attributes);
+    }
+
+    @Override
+    public void date_() {
+        targets[DATE_END].date_();
+    }
+
+    @Override
+    public void body(SinkEventAttributes attributes) {
+        targets[BODY].body(attributes);
+    }
+
+    @Override
+    public void body_() {
+        targets[BODY_END].body_();
+    }
+
+    @Override
+    public void article(SinkEventAttributes attributes) {
+        targets[ARTICLE].article(attributes);
+    }
+
+    @Override
+    public void article_() {
+        targets[ARTICLE_END].article_();
+    }
+
+    @Override
+    public void navigation(SinkEventAttributes attributes) {
+        targets[NAVIGATION].navigation(attributes);
+    }
+
+    @Override
+    public void navigation_() {
+        targets[NAVIGATION_END].navigation_();
+    }
+
+    @Override
+    public void sidebar(SinkEventAttributes attributes) {
+        targets[SIDEBAR].sidebar(attributes);
+    }
+
+    @Override
+    public void sidebar_() {
+        targets[SIDEBAR_END].sidebar_();
+    }
+
+    @Override
+    public void section(int level, SinkEventAttributes attributes) {
+        targets[SECTION].section(level, attributes);
+    }
+
+    @Override
+    public void section_(int level) {
+        targets[SECTION_END].section_(level);
+    }
+
+    @Override
+    public void sectionTitle(int level, SinkEventAttributes attributes) {
+        targets[SECTION_TITLE].sectionTitle(level, attributes);
+    }
+
+    @Override
+    public void sectionTitle_(int level) {
+        targets[SECTION_TITLE_END].sectionTitle_(level);
+    }
+
+    @Override
+    public void header(SinkEventAttributes attributes) {
+        targets[HEADER].header(attributes);
+    }
+
+    @Override
+    public void header_() {
+        targets[HEADER_END].header_();
+    }
+
+    @Override
+    public void content(SinkEventAttributes attributes) {
+        targets[CONTENT].content(attributes);
+    }
+
+    @Override
+    public void content_() {
+        targets[CONTENT_END].content_();
+    }
+
+    @Override
+    public void footer(SinkEventAttributes attributes) {
+        targets[FOOTER].footer(attributes);
+    }
+
+    @Override
+    public void footer_() {
+        targets[FOOTER_END].footer_();
+    }
+
+    @Override
+    public void list(SinkEventAttributes attributes) {
+        targets[LIST].list(attributes);
+    }
+
+    @Override
+    public void list_() {
+        targets[LIST_END].list_();
+    }
+
+    @Override
+    public void listItem(SinkEventAttributes attributes) {
+        targets[LIST_ITEM].listItem(attributes);
+    }
+
+    @Override
+    public void listItem_() {
+        targets[LIST_ITEM_END].listItem_();
+    }
+
+    @Override
+    public void numberedList(int numbering, SinkEventAttributes attributes) {
+        targets[NUMBERED_LIST].numberedList(numbering, attributes);
+    }
+
+    @Override
+    public void numberedList_() {
+        targets[NUMBERED_LIST_END].numberedList_();
+    }
+
+    @Override
+    public void numberedListItem(SinkEventAttributes attributes) {
+        targets[NUMBERED_LIST_ITEM].numberedListItem(attributes);
+    }
+
+    @Override
+    public void numberedListItem_() {
+        targets[NUMBERED_LIST_ITEM_END].numberedListItem_();
+    }
+
+    @Override
+    public void definitionList(SinkEventAttributes attributes) {
+        targets[DEFINITION_LIST].definitionList(attributes);
+    }
+
+    @Override
+    public void definitionList_() {
+        targets[DEFINITION_LIST_END].definitionList_();
+    }
+
+    @Override
+    public void definitionListItem(SinkEventAttributes attributes) {
+        targets[DEFINITION_LIST_ITEM].definitionListItem(attributes);
+    }
+
+    @Override
+    public void definitionListItem_() {
+        targets[DEFINITION_LIST_ITEM_END].definitionListItem_();
+    }
+
+    @Override
+    public void definition(SinkEventAttributes attributes) {
+        targets[DEFINITION].definition(attributes);
+    }
+
+    @Override
+    public void definition_() {
+        targets[DEFINITION_END].definition_();
+    }
+
+    @Override
+    public void definedTerm(SinkEventAttributes attributes) {
+        targets[DEFINED_TERM].definedTerm(attributes);
+    }
+
+    @Override
+    public void definedTerm_() {
+        targets[DEFINED_TERM_END].definedTerm_();
+    }
+
+    @Override
+    public void figure(SinkEventAttributes attributes) {
+        targets[FIGURE].figure(attributes);
+    }
+
+    @Override
+    public void figure_() {
+        targets[FIGURE_END].figure_();
+    }
+
+    @Override
+    public void figureCaption(SinkEventAttributes attributes) {
+        targets[FIGURE_CAPTION].figureCaption(attributes);
+    }
+
+    @Override
+    public void figureCaption_() {
+        targets[FIGURE_CAPTION_END].figureCaption_();
+    }
+
+    @Override
+    public void figureGraphics(String src, SinkEventAttributes attributes) {
+        targets[FIGURE_GRAPHICS].figureGraphics(src, attributes);
+    }
+
+    @Override
+    public void table(SinkEventAttributes attributes) {
+        targets[TABLE].table(attributes);
+    }
+
+    @Override
+    public void table_() {
+        targets[TABLE_END].table_();
+    }
+
+    @Override
+    public void tableRows(int[] justification, boolean grid) {
+        targets[TABLE_ROWS].tableRows(justification, grid);
+    }
+
+    @Override
+    public void tableRows_() {
+        targets[TABLE_ROWS_END].tableRows_();
+    }
+
+    @Override
+    public void tableRow(SinkEventAttributes attributes) {
+        targets[TABLE_ROW].tableRow(attributes);
+    }
+
+    @Override
+    public void tableRow_() {
+        targets[TABLE_ROW_END].tableRow_();
+    }
+
+    @Override
+    public void tableCell(SinkEventAttributes attributes) {
+        targets[TABLE_CELL].tableCell(attributes);
+    }
+
+    @Override
+    public void tableCell_() {
+        targets[TABLE_CELL_END].tableCell_();
+    }
+
+    @Override
+    public void tableHeaderCell(SinkEventAttributes attributes) {
+        targets[TABLE_HEADER_CELL].tableHeaderCell(attributes);
+    }
+
+    @Override
+    public void tableHeaderCell_() {
+        targets[TABLE_HEADER_CELL_END].tableHeaderCell_();
+    }
+
+    @Override
+    public void tableCaption(SinkEventAttributes attributes) {
+        targets[TABLE_CAPTION].tableCaption(attributes);
+    }
+
+    @Override
+    public void tableCaption_() {
+        targets[TABLE_CAPTION_END].tableCaption_();
+    }
+
+    @Override
+    public void paragraph(SinkEventAttributes attributes) {
+        targets[PARAGRAPH].paragraph(attributes);
+    }
+
+    @Override
+    public void paragraph_() {
+        targets[PARAGRAPH_END].paragraph_();
+    }
+
+    @Override
+    public void data(String value, SinkEventAttributes attributes) {
+        targets[DATA].data(value, attributes);
+    }
+
+    @Override
+    public void data_() {
+        targets[DATA_END].data_();
+    }
+
+    @Override
+    public void time(String datetime, SinkEventAttributes attributes) {
+        targets[TIME].time(datetime, attributes);
+    }
+
+    @Override
+    public void time_() {
+        targets[TIME_END].time_();
+    }
+
+    @Override
+    public void address(SinkEventAttributes attributes) {
+        targets[ADDRESS].address(attributes);
+    }
+
+    @Override
+    public void address_() {
+        targets[ADDRESS_END].address_();
+    }
+
+    @Override
+    public void blockquote(SinkEventAttributes attributes) {
+        targets[BLOCKQUOTE].blockquote(attributes);
+    }
+
+    @Override
+    public void blockquote_() {
+        targets[BLOCKQUOTE_END].blockquote_();
+    }
+
+    @Override
+    public void division(SinkEventAttributes attributes) {
+        targets[DIVISION].division(attributes);
+    }
+
+    @Override
+    public void division_() {
+        targets[DIVISION_END].division_();
+    }
+
+    @Override
+    public void verbatim(SinkEventAttributes attributes) {
+        targets[VERBATIM].verbatim(attributes);
+    }
+
+    @Override
+    public void verbatim_() {
+        targets[VERBATIM_END].verbatim_();
+    }
+
+    @Override
+    public void horizontalRule(SinkEventAttributes attributes) {
+        targets[HORIZONTAL_RULE].horizontalRule(attributes);
+    }
+
+    @Override
+    public void pageBreak() {
+        targets[PAGE_BREAK].pageBreak();
+    }
+
+    @Override
+    public void anchor(String name, SinkEventAttributes attributes) {
+        targets[ANCHOR].anchor(name, attributes);
+    }
+
+    @Override
+    public void anchor_() {
+        targets[ANCHOR_END].anchor_();
+    }
+
+    @Override
+    public void link(String name, SinkEventAttributes attributes) {
+        targets[LINK].link(name, attributes);
+    }
+
+    @Override
+    public void link_() {
+        targets[LINK_END].link_();
+    }
+
+    @Override
+    public void inline(SinkEventAttributes attributes) {
+        targets[INLINE].inline(attributes);
+    }
+
+    @Override
+    public void inline_() {
+        targets[INLINE_END].inline_();
+    }
+
+    @Override
+    public void italic() {
+        targets[ITALIC].italic();
+    }
+
+    @Override
+    public void italic_() {
+        targets[ITALIC_END].italic_();
+    }
+
+    @Override
+    public void bold() {
+        targets[BOLD].bold();
+    }
+
+    @Override
+    public void bold_() {
+        targets[BOLD_END].bold_();
+    }
+
+    @Override
+    public void monospaced() {
+        targets[MONOSPACED].monospaced();
+    }
+
+    @Override
+    public void monospaced_() {
+        targets[MONOSPACED_END].monospaced_();
+    }
+
+    @Override
+    public void lineBreak(SinkEventAttributes attributes) {
+        targets[LINE_BREAK].lineBreak(attributes);
+    }
+
+    @Override
+    public void lineBreakOpportunity(SinkEventAttributes attributes) {
+        targets[LINE_BREAK_OPPORTUNITY].lineBreakOpportunity(attributes);
+    }
+
+    @Override
+    public void nonBreakingSpace() {
+        targets[NON_BREAKING_SPACE].nonBreakingSpace();
+    }
+
+    @Override
+    public void text(String text, SinkEventAttributes attributes) {
+        targets[TEXT].text(text, attributes);
+    }
+
+    @Override
+    public void rawText(String text) {
+        targets[RAW_TEXT].rawText(text);
+    }
+
+    @Override
+    public void text(char[] text, int offset, int length, SinkEventAttributes attributes) {
+        targets[TEXT_CHARS].text(text, offset, length, attributes);
+    }
+
+    @Override
+    public void rawText(char[] text, int offset, int length) {
+        targets[RAW_TEXT_CHARS].rawText(text, offset, length);
+    }
+
+    @Override
+    public void comment(String comment) {
+        targets[COMMENT].comment(comment);
+    }
+
+    @Override
+    public void comment(String comment, boolean endsWithLineBreak) {
+        targets[COMMENT_WITH_LINE_BREAK].comment(comment, endsWithLineBreak);
+    }
+
+    @Override
+    public void unknown(String name, Object[] requiredParams, SinkEventAttributes attributes) {
+        targets[UNKNOWN].unknown(name, requiredParams, attributes);
+    }
+
+    @Override
+    public void flush() {
+        targets[FLUSH].flush();
+    }
+
+    @Override
+    public void close() {
+        targets[CLOSE].close();
+    }
+
+    @Override
+    public void setDocumentLocator(Locator locator) {
+        targets[SET_DOCUMENT_LOCATOR].setDocumentLocator(locator);
+    }
+
+    @Override
+    public Locator getDocumentLocator() {
+        return targets[GET_DOCUMENT_LOCATOR].getDocumentLocator();
+    }
+}
@@ -0,0 +1,787 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.doxia.sink.impl;
+
+import javax.swing.text.AttributeSet;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import org.apache.maven.doxia.sink.Locator;
+import org.apache.maven.doxia.sink.Sink;
+import org.apache.maven.doxia.sink.SinkEventAttributes;
+
+/**
+ * Emits each event to several sinks, in the order the sinks were given.
+ * <p>
+ * This allows to render one parsed document into several outputs at once, for instance an XHTML5 page,
+ * a Markdown export and the index tree of an {@link org.apache.maven.doxia.index.IndexingSink}.
+ * Each event is dispatched directly to the according method of each sink, without reflection.
+ * As sinks may modify the attributes they receive, each sink but the last one receives its own copy
+ * of the event's attributes.
+ * </p>
+ * <p>
+ * Like {@link SinkWrapper}, this sink only emits the Doxia 1.1+ variants of the legacy events.
+ * </p>
+ *
+ * @since 2.1.0
+ */
+public class TeeSink extends AbstractSink {
+    private final Sink[] sinks;
+
+    /**
+     * Create a sink emitting to the given sinks.
+     *
+     * @param sinks the not-null sinks receiving the events.
+     */
+    public TeeSink(Sink... sinks) {
+        this.sinks = sinks.clone();
+        for (Sink sink : this.sinks) {
+            Objects.requireNonNull(sink, "sink cannot be null");
+        }
+    }
+
+    /**
+     * Create a sink emitting to the given sinks.
+     *
+     * @param sinks the not-null sinks receiving the events.
+     */
+    public TeeSink(List<? extends Sink> sinks) {
+        this(sinks.toArray(new Sink[0]));
+    }
+
+    /**
+     * @return the unmodifiable list of sinks receiving the events.
+     */
+    public List<Sink> getSinks() {
+        return Collections.unmodifiableList(Arrays.asList(sinks));
+    }
+
+    @Override
+    public void head(SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].head(attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void head_() {
+        for (Sink sink : sinks) {
+            sink.head_();
+        }
+    }
+
+    @Override
+    public void title(SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].title(attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void title_() {
+        for (Sink sink : sinks) {
+            sink.title_();
+        }
+    }
+
+    @Override
+    public void author(SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].author(attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void author_() {
+        for (Sink sink : sinks) {
+            sink.author_();
+        }
+    }
+
+    @Override
+    public void date(SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].date(attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void date_() {
+        for (Sink sink : sinks) {
+            sink.date_();
+        }
+    }
+
+    @Override
+    public void body(SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].body(attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void body_() {
+        for (Sink sink : sinks) {
+            sink.body_();
+        }
+    }
+
+    @Override
+    public void article(SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].article(attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void article_() {
+        for (Sink sink : sinks) {
+            sink.article_();
+        }
+    }
+
+    @Override
+    public void navigation(SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].navigation(attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void navigation_() {
+        for (Sink sink : sinks) {
+            sink.navigation_();
+        }
+    }
+
+    @Override
+    public void sidebar(SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].sidebar(attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void sidebar_() {
+        for (Sink sink : sinks) {
+            sink.sidebar_();
+        }
+    }
+
+    @Override
+    public void section(int level, SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].section(level, attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void section_(int level) {
+        for (Sink sink : sinks) {
+            sink.section_(level);
+        }
+    }
+
+    @Override
+    public void sectionTitle(int level, SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].sectionTitle(level, attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void sectionTitle_(int level) {
+        for (Sink sink : sinks) {
+            sink.sectionTitle_(level);
+        }
+    }
+
+    @Override
+    public void header(SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].header(attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void header_() {
+        for (Sink sink : sinks) {
+            sink.header_();
+        }
+    }
+
+    @Override
+    public void content(SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].content(attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void content_() {
+        for (Sink sink : sinks) {
+            sink.content_();
+        }
+    }
+
+    @Override
+    public void footer(SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].footer(attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void footer_() {
+        for (Sink sink : sinks) {
+            sink.footer_();
+        }
+    }
+
+    @Override
+    public void list(SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].list(attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void list_() {
+        for (Sink sink : sinks) {
+            sink.list_();
+        }
+    }
+
+    @Override
+    public void listItem(SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].listItem(attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void listItem_() {
+        for (Sink sink : sinks) {
+            sink.listItem_();
+        }
+    }
+
+    @Override
+    public void numberedList(int numbering, SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].numberedList(numbering, attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void numberedList_() {
+        for (Sink sink : sinks) {
+            sink.numberedList_();
+        }
+    }
+
+    @Override
+    public void numberedListItem(SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].numberedListItem(attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void numberedListItem_() {
+        for (Sink sink : sinks) {
+            sink.numberedListItem_();
+        }
+    }
+
+    @Override
+    public void definitionList(SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].definitionList(attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void definitionList_() {
+        for (Sink sink : sinks) {
+            sink.definitionList_();
+        }
+    }
+
+    @Override
+    public void definitionListItem(SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].definitionListItem(attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void definitionListItem_() {
+        for (Sink sink : sinks) {
+            sink.definitionListItem_();
+        }
+    }
+
+    @Override
+    public void definition(SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].definition(attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void definition_() {
+        for (Sink sink : sinks) {
+            sink.definition_();
+        }
+    }
+
+    @Override
+    public void definedTerm(SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].definedTerm(attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void definedTerm_() {
+        for (Sink sink : sinks) {
+            sink.definedTerm_();
+        }
+    }
+
+    @Override
+    public void figure(SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].figure(attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void figure_() {
+        for (Sink sink : sinks) {
+            sink.figure_();
+        }
+    }
+
+    @Override
+    public void figureCaption(SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].figureCaption(attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void figureCaption_() {
+        for (Sink sink : sinks) {
+            sink.figureCaption_();
+        }
+    }
+
+    @Override
+    public void figureGraphics(String src, SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].figureGraphics(src, attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void table(SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].table(attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void table_() {
+        for (Sink sink : sinks) {
+            sink.table_();
+        }
+    }
+
+    @Override
+    public void tableRows(int[] justification, boolean grid) {
+        for (Sink sink : sinks) {
+            sink.tableRows(justification, grid);
+        }
+    }
+
+    @Override
+    public void tableRows_() {
+        for (Sink sink : sinks) {
+            sink.tableRows_();
+        }
+    }
+
+    @Override
+    public void tableRow(SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].tableRow(attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void tableRow_() {
+        for (Sink sink : sinks) {
+            sink.tableRow_();
+        }
+    }
+
+    @Override
+    public void tableCell(SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].tableCell(attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void tableCell_() {
+        for (Sink sink : sinks) {
+            sink.tableCell_();
+        }
+    }
+
+    @Override
+    public void tableHeaderCell(SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].tableHeaderCell(attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void tableHeaderCell_() {
+        for (Sink sink : sinks) {
+            sink.tableHeaderCell_();
+        }
+    }
+
+    @Override
+    public void tableCaption(SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].tableCaption(attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void tableCaption_() {
+        for (Sink sink : sinks) {
+            sink.tableCaption_();
+        }
+    }
+
+    @Override
+    public void paragraph(SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].paragraph(attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void paragraph_() {
+        for (Sink sink : sinks) {
+            sink.paragraph_();
+        }
+    }
+
+    @Override
+    public void data(String value, SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].data(value, attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void data_() {
+        for (Sink sink : sinks) {
+            sink.data_();
+        }
+    }
+
+    @Override
+    public void time(String datetime, SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].time(datetime, attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void time_() {
+        for (Sink sink : sinks) {
+            sink.time_();
+        }
+    }
+
+    @Override
+    public void address(SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].address(attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void address_() {
+        for (Sink sink : sinks) {
+            sink.address_();
+        }
+    }
+
+    @Override
+    public void blockquote(SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].blockquote(attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void blockquote_() {
+        for (Sink sink : sinks) {
+            sink.blockquote_();
+        }
+    }
+
+    @Override
+    public void division(SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].division(attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void division_() {
+        for (Sink sink : sinks) {
+            sink.division_();
+        }
+    }
+
+    @Override
+    public void verbatim(SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].verbatim(attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void verbatim_() {
+        for (Sink sink : sinks) {
+            sink.verbatim_();
+        }
+    }
+
+    @Override
+    public void horizontalRule(SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].horizontalRule(attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void pageBreak() {
+        for (Sink sink : sinks) {
+            sink.pageBreak();
+        }
+    }
+
+    @Override
+    public void anchor(String name, SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].anchor(name, attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void anchor_() {
+        for (Sink sink : sinks) {
+            sink.anchor_();
+        }
+    }
+
+    @Override
+    public void link(String name, SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].link(name, attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void link_() {
+        for (Sink sink : sinks) {
+            sink.link_();
+        }
+    }
+
+    @Override
+    public void inline(SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].inline(attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void inline_() {
+        for (Sink sink : sinks) {
+            sink.inline_();
+        }
+    }
+
+    @Override
+    public void italic() {
+        for (Sink sink : sinks) {
+            sink.italic();
+        }
+    }
+
+    @Override
+    public void italic_() {
+        for (Sink sink : sinks) {
+            sink.italic_();
+        }
+    }
+
+    @Override
+    public void bold() {
+        for (Sink sink : sinks) {
+            sink.bold();
+        }
+    }
+
+    @Override
+    public void bold_() {
+        for (Sink sink : sinks) {
+            sink.bold_();
+        }
+    }
+
+    @Override
+    public void monospaced() {
+        for (Sink sink : sinks) {
+            sink.monospaced();
+        }
+    }
+
+    @Override
+    public void monospaced_() {
+        for (Sink sink : sinks) {
+            sink.monospaced_();
+        }
+    }
+
+    @Override
+    public void lineBreak(SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].lineBreak(attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void lineBreakOpportunity(SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].lineBreakOpportunity(attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void nonBreakingSpace() {
+        for (Sink sink : sinks) {
+            sink.nonBreakingSpace();
+        }
+    }
+
+    @Override
+    public void text(String text, SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].text(text, attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void rawText(String text) {
+        for (Sink sink : sinks) {
+            sink.rawText(text);
+        }
+    }
+
+    @Override
+    public void text(char[] text, int offset, int length, SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].text(text, offset, length, attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void rawText(char[] text, int offset, int length) {
+        for (Sink sink : sinks) {
+            sink.rawText(text, offset, length);
+        }
+    }
+
+    @Override
+    public void comment(String comment) {
+        for (Sink sink : sinks) {
+            sink.comment(comment);
+        }
+    }
+
+    @Override
+    public void comment(String comment, boolean endsWithLineBreak) {
+        for (Sink sink : sinks) {
+            sink.comment(comment, endsWithLineBreak);
+        }
+    }
+
+    @Override
+    public void unknown(String name, Object[] requiredParams, SinkEventAttributes attributes) {
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].unknown(name, requiredParams, attributes(attributes, i));
+        }
+    }
+
+    @Override
+    public void flush() {
+        for (Sink sink : sinks) {
+            sink.flush();
+        }
+    }
+
+    @Override
+    public void close() {
+        for (Sink sink : sinks) {
+            sink.close();
+        }
+    }
+
+    @Override
+    public void setDocumentLocator(Locator locator) {
+        super.setDocumentLocator(locator);
+        for (Sink sink : sinks) {
+            sink.setDocumentLocator(locator);
+        }
+    }
+
+    private SinkEventAttributes attributes(SinkEventAttributes attributes, int sinkIndex) {
+        if (attributes == null || sinkIndex == sinks.length - 1) {
+            return attributes;
+        }
+
+        AttributeSet copy = attributes.copyAttributes();
+        return copy instanceof SinkEventAttributes ? (SinkEventAttributes) copy : new SinkEventAttributeSet(attributes);
+    }
+}
@@ -18,11 +18,9 @@
  */
 package org.apache.maven.doxia.sink.impl;
 
-import java.util.HashSet;
-import java.util.Set;
-
 import org.apache.maven.doxia.sink.Sink;
 import org.apache.maven.doxia.sink.SinkEventAttributes;
+import org.apache.maven.doxia.util.IdRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,11 +31,11 @@ public class UniqueAnchorNamesValidator extends SinkWrapper {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(UniqueAnchorNamesValidator.class);
 
-    private final Set<String> usedAnchorNames;
+    private final IdRegistry usedAnchorNames;
 
     public UniqueAnchorNamesValidator(Sink sink) {
         super(sink);
-        usedAnchorNames = new HashSet<>();
+        usedAnchorNames = new IdRegistry();
     }
 
     @Override
@@ -45,8 +43,18 @@ public class UniqueAnchorNamesValidator extends SinkWrapper {
         // assume that other anchor method signature calls this method under the hood in all relevant sink
         // implementations
         super.anchor(name, attributes);
-        if (!usedAnchorNames.add(name)) {
+        if (!usedAnchorNames.markUsed(name)) {
             LOGGER.warn("{}Anchor name \"{}\" used more than once", getLocationLogPrefix(), name);
         }
     }
+
+    /**
+     * Only anchors need to pass this sink.
+     *
+     * @return <code>true</code>
+     */
+    @Override
+    protected boolean isBypassable() {
+        return true;
+    }
 }
@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.doxia.sink.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A channel which only replaces its target file when the written content differs from the existing one.
+ * <p>
+ * The written bytes are compared with the content of the existing file while they are written. As long as
+ * they match nothing is written at all, so an unchanged file keeps its modification time. At the first
+ * difference the matching prefix is copied into a temporary file next to the target, the remaining content
+ * goes into that file, and on {@link #close()} it atomically replaces the target. The temporary file gets
+ * the POSIX permissions of the target it replaces, if the file system supports them.
+ * </p>
+ * <p>
+ * Whether an atomic move may replace an existing file depends on the platform, so if it fails for any reason
+ * the target is replaced with a plain move instead.
+ * </p>
+ *
+ * @since 2.1.0
+ */
+final class WriteIfChangedChannel implements WritableByteChannel {
+    private final Path target;
+
+    /** The existing target file while the written content matches it, <code>null</code> otherwise. */
+    private FileChannel existing;
+
+    /** The number of written bytes which matched the existing file. */
+    private long matched;
+
+    private ByteBuffer compareBuffer;
+
+    private Path temporary;
+
+    /** The temporary file once the written content differs, <code>null</code> before. */
+    private FileChannel out;
+
+    private boolean open = true;
+
+    WriteIfChangedChannel(Path target) throws IOException {
+        this.target = target;
+        if (Files.isRegularFile(target)) {
+            this.existing = FileChannel.open(target, StandardOpenOption.READ);
+        }
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+        if (!open) {
+            throw new ClosedChannelException();
+        }
+
+        if (out == null) {
+            int length = src.remaining();
+            if (existing != null && matches(src)) {
+                matched += length;
+                src.position(src.limit());
+                return length;
+            }
+            diverge();
+        }
+
+        return out.write(src);
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!open) {
+            return;
+        }
+        open = false;
+
+        try {
+            if (out == null) {
+                if (existing != null && existing.size() == matched) {
+                    // unchanged: leave the target untouched
+                    existing.close();
+                    return;
+                }
+                diverge();
+            }
+
+            out.close();
+            replaceTarget();
+        } catch (IOException | RuntimeException e) {
+            if (existing != null) {
+                existing.close();
+            }
+            if (out != null) {
+                out.close();
+            }
+            if (temporary != null) {
+                Files.deleteIfExists(temporary);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Compare the remaining bytes of the buffer with the next bytes of the existing file.
+     */
+    private boolean matches(ByteBuffer src) throws IOException {
+        int length = src.remaining();
+        if (compareBuffer == null || compareBuffer.capacity() < length) {
+            compareBuffer = ByteBuffer.allocate(length);
+        }
+        compareBuffer.clear().limit(length);
+
+        while (compareBuffer.hasRemaining()) {
+            if (existing.read(compareBuffer, matched + compareBuffer.position()) < 0) {
+                return false;
+            }
+        }
+
+        int start = src.position();
+        for (int i = 0; i < length; i++) {
+            if (src.get(start + i) != compareBuffer.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Switch to writing into a temporary file, starting with the prefix which matched the existing file.
+     */
+    private void diverge() throws IOException {
+        String name = "." + target.getFileName() + "."
+                + Long.toHexString(ThreadLocalRandom.current().nextLong());
+        temporary = target.resolveSibling(name + ".tmp");
+        out = FileChannel.open(temporary, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+
+        if (existing != null) {
+            copyPermissions();
+            long position = 0;
+            while (position < matched) {
+                position += existing.transferTo(position, matched - position, out);
+            }
+            existing.close();
+            existing = null;
+        }
+    }
+
+    /**
+     * Give the temporary file the permissions of the target, which the move would replace otherwise.
+     */
+    private void copyPermissions() throws IOException {
+        PosixFileAttributeView view = Files.getFileAttributeView(target, PosixFileAttributeView.class);
+        if (view != null) {
+            Files.setPosixFilePermissions(temporary, view.readAttributes().permissions());
+        }
+    }
+
+    private void replaceTarget() throws IOException {
+        try {
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // not supported, or not onto an existing file on this platform
+            try {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException fallback) {
+                fallback.addSuppressed(e);
+                throw fallback;
+            }
+        }
+    }
+}
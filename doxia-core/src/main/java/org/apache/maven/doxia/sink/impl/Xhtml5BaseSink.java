@@ -50,12 +50,38 @@ import org.slf4j.LoggerFactory;
 public class Xhtml5BaseSink extends AbstractXmlSink implements HtmlMarkup {
     private static final Logger LOGGER = LoggerFactory.getLogger(Xhtml5BaseSink.class);
 
+    /** Whether a subclass changes how text is written, so text given as characters must be passed on as String. */
+    private static final ClassValue<Boolean> HANDLES_TEXT = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return SinkUtils.isOverridden(type, Xhtml5BaseSink.class, "text", String.class, SinkEventAttributes.class)
+                    || SinkUtils.isOverridden(type, Xhtml5BaseSink.class, "content", String.class)
+                    || SinkUtils.isOverridden(type, Xhtml5BaseSink.class, "verbatimContent", String.class);
+        }
+    };
+
+    /** Whether a subclass overrides {@link #rawText(String)}. */
+    private static final ClassValue<Boolean> HANDLES_RAW_TEXT = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return SinkUtils.isOverridden(type, Xhtml5BaseSink.class, "rawText", String.class);
+        }
+    };
+
+    /** Whether a subclass overrides {@link #write(String)}. */
+    private static final ClassValue<Boolean> HANDLES_WRITE = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return SinkUtils.isOverridden(type, Xhtml5BaseSink.class, "write", String.class);
+        }
+    };
+
     // ----------------------------------------------------------------------
     // Instance fields
     // ----------------------------------------------------------------------
 
     /** The PrintWriter to write the result. */
-    private final PrintWriter writer;
+    private PrintWriter writer;
 
     /** Used to identify if a class string contains `hidden` */
     private static final Pattern HIDDEN_CLASS_PATTERN = Pattern.compile("(?:.*\\s|^)hidden(?:\\s.*|$)");
@@ -136,6 +162,26 @@ public class Xhtml5BaseSink extends AbstractXmlSink implements HtmlMarkup {
         init();
     }
 
+    /**
+     * Prepare this sink to render another document into the given writer. All internal state is reset as after
+     * {@link #close()}, while the allocated buffers and stacks are reused. This allows a thread to render many
+     * documents with the same sink instance.
+     * <p>
+     * The previous writer is neither flushed nor closed, and the document locator is removed. Subclasses keeping
+     * per-document state reset it in {@link #init()}.
+     * </p>
+     *
+     * @param out the not-null writer to write the next document to.
+     * @since 2.1.0
+     */
+    public void reset(Writer out) {
+        this.writer = new PrintWriter(Objects.requireNonNull(out, "out cannot be null"));
+        this.contentStack.clear();
+        setDocumentLocator(null);
+
+        init();
+    }
+
     // ----------------------------------------------------------------------
     // Accessor methods
     // ----------------------------------------------------------------------
@@ -256,7 +302,7 @@ public class Xhtml5BaseSink extends AbstractXmlSink implements HtmlMarkup {
      * Reset the text buffer.
      */
     protected void resetTextBuffer() {
-        this.textBuffer = new StringBuffer();
+        this.textBuffer.setLength(0);
     }
 
     // ----------------------------------------------------------------------
@@ -265,7 +311,7 @@ public class Xhtml5BaseSink extends AbstractXmlSink implements HtmlMarkup {
 
     @Override
     public void article(SinkEventAttributes attributes) {
-        MutableAttributeSet atts = SinkUtils.filterAttributes(attributes, SinkUtils.SINK_SECTION_ATTRIBUTES);
+        MutableAttributeSet atts = AttributeFilter.SINK_SECTION_ATTRIBUTES.apply(attributes);
 
         writeStartTag(HtmlMarkup.ARTICLE, atts);
     }
@@ -277,7 +323,7 @@ public class Xhtml5BaseSink extends AbstractXmlSink implements HtmlMarkup {
 
     @Override
     public void navigation(SinkEventAttributes attributes) {
-        MutableAttributeSet atts = SinkUtils.filterAttributes(attributes, SinkUtils.SINK_SECTION_ATTRIBUTES);
+        MutableAttributeSet atts = AttributeFilter.SINK_SECTION_ATTRIBUTES.apply(attributes);
 
         writeStartTag(HtmlMarkup.NAV, atts);
     }
@@ -289,7 +335,7 @@ public class Xhtml5BaseSink extends AbstractXmlSink implements HtmlMarkup {
 
     @Override
     public void sidebar(SinkEventAttributes attributes) {
-        MutableAttributeSet atts = SinkUtils.filterAttributes(attributes, SinkUtils.SINK_SECTION_ATTRIBUTES);
+        MutableAttributeSet atts = AttributeFilter.SINK_SECTION_ATTRIBUTES.apply(attributes);
 
         writeStartTag(HtmlMarkup.ASIDE, atts);
     }
@@ -328,7 +374,7 @@ public class Xhtml5BaseSink extends AbstractXmlSink implements HtmlMarkup {
     protected void onSection(int depth, SinkEventAttributes attributes) {
         if (depth >= SECTION_LEVEL_1 && depth <= SECTION_LEVEL_6) {
             MutableAttributeSet att = new SinkEventAttributeSet();
-            att.addAttributes(SinkUtils.filterAttributes(attributes, SinkUtils.SINK_BASE_ATTRIBUTES));
+            att.addAttributes(AttributeFilter.SINK_BASE_ATTRIBUTES.apply(attributes));
 
             writeStartTag(HtmlMarkup.SECTION, att);
         }
@@ -359,7 +405,7 @@ public class Xhtml5BaseSink extends AbstractXmlSink implements HtmlMarkup {
      * @see #H6
      */
     protected void onSectionTitle(int depth, SinkEventAttributes attributes) {
-        MutableAttributeSet atts = SinkUtils.filterAttributes(attributes, SinkUtils.SINK_SECTION_ATTRIBUTES);
+        MutableAttributeSet atts = AttributeFilter.SINK_SECTION_ATTRIBUTES.apply(attributes);
 
         if (depth == SECTION_LEVEL_1) {
             writeStartTag(HtmlMarkup.H1, atts);
@@ -405,7 +451,7 @@ public class Xhtml5BaseSink extends AbstractXmlSink implements HtmlMarkup {
 
     @Override
     public void header(SinkEventAttributes attributes) {
-        MutableAttributeSet atts = SinkUtils.filterAttributes(attributes, SinkUtils.SINK_SECTION_ATTRIBUTES);
+        MutableAttributeSet atts = AttributeFilter.SINK_SECTION_ATTRIBUTES.apply(attributes);
 
         writeStartTag(HtmlMarkup.HEADER, atts);
     }
@@ -448,7 +494,7 @@ public class Xhtml5BaseSink extends AbstractXmlSink implements HtmlMarkup {
 
     @Override
     public void footer(SinkEventAttributes attributes) {
-        MutableAttributeSet atts = SinkUtils.filterAttributes(attributes, SinkUtils.SINK_SECTION_ATTRIBUTES);
+        MutableAttributeSet atts = AttributeFilter.SINK_SECTION_ATTRIBUTES.apply(attributes);
 
         writeStartTag(HtmlMarkup.FOOTER, atts);
     }
@@ -475,7 +521,7 @@ public class Xhtml5BaseSink extends AbstractXmlSink implements HtmlMarkup {
             paragraph_();
         }
 
-        MutableAttributeSet atts = SinkUtils.filterAttributes(attributes, SinkUtils.SINK_BASE_ATTRIBUTES);
+        MutableAttributeSet atts = AttributeFilter.SINK_BASE_ATTRIBUTES.apply(attributes);
 
         writeStartTag(HtmlMarkup.UL, atts);
     }
@@ -495,7 +541,7 @@ public class Xhtml5BaseSink extends AbstractXmlSink implements HtmlMarkup {
      */
     @Override
     public void listItem(SinkEventAttributes attributes) {
-        MutableAttributeSet atts = SinkUtils.filterAttributes(attributes, SinkUtils.SINK_BASE_ATTRIBUTES);
+        MutableAttributeSet atts = AttributeFilter.SINK_BASE_ATTRIBUTES.apply(attributes);
 
         writeStartTag(HtmlMarkup.LI, atts);
     }
@@ -574,7 +620,7 @@ public class Xhtml5BaseSink extends AbstractXmlSink implements HtmlMarkup {
      */
     @Override
     public void numberedListItem(SinkEventAttributes attributes) {
-        MutableAttributeSet atts = SinkUtils.filterAttributes(attributes, SinkUtils.SINK_BASE_ATTRIBUTES);
+        MutableAttributeSet atts = AttributeFilter.SINK_BASE_ATTRIBUTES.apply(attributes);
 
         writeStartTag(HtmlMarkup.LI, atts);
     }
@@ -601,7 +647,7 @@ public class Xhtml5BaseSink extends AbstractXmlSink implements HtmlMarkup {
             paragraph_();
         }
 
-        MutableAttributeSet atts = SinkUtils.filterAttributes(attributes, SinkUtils.SINK_BASE_ATTRIBUTES);
+        MutableAttributeSet atts = AttributeFilter.SINK_BASE_ATTRIBUTES.apply(attributes);
 
         writeStartTag(HtmlMarkup.DL, atts);
     }
@@ -621,7 +667,7 @@ public class Xhtml5BaseSink extends AbstractXmlSink implements HtmlMarkup {
      */
     @Override
     public void definedTerm(SinkEventAttributes attributes) {
-        MutableAttributeSet atts = SinkUtils.filterAttributes(attributes, SinkUtils.SINK_BASE_ATTRIBUTES);
+        MutableAttributeSet atts = AttributeFilter.SINK_BASE_ATTRIBUTES.apply(attributes);
 
         writeStartTag(HtmlMarkup.DT, atts);
     }
@@ -641,7 +687,7 @@ public class Xhtml5BaseSink extends AbstractXmlSink implements HtmlMarkup {
      */
     @Override
     public void definition(SinkEventAttributes attributes) {
-        MutableAttributeSet atts = SinkUtils.filterAttributes(attributes, SinkUtils.SINK_BASE_ATTRIBUTES);
+        MutableAttributeSet atts = AttributeFilter.SINK_BASE_ATTRIBUTES.apply(attributes);
 
         writeStartTag(HtmlMarkup.DD, atts);
     }
@@ -700,7 +746,7 @@ public class Xhtml5BaseSink extends AbstractXmlSink implements HtmlMarkup {
     public void paragraph(SinkEventAttributes attributes) {
         paragraphFlag = true;
 
-        MutableAttributeSet atts = SinkUtils.filterAttributes(attributes, SinkUtils.SINK_SECTION_ATTRIBUTES);
+        MutableAttributeSet atts = AttributeFilter.SINK_SECTION_ATTRIBUTES.apply(attributes);
 
         writeStartTag(HtmlMarkup.P, atts);
     }
@@ -719,7 +765,7 @@ public class Xhtml5BaseSink extends AbstractXmlSink implements HtmlMarkup {
 
     @Override
     public void data(String value, SinkEventAttributes attributes) {
-        MutableAttributeSet atts = SinkUtils.filterAttributes(attributes, SinkUtils.SINK_BASE_ATTRIBUTES);
+        MutableAttributeSet atts = AttributeFilter.SINK_BASE_ATTRIBUTES.apply(attributes);
 
         MutableAttributeSet att = new SinkEventAttributeSet();
         if (value != null) {
@@ -737,7 +783,7 @@ public class Xhtml5BaseSink extends AbstractXmlSink implements HtmlMarkup {
 
     @Override
     public void time(String datetime, SinkEventAttributes attributes) {
-        MutableAttributeSet atts = SinkUtils.filterAttributes(attributes, SinkUtils.SINK_BASE_ATTRIBUTES);
+        MutableAttributeSet atts = AttributeFilter.SINK_BASE_ATTRIBUTES.apply(attributes);
 
         MutableAttributeSet att = new SinkEventAttributeSet();
         if (datetime != null) {
@@ -759,7 +805,7 @@ public class Xhtml5BaseSink extends AbstractXmlSink implements HtmlMarkup {
      */
     @Override
     public void address(SinkEventAttributes attributes) {
-        MutableAttributeSet atts = SinkUtils.filterAttributes(attributes, SinkUtils.SINK_SECTION_ATTRIBUTES);
+        MutableAttributeSet atts = AttributeFilter.SINK_SECTION_ATTRIBUTES.apply(attributes);
 
         writeStartTag(HtmlMarkup.ADDRESS, atts);
     }
@@ -779,7 +825,7 @@ public class Xhtml5BaseSink extends AbstractXmlSink implements HtmlMarkup {
      */
     @Override
     public void blockquote(SinkEventAttributes attributes) {
-        MutableAttributeSet atts = SinkUtils.filterAttributes(attributes, SinkUtils.SINK_SECTION_ATTRIBUTES);
+        MutableAttributeSet atts = AttributeFilter.SINK_SECTION_ATTRIBUTES.apply(attributes);
 
         writeStartTag(HtmlMarkup.BLOCKQUOTE, atts);
     }
@@ -799,7 +845,7 @@ public class Xhtml5BaseSink extends AbstractXmlSink implements HtmlMarkup {
      */
     @Override
     public void division(SinkEventAttributes attributes) {
-        MutableAttributeSet atts = SinkUtils.filterAttributes(attributes, SinkUtils.SINK_SECTION_ATTRIBUTES);
+        MutableAttributeSet atts = AttributeFilter.SINK_SECTION_ATTRIBUTES.apply(attributes);
 
         writeStartTag(HtmlMarkup.DIV, atts);
     }
@@ -874,7 +920,7 @@ public class Xhtml5BaseSink extends AbstractXmlSink implements HtmlMarkup {
      */
     @Override
     public void horizontalRule(SinkEventAttributes attributes) {
-        MutableAttributeSet atts = SinkUtils.filterAttributes(attributes, SinkUtils.SINK_HR_ATTRIBUTES);
+        MutableAttributeSet atts = AttributeFilter.SINK_HR_ATTRIBUTES.apply(attributes);
 
         writeSimpleTag(HtmlMarkup.HR, atts);
     }
@@ -1076,7 +1122,7 @@ public class Xhtml5BaseSink extends AbstractXmlSink implements HtmlMarkup {
         if (attributes == null) {
             writeStartTag(t, null);
         } else {
-            writeStartTag(t, SinkUtils.filterAttributes(attributes, SinkUtils.SINK_TD_ATTRIBUTES));
+            writeStartTag(t, AttributeFilter.SINK_TD_ATTRIBUTES.apply(attributes));
         }
     }
 
@@ -1136,10 +1182,19 @@ public class Xhtml5BaseSink extends AbstractXmlSink implements HtmlMarkup {
     public void tableCaption(SinkEventAttributes attributes) {
         StringWriter sw = new StringWriter();
         this.tableCaptionWriterStack.addLast(sw);
-        this.tableCaptionXMLWriterStack.addLast(new PrettyPrintXMLWriter(sw));
+        if (isCompact()) {
+            this.tableCaptionXMLWriterStack.addLast(new PrettyPrintXMLWriter(sw) {
+                @Override
+                protected void endOfLine() {
+                    // no pretty printing
+                }
+            });
+        } else {
+            this.tableCaptionXMLWriterStack.addLast(new PrettyPrintXMLWriter(sw));
+        }
 
         // TODO: tableCaption should be written before tableRows (DOXIA-177)
-        MutableAttributeSet atts = SinkUtils.filterAttributes(attributes, SinkUtils.SINK_SECTION_ATTRIBUTES);
+        MutableAttributeSet atts = AttributeFilter.SINK_SECTION_ATTRIBUTES.apply(attributes);
 
         writeStartTag(HtmlMarkup.CAPTION, atts);
     }
@@ -1171,7 +1226,7 @@ public class Xhtml5BaseSink extends AbstractXmlSink implements HtmlMarkup {
             return;
         }
 
-        MutableAttributeSet atts = SinkUtils.filterAttributes(attributes, SinkUtils.SINK_BASE_ATTRIBUTES);
+        MutableAttributeSet atts = AttributeFilter.SINK_BASE_ATTRIBUTES.apply(attributes);
 
         String id = name;
 
@@ -1366,7 +1421,7 @@ public class Xhtml5BaseSink extends AbstractXmlSink implements HtmlMarkup {
         if (headFlag || isVerbatim()) {
             getTextBuffer().append(EOL);
         } else {
-            MutableAttributeSet atts = SinkUtils.filterAttributes(attributes, SinkUtils.SINK_BR_ATTRIBUTES);
+            MutableAttributeSet atts = AttributeFilter.SINK_BR_ATTRIBUTES.apply(attributes);
 
             writeSimpleTag(HtmlMarkup.BR, atts);
         }
@@ -1375,7 +1430,7 @@ public class Xhtml5BaseSink extends AbstractXmlSink implements HtmlMarkup {
     @Override
     public void lineBreakOpportunity(SinkEventAttributes attributes) {
         if (!headFlag && !isVerbatim()) {
-            MutableAttributeSet atts = SinkUtils.filterAttributes(attributes, SinkUtils.SINK_BR_ATTRIBUTES);
+            MutableAttributeSet atts = AttributeFilter.SINK_BR_ATTRIBUTES.apply(attributes);
 
             writeSimpleTag(HtmlMarkup.WBR, atts);
         }
@@ -1428,6 +1483,27 @@ public class Xhtml5BaseSink extends AbstractXmlSink implements HtmlMarkup {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * Escapes the characters directly to the output where possible, otherwise creates a String of them and
+     * calls {@link #text(String, SinkEventAttributes)}.
+     */
+    @Override
+    public void text(char[] text, int offset, int length, SinkEventAttributes attributes) {
+        VerbatimMode mode = getVerbatimMode();
+        if (attributes != null || headFlag || HANDLES_TEXT.get(getClass()) || !writesDirectly()) {
+            text(new String(text, offset, length), attributes);
+        } else if (mode == VerbatimMode.OFF && !isCompact()) {
+            // same as content(String) including the DOXIA-314 hack
+            writeChars(text, offset, length, true, true);
+        } else if (mode == VerbatimMode.ON || mode == VerbatimMode.ON_WITH_CODE_AFTER_TEXT) {
+            // same as verbatimContent(String)
+            writeChars(text, offset, length, true, false);
+        } else {
+            text(new String(text, offset, length), attributes);
+        }
+    }
+
     @Override
     public void rawText(String text) {
         if (headFlag) {
@@ -1437,6 +1513,17 @@ public class Xhtml5BaseSink extends AbstractXmlSink implements HtmlMarkup {
         }
     }
 
+    @Override
+    public void rawText(char[] text, int offset, int length) {
+        if (HANDLES_RAW_TEXT.get(getClass())) {
+            rawText(new String(text, offset, length));
+        } else if (headFlag) {
+            getTextBuffer().append(text, offset, length);
+        } else {
+            write(text, offset, length);
+        }
+    }
+
     @Override
     public void comment(String comment) {
         comment(comment, false);
@@ -1445,7 +1532,7 @@ public class Xhtml5BaseSink extends AbstractXmlSink implements HtmlMarkup {
     @Override
     public void comment(String comment, boolean endsWithLineBreak) {
         if (comment != null) {
-            write(encodeAsHtmlComment(comment, endsWithLineBreak, getLocationLogPrefix()));
+            write(encodeAsHtmlComment(comment, endsWithLineBreak && !isCompact(), getLocationLogPrefix()));
         }
     }
 
@@ -1592,12 +1679,58 @@ public class Xhtml5BaseSink extends AbstractXmlSink implements HtmlMarkup {
      * @param text The text to write.
      */
     protected void content(String text) {
+        if (isCompact()) {
+            text = collapseWhitespace(text);
+        }
         // small hack due to DOXIA-314
         String txt = escapeHTML(text);
         txt = DoxiaStringUtils.replace(txt, "&amp;#", "&#");
         write(txt);
     }
 
+    /**
+     * Collapse each run of HTML whitespace characters into a single space, as done by browsers when rendering
+     * text outside of verbatim blocks.
+     *
+     * @param text the text, may be null.
+     * @return the text with collapsed whitespace.
+     * @since 2.1.0
+     */
+    protected static String collapseWhitespace(String text) {
+        if (text == null) {
+            return null;
+        }
+
+        StringBuilder sb = null;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (isHtmlWhitespace(c)) {
+                int end = i + 1;
+                while (end < length && isHtmlWhitespace(text.charAt(end))) {
+                    end++;
+                }
+                if (c != ' ' || end > i + 1) {
+                    if (sb == null) {
+                        sb = new StringBuilder(length).append(text, 0, i);
+                    }
+                    sb.append(' ');
+                    i = end - 1;
+                    continue;
+                }
+            }
+            if (sb != null) {
+                sb.append(c);
+            }
+        }
+
+        return sb == null ? text : sb.toString();
+    }
+
+    private static boolean isHtmlWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f';
+    }
+
     /**
      * Write HTML escaped text to output.
      *
@@ -1639,6 +1772,86 @@ public class Xhtml5BaseSink extends AbstractXmlSink implements HtmlMarkup {
         }
     }
 
+    @Override
+    protected void write(char[] text, int offset, int length) {
+        if (writesDirectly()) {
+            writeChars(text, offset, length, false, false);
+        } else {
+            write(new String(text, offset, length));
+        }
+    }
+
+    /**
+     * @return <code>true</code> if text is written to the writer of this sink rather than to a table writer, and
+     * {@link #write(String)} isn't overridden
+     */
+    private boolean writesDirectly() {
+        return (tableCaptionXMLWriterStack.isEmpty() || tableCaptionXMLWriterStack.getLast() == null)
+                && (tableContentWriterStack.isEmpty() || tableContentWriterStack.getLast() == null)
+                && !HANDLES_WRITE.get(getClass());
+    }
+
+    /**
+     * Write a range of characters to the writer, unifying EOLs and optionally escaping them the same way as
+     * {@link #escapeHTML(String)}, without creating any intermediate String.
+     *
+     * @param text the array containing the text to write
+     * @param offset the index of the first character to write
+     * @param length the number of characters to write
+     * @param escape whether to escape the characters
+     * @param keepCharacterReferences whether an ampersand followed by '#' is kept unescaped (DOXIA-314)
+     */
+    private void writeChars(char[] text, int offset, int length, boolean escape, boolean keepCharacterReferences) {
+        int end = offset + length;
+        int start = offset;
+        for (int i = offset; i < end; i++) {
+            char c = text[i];
+            int next = i + 1;
+            String replacement = null;
+            int codePoint = -1;
+            if (c == '\r') {
+                replacement = EOL;
+                if (next < end && text[next] == '\n') {
+                    next++;
+                }
+            } else if (c == '\n') {
+                replacement = EOL;
+            } else if (!escape) {
+                continue;
+            } else if (c == '<') {
+                replacement = "&lt;";
+            } else if (c == '>') {
+                replacement = "&gt;";
+            } else if (c == '"') {
+                replacement = "&quot;";
+            } else if (c == '&') {
+                if (!keepCharacterReferences || next == end || text[next] != '#') {
+                    replacement = "&amp;";
+                }
+            } else if (c > 0x7E) {
+                // not ASCII
+                codePoint = c;
+                if (Character.isHighSurrogate(c) && next < end) {
+                    codePoint = Character.toCodePoint(c, text[next++]);
+                }
+            }
+
+            if (replacement != null || codePoint >= 0) {
+                writer.write(text, start, i - start);
+                if (replacement != null) {
+                    writer.write(replacement);
+                } else {
+                    writer.write("&#x");
+                    writer.write(Integer.toHexString(codePoint));
+                    writer.write(';');
+                }
+                start = next;
+                i = next - 1;
+            }
+        }
+        writer.write(text, start, end - start);
+    }
+
     @Override
     protected void writeStartTag(Tag t, MutableAttributeSet att, boolean isSimpleTag) {
         if (this.tableCaptionXMLWriterStack.isEmpty()) {
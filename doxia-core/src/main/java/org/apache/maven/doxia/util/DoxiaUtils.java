@@ -18,19 +18,32 @@
  */
 package org.apache.maven.doxia.util;
 
+import javax.imageio.IIOException;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 import javax.swing.text.MutableAttributeSet;
 
-import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
-import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
 import java.text.ParsePosition;
-import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.SignStyle;
+import java.time.format.TextStyle;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.util.Calendar;
 import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Locale;
+import java.util.Map;
 
 import org.apache.maven.doxia.sink.impl.SinkEventAttributeSet;
 
@@ -168,7 +181,12 @@ public class DoxiaUtils {
             return null;
         }
 
-        StringBuilder buffer = new StringBuilder(length);
+        if (isValidId(textt)) {
+            // nothing to encode
+            return textt;
+        }
+
+        StringBuilder buffer = new StringBuilder(length + 16);
 
         for (int i = 0; i < length; ++i) {
             char c = textt.charAt(i);
@@ -181,20 +199,30 @@ public class DoxiaUtils {
                 buffer.append('_');
             } else if (isAsciiLetter(c) || isAsciiDigit(c) || (c == '-') || (c == '_') || (c == '.')) {
                 buffer.append(c);
+            } else if (c < 0x80) {
+                appendEncodedByte(buffer, c);
+            } else if (c < 0x800) {
+                appendEncodedByte(buffer, 0xC0 | (c >> 6));
+                appendEncodedByte(buffer, 0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // a single surrogate is not encodable, i.e. replaced by '?'
+                appendEncodedByte(buffer, '?');
             } else {
-
-                byte[] bytes = String.valueOf(c).getBytes(StandardCharsets.UTF_8);
-
-                for (byte aByte : bytes) {
-                    buffer.append('.');
-                    buffer.append(String.format("%02X", aByte));
-                }
+                appendEncodedByte(buffer, 0xE0 | (c >> 12));
+                appendEncodedByte(buffer, 0x80 | ((c >> 6) & 0x3F));
+                appendEncodedByte(buffer, 0x80 | (c & 0x3F));
             }
         }
 
         return buffer.toString();
     }
 
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    private static void appendEncodedByte(StringBuilder buffer, int b) {
+        buffer.append('.').append(HEX_DIGITS[(b >> 4) & 0xF]).append(HEX_DIGITS[b & 0xF]);
+    }
+
     /**
      * Determines if the specified text is a valid id according to the rules
      * laid out in {@link #encodeId(String)}.
@@ -224,8 +252,6 @@ public class DoxiaUtils {
         return true;
     }
 
-    private static final SimpleDateFormat DATE_PARSER = new SimpleDateFormat("", Locale.ENGLISH);
-    private static final ParsePosition DATE_PARSE_POSITION = new ParsePosition(0);
     private static final String[] DATE_PATTERNS = new String[] {
         "yyyy-MM-dd",
         "yyyy/MM/dd",
@@ -243,6 +269,28 @@ public class DoxiaUtils {
         "MMMM ''yy"
     };
 
+    /** The formatters of the {@link #DATE_PATTERNS}, in the same order. */
+    private static final DateTimeFormatter[] DATE_FORMATTERS = new DateTimeFormatter[DATE_PATTERNS.length];
+
+    static {
+        for (int i = 0; i < DATE_PATTERNS.length; i++) {
+            DATE_FORMATTERS[i] = toDateFormatter(DATE_PATTERNS[i]);
+        }
+    }
+
+    /** The maximum number of cached dates. */
+    private static final int MAX_CACHED_DATES = 256;
+
+    /** The year, month and day of month of recently parsed input strings, before they are resolved. */
+    private static final Map<String, int[]> PARSED_DATES = new LinkedHashMap<String, int[]>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, int[]> eldest) {
+            return size() > MAX_CACHED_DATES;
+        }
+    };
+
     /**
      * <p>Parses a string representing a date by trying different date patterns.</p>
      *
@@ -255,6 +303,10 @@ public class DoxiaUtils {
      * <p>A parse is only sucessful if it parses the whole of the input string.
      * If no parse patterns match, a ParseException is thrown.</p>
      *
+     * <p>The date is resolved leniently like by {@link java.text.SimpleDateFormat}: fields out of range roll
+     * over, so <code>"2004-02-31"</code> is March 2, 2004 and <code>"2004-13-01"</code> is January 1, 2005,
+     * and dates before October 15, 1582 are taken from the Julian calendar.</p>
+     *
      * <p>As a special case, the strings <code>"today"</code> and <code>"now"</code>
      * (ignoring case) return the current date.</p>
      *
@@ -271,23 +323,112 @@ public class DoxiaUtils {
             return new Date();
         }
 
-        for (String datePattern : DATE_PATTERNS) {
-            DATE_PARSER.applyPattern(datePattern);
-            DATE_PARSE_POSITION.setIndex(0);
-            final Date date = DATE_PARSER.parse(str, DATE_PARSE_POSITION);
-
-            if (date != null && DATE_PARSE_POSITION.getIndex() == str.length()) {
-                return date;
+        int[] fields;
+        synchronized (PARSED_DATES) {
+            fields = PARSED_DATES.get(str);
+        }
+        if (fields == null) {
+            fields = parseDateFields(str);
+            synchronized (PARSED_DATES) {
+                PARSED_DATES.put(str, fields);
             }
         }
 
-        throw new ParseException("Unable to parse date: " + str, -1);
+        // lenient like the calendar of SimpleDateFormat
+        Calendar calendar = new GregorianCalendar();
+        calendar.clear();
+        calendar.set(fields[0], fields[1] - 1, fields[2]);
+        return calendar.getTime();
     }
 
     //
     // private
     //
 
+    /**
+     * @return the year, month and day of month matched by the first matching pattern, not checked for validity.
+     */
+    private static int[] parseDateFields(final String str) throws ParseException {
+        for (DateTimeFormatter formatter : DATE_FORMATTERS) {
+            ParsePosition pos = new ParsePosition(0);
+            TemporalAccessor parsed = formatter.parseUnresolved(str, pos);
+            if (parsed != null && pos.getIndex() == str.length()) {
+                return new int[] {
+                    (int) parsed.getLong(ChronoField.YEAR),
+                    (int) parsed.getLong(ChronoField.MONTH_OF_YEAR),
+                    (int) parsed.getLong(ChronoField.DAY_OF_MONTH)
+                };
+            }
+        }
+
+        throw new ParseException("Unable to parse date: " + str, -1);
+    }
+
+    /**
+     * Builds a formatter parsing like a lenient {@link java.text.SimpleDateFormat} with the given pattern.
+     * Month names are matched ignoring case in their long or short form, numeric fields may be preceded by a space
+     * unless they directly follow another numeric field, and two-digit years are taken within 80 years before
+     * and 20 years after the current date. Missing month or day fields default to 1.
+     * The formatter is only used to parse the fields, which are not resolved into a date.
+     */
+    private static DateTimeFormatter toDateFormatter(final String pattern) {
+        DateTimeFormatterBuilder builder = new DateTimeFormatterBuilder().parseCaseInsensitive();
+
+        int i = 0;
+        boolean afterNumber = false;
+        boolean afterSpace = false;
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i);
+            int count = 1;
+            while (i + count < pattern.length() && pattern.charAt(i + count) == c) {
+                count++;
+            }
+
+            if (c == 'M' && count >= 3) {
+                builder.parseLenient()
+                        .appendText(ChronoField.MONTH_OF_YEAR, count == 3 ? TextStyle.SHORT : TextStyle.FULL)
+                        .parseStrict();
+                afterNumber = false;
+            } else if (c == 'd' || c == 'M' || c == 'y') {
+                boolean adjacent = i + count < pattern.length() && isAsciiLetter(pattern.charAt(i + count));
+                if (!afterNumber && !afterSpace) {
+                    builder.optionalStart().appendLiteral(' ').optionalEnd();
+                }
+
+                if (c == 'y' && count == 2) {
+                    builder.appendValueReduced(
+                            ChronoField.YEAR, 2, 2, LocalDate.now().minusYears(80));
+                } else {
+                    ChronoField field = c == 'd'
+                            ? ChronoField.DAY_OF_MONTH
+                            : c == 'M' ? ChronoField.MONTH_OF_YEAR : ChronoField.YEAR;
+                    if (adjacent) {
+                        builder.appendValue(field, count);
+                    } else {
+                        builder.appendValue(field, 1, c == 'y' ? 9 : 2, SignStyle.NORMAL);
+                    }
+                }
+                afterNumber = true;
+            } else if (c == '\'') {
+                // only escaped quotes are used in the patterns
+                count = 2;
+                builder.appendLiteral('\'');
+                afterNumber = false;
+            } else {
+                count = 1;
+                builder.appendLiteral(c);
+                afterNumber = false;
+            }
+
+            afterSpace = c == ' ';
+            i += count;
+        }
+
+        return builder.parseDefaulting(ChronoField.MONTH_OF_YEAR, 1)
+                .parseDefaulting(ChronoField.DAY_OF_MONTH, 1)
+                .toFormatter(Locale.ENGLISH);
+    }
+
     private static boolean isAsciiLetter(final char c) {
         return ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z'));
     }
@@ -296,9 +437,24 @@ public class DoxiaUtils {
         return (c >= '0' && c <= '9');
     }
 
+    /** The maximum number of image files whose size is cached. */
+    private static final int MAX_CACHED_IMAGE_SIZES = 256;
+
+    /** The sizes of recently used image files by absolute path. */
+    private static final Map<String, ImageSize> IMAGE_SIZES = new LinkedHashMap<String, ImageSize>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ImageSize> eldest) {
+            return size() > MAX_CACHED_IMAGE_SIZES;
+        }
+    };
+
     /**
      * Determine width and height of an image. If successful, the returned SinkEventAttributes
      * contain width and height attribute keys whose values are the width and height of the image (as a String).
+     * Only the header of the image is read. The size of image files is cached as long as their modification time
+     * and size don't change.
      *
      * @param logo a String containing either a URL or a path to an image file. Not null.
      * @return a set of SinkEventAttributes, or null if no ImageReader was found to read the image.
@@ -309,26 +465,95 @@ public class DoxiaUtils {
      * @since 1.1.1
      */
     public static MutableAttributeSet getImageAttributes(final String logo) throws IOException {
-        BufferedImage img;
+        ImageSize size;
 
         if (isExternalLink(logo)) {
-            img = ImageIO.read(new URL(logo));
+            try (InputStream in = new URL(logo).openStream()) {
+                size = readImageSize(in, 0L, -1L);
+            }
         } else {
-            img = ImageIO.read(new File(logo));
+            size = getImageSize(new File(logo));
         }
 
-        if (img == null) {
+        if (size.width < 0) {
             return null;
         }
 
         MutableAttributeSet atts = new SinkEventAttributeSet();
-        atts.addAttribute(SinkEventAttributeSet.WIDTH, Integer.toString(img.getWidth()));
-        atts.addAttribute(SinkEventAttributeSet.HEIGHT, Integer.toString(img.getHeight()));
+        atts.addAttribute(SinkEventAttributeSet.WIDTH, Integer.toString(size.width));
+        atts.addAttribute(SinkEventAttributeSet.HEIGHT, Integer.toString(size.height));
         // add other attributes?
 
         return atts;
     }
 
+    private static ImageSize getImageSize(File file) throws IOException {
+        if (!file.canRead()) {
+            throw new IIOException("Can't read input file!");
+        }
+
+        String key = file.getAbsolutePath();
+        long lastModified = file.lastModified();
+        long length = file.length();
+
+        ImageSize size;
+        synchronized (IMAGE_SIZES) {
+            size = IMAGE_SIZES.get(key);
+        }
+        if (size == null || size.lastModified != lastModified || size.length != length) {
+            // a seekable file stream, without the temporary cache file of a stream from an InputStream
+            size = readImageSize(file, lastModified, length);
+            synchronized (IMAGE_SIZES) {
+                IMAGE_SIZES.put(key, size);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Reads the size of an image from its header, without decoding the image.
+     *
+     * @param input the image {@link File} or {@link InputStream}.
+     */
+    private static ImageSize readImageSize(Object input, long lastModified, long length) throws IOException {
+        try (ImageInputStream iis = ImageIO.createImageInputStream(input)) {
+            Iterator<ImageReader> readers = iis != null ? ImageIO.getImageReaders(iis) : null;
+            if (readers == null || !readers.hasNext()) {
+                return new ImageSize(-1, -1, lastModified, length);
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(iis, true, true);
+                return new ImageSize(reader.getWidth(0), reader.getHeight(0), lastModified, length);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * The width and height of an image, negative if no reader was found for the image.
+     */
+    private static final class ImageSize {
+        private final int width;
+
+        private final int height;
+
+        /** The modification time of the image file. */
+        private final long lastModified;
+
+        /** The size of the image file. */
+        private final long length;
+
+        ImageSize(int width, int height, long lastModified, long length) {
+            this.width = width;
+            this.height = height;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+    }
+
     private DoxiaUtils() {
         // utility class
     }
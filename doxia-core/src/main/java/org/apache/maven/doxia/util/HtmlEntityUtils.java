@@ -18,8 +18,13 @@
  */
 package org.apache.maven.doxia.util;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Properties;
 
 /**
  * Utility class for escaping and unescaping HTML/XML entities.
@@ -302,6 +307,12 @@ public class HtmlEntityUtils {
         // utility class
     }
 
+    /** The trie of the XML entities. */
+    private static final EntityTrie XML_TRIE = new EntityTrie(XML_ENTITIES);
+
+    /** The trie of the HTML4 entities. */
+    private static final EntityTrie HTML4_TRIE = new EntityTrie(HTML4_ENTITIES);
+
     /**
      * Unescapes XML entities in a string.
      *
@@ -309,7 +320,7 @@ public class HtmlEntityUtils {
      * @return the unescaped text
      */
     public static String unescapeXml(String text) {
-        return unescapeEntities(text, XML_ENTITIES);
+        return unescapeEntities(text, XML_TRIE);
     }
 
     /**
@@ -319,61 +330,222 @@ public class HtmlEntityUtils {
      * @return the unescaped text
      */
     public static String unescapeHtml4(String text) {
-        return unescapeEntities(text, HTML4_ENTITIES);
+        return unescapeEntities(text, HTML4_TRIE);
+    }
+
+    /**
+     * Unescapes HTML5 entities in a string. All named character references of HTML5 terminated by a semicolon
+     * are decoded, except <code>&amp;apos;</code>.
+     *
+     * @param text the text to unescape
+     * @return the unescaped text
+     */
+    public static String unescapeHtml5(String text) {
+        return unescapeEntities(text, Html5.TRIE);
     }
 
-    private static String unescapeEntities(String text, Map<String, String> entities) {
-        if (text == null || text.isEmpty()) {
+    /**
+     * Unescapes XML entities in a range of characters.
+     *
+     * @param text the text to unescape
+     * @param start the index of the first character to unescape
+     * @param end the index after the last character to unescape
+     * @param out receives the unescaped text
+     * @throws IOException if appending to out fails
+     */
+    public static void unescapeXml(CharSequence text, int start, int end, Appendable out) throws IOException {
+        unescapeEntities(text, start, end, out, XML_TRIE);
+    }
+
+    /**
+     * Unescapes HTML4 entities in a range of characters.
+     *
+     * @param text the text to unescape
+     * @param start the index of the first character to unescape
+     * @param end the index after the last character to unescape
+     * @param out receives the unescaped text
+     * @throws IOException if appending to out fails
+     */
+    public static void unescapeHtml4(CharSequence text, int start, int end, Appendable out) throws IOException {
+        unescapeEntities(text, start, end, out, HTML4_TRIE);
+    }
+
+    /**
+     * Unescapes HTML5 entities in a range of characters.
+     *
+     * @param text the text to unescape
+     * @param start the index of the first character to unescape
+     * @param end the index after the last character to unescape
+     * @param out receives the unescaped text
+     * @throws IOException if appending to out fails
+     * @see #unescapeHtml5(String)
+     */
+    public static void unescapeHtml5(CharSequence text, int start, int end, Appendable out) throws IOException {
+        unescapeEntities(text, start, end, out, Html5.TRIE);
+    }
+
+    private static String unescapeEntities(String text, EntityTrie entities) {
+        if (text == null || text.indexOf('&') < 0) {
             return text;
         }
 
         StringBuilder result = new StringBuilder(text.length());
-        int i = 0;
-        int len = text.length();
-
-        while (i < len) {
-            char c = text.charAt(i);
-            if (c == '&') {
-                int end = text.indexOf(';', i + 1);
-                if (end != -1) {
-                    String entityContent = text.substring(i + 1, end);
-                    String replacement = null;
-
-                    // Check for numeric entity (&#123; or &#xAB;)
-                    if (entityContent.length() > 0 && entityContent.charAt(0) == '#') {
-                        try {
-                            if (entityContent.length() > 1 && entityContent.charAt(1) == 'x') {
-                                // Hexadecimal - need at least "x" plus one hex digit
-                                if (entityContent.length() > 2) {
-                                    int codePoint = Integer.parseInt(entityContent.substring(2), 16);
-                                    replacement = new String(Character.toChars(codePoint));
-                                }
-                            } else if (entityContent.length() > 1) {
-                                // Decimal - need at least one decimal digit after '#'
-                                int codePoint = Integer.parseInt(entityContent.substring(1));
-                                replacement = new String(Character.toChars(codePoint));
-                            }
-                        } catch (NumberFormatException e) {
-                            // Invalid numeric entity, leave as is
-                        } catch (IllegalArgumentException e) {
-                            // Invalid code point, leave as is
-                        }
-                    } else {
-                        // Named entity
-                        replacement = entities.get(entityContent);
-                    }
+        try {
+            unescapeEntities(text, 0, text.length(), result, entities);
+        } catch (IOException e) {
+            // never thrown by StringBuilder
+            throw new UncheckedIOException(e);
+        }
+        return result.toString();
+    }
+
+    /**
+     * Unescapes named and numeric entities in a single pass. Entities which are unknown or invalid are left as is.
+     */
+    private static void unescapeEntities(CharSequence text, int start, int end, Appendable out, EntityTrie entities)
+            throws IOException {
+        // the start of the text not yet appended
+        int pending = start;
+        int i = start;
+
+        while (i < end) {
+            if (text.charAt(i) != '&') {
+                i++;
+                continue;
+            }
+
+            int semicolon;
+            String replacement = null;
+            int codePoint = -1;
 
-                    if (replacement != null) {
-                        result.append(replacement);
-                        i = end + 1;
-                        continue;
+            if (i + 1 < end && text.charAt(i + 1) == '#') {
+                // numeric entity, &#123; or &#xAB;
+                int j = i + 2;
+                int radix = 10;
+                if (j < end && text.charAt(j) == 'x') {
+                    radix = 16;
+                    j++;
+                }
+                int digitsStart = j;
+                int value = 0;
+                for (; j < end; j++) {
+                    int digit = Character.digit(text.charAt(j), radix);
+                    if (digit < 0) {
+                        break;
+                    }
+                    if (value <= Character.MAX_CODE_POINT) {
+                        value = value * radix + digit;
                     }
                 }
+                semicolon = j;
+                if (j > digitsStart && value <= Character.MAX_CODE_POINT) {
+                    codePoint = value;
+                }
+            } else {
+                // named entity
+                EntityTrie.Node node = entities.root;
+                int j = i + 1;
+                while (node != null && j < end && text.charAt(j) != ';') {
+                    node = node.child(text.charAt(j));
+                    j++;
+                }
+                semicolon = j;
+                if (node != null) {
+                    replacement = node.value;
+                }
             }
-            result.append(c);
-            i++;
+
+            if ((replacement == null && codePoint < 0) || semicolon >= end || text.charAt(semicolon) != ';') {
+                i++;
+                continue;
+            }
+
+            out.append(text, pending, i);
+            if (replacement != null) {
+                out.append(replacement);
+            } else if (Character.isBmpCodePoint(codePoint)) {
+                out.append((char) codePoint);
+            } else {
+                out.append(Character.highSurrogate(codePoint)).append(Character.lowSurrogate(codePoint));
+            }
+            i = semicolon + 1;
+            pending = i;
         }
 
-        return result.toString();
+        out.append(text, pending, end);
+    }
+
+    /**
+     * Holds the trie of the HTML5 entities, which is only loaded when HTML5 entities are unescaped.
+     */
+    private static final class Html5 {
+        private static final EntityTrie TRIE = new EntityTrie(load());
+
+        private static Map<String, String> load() {
+            Properties entities = new Properties();
+            try (InputStream in = HtmlEntityUtils.class.getResourceAsStream("html5-entities.properties")) {
+                entities.load(in);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot load the HTML5 entities", e);
+            }
+
+            Map<String, String> map = new HashMap<>();
+            for (String name : entities.stringPropertyNames()) {
+                map.put(name, entities.getProperty(name));
+            }
+            return map;
+        }
+    }
+
+    /**
+     * A trie of entity names, so each entity is looked up while scanning it, without creating a substring.
+     */
+    private static final class EntityTrie {
+        private final Node root = new Node();
+
+        EntityTrie(Map<String, String> entities) {
+            for (Map.Entry<String, String> entity : entities.entrySet()) {
+                Node node = root;
+                for (int i = 0; i < entity.getKey().length(); i++) {
+                    node = node.addChild(entity.getKey().charAt(i));
+                }
+                node.value = entity.getValue();
+            }
+        }
+
+        private static final class Node {
+            /** The sorted characters leading to the children. */
+            private char[] chars = new char[0];
+
+            private Node[] children = new Node[0];
+
+            /** The replacement of the entity ending at this node, or {@code null}. */
+            private String value;
+
+            Node child(char c) {
+                int index = Arrays.binarySearch(chars, c);
+                return index >= 0 ? children[index] : null;
+            }
+
+            Node addChild(char c) {
+                int index = Arrays.binarySearch(chars, c);
+                if (index >= 0) {
+                    return children[index];
+                }
+
+                index = -index - 1;
+                char[] newChars = new char[chars.length + 1];
+                Node[] newChildren = new Node[chars.length + 1];
+                System.arraycopy(chars, 0, newChars, 0, index);
+                System.arraycopy(children, 0, newChildren, 0, index);
+                System.arraycopy(chars, index, newChars, index + 1, chars.length - index);
+                System.arraycopy(children, index, newChildren, index + 1, chars.length - index);
+                newChars[index] = c;
+                newChildren[index] = new Node();
+                chars = newChars;
+                children = newChildren;
+                return newChildren[index];
+            }
+        }
     }
 }
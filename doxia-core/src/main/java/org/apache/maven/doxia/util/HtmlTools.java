@@ -21,9 +21,7 @@ package org.apache.maven.doxia.util;
 import javax.swing.text.html.HTML.Tag;
 
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 import org.apache.maven.doxia.markup.HtmlMarkup;
@@ -286,7 +284,7 @@ public class HtmlTools {
      *
      * <p> Unescapes a string containing entity escapes to a string
      * containing the actual Unicode characters corresponding to the
-     * escapes. Supports HTML 4.0 entities.</p>
+     * escapes. Supports HTML5 named entities.</p>
      *
      * <p>For example, the string "&amp;lt;Fran&amp;ccedil;ais&amp;gt;"
      * will become "&lt;Fran&ccedil;ais&gt;".</p>
@@ -307,40 +305,13 @@ public class HtmlTools {
             return null;
         }
 
-        String unescaped;
+        // numeric entities are decoded in the same pass
         if (xmlMode) {
-            unescaped = HtmlEntityUtils.unescapeXml(text);
+            return HtmlEntityUtils.unescapeXml(text);
         } else {
-            // HtmlEntityUtils.unescapeHtml4 returns entities it doesn't recognize unchanged
-            unescaped = HtmlEntityUtils.unescapeHtml4(text);
+            // HtmlEntityUtils.unescapeHtml5 returns entities it doesn't recognize unchanged
+            return HtmlEntityUtils.unescapeHtml5(text);
         }
-
-        String tmp = unescaped;
-        List<String> entities = new ArrayList<>();
-        while (true) {
-            int i = tmp.indexOf("&#x");
-            if (i == -1) {
-                break;
-            }
-
-            tmp = tmp.substring(i + 3);
-            if (tmp.indexOf(';') != -1) {
-                String entity = tmp.substring(0, tmp.indexOf(';'));
-                try {
-                    Integer.parseInt(entity, 16);
-                    entities.add(entity);
-                } catch (NumberFormatException e) {
-                    // nop
-                }
-            }
-        }
-
-        for (String entity : entities) {
-            int codePoint = Integer.parseInt(entity, 16);
-            unescaped = DoxiaStringUtils.replace(unescaped, "&#x" + entity + ";", new String(toChars(codePoint)));
-        }
-
-        return unescaped;
     }
 
     /**
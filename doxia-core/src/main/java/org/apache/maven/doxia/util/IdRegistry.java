@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.doxia.util;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Encodes and tracks the ids used within one document.
+ * The encoded ids are cached across documents, as the same titles recur on many pages of a site and are encoded
+ * again when a table of contents is generated.
+ * This class is not thread-safe, a new instance should be used for each document.
+ * <p>
+ * The used ids are tracked by each sink on its own: the index of a document may be built by several sinks
+ * independently, which must all derive the same ids, and the anchors generated for these ids must not count as
+ * duplicates when validating the anchors of the document.
+ * </p>
+ *
+ * @see DoxiaUtils#encodeId(String)
+ * @since 2.1.0
+ */
+public class IdRegistry {
+    /** The maximum number of cached encoded ids. */
+    private static final int MAX_ENCODED_IDS = 1024;
+
+    /** The encoded ids of recently encoded texts by text, only for texts which are not valid ids already. */
+    private static final Map<String, String> ENCODED_IDS = new LinkedHashMap<String, String>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > MAX_ENCODED_IDS;
+        }
+    };
+
+    /** The used ids and how often they have been used (0-based, i.e. 0 means used 1 time). */
+    private final Map<String, int[]> usedIds = new HashMap<>();
+
+    /**
+     * Construct a valid Doxia id from the given text, reusing the result of previous invocations with the same text.
+     *
+     * @param text the text to be encoded, may be null.
+     * @return the encoded id, or null if the text is null or blank.
+     * @see DoxiaUtils#encodeId(String)
+     */
+    public String encodeId(String text) {
+        if (text == null) {
+            return null;
+        }
+        if (DoxiaUtils.isValidId(text)) {
+            // nothing to encode
+            return text;
+        }
+
+        String id;
+        synchronized (ENCODED_IDS) {
+            id = ENCODED_IDS.get(text);
+        }
+        if (id == null) {
+            id = DoxiaUtils.encodeId(text);
+            if (id != null) {
+                synchronized (ENCODED_IDS) {
+                    ENCODED_IDS.put(text, id);
+                }
+            }
+        }
+        return id;
+    }
+
+    /**
+     * Converts the given id into one not used before by potentially suffixing it with an index value,
+     * and marks the result as used.
+     *
+     * @param id the id.
+     * @return the unique id.
+     */
+    public String getUniqueId(String id) {
+        int[] count = usedIds.get(id);
+        if (count == null) {
+            usedIds.put(id, new int[1]);
+            return id;
+        }
+        return id + "_" + ++count[0];
+    }
+
+    /**
+     * Marks the given id as used.
+     *
+     * @param id the id.
+     * @return <code>true</code> if the id was not used before, <code>false</code> otherwise.
+     */
+    public boolean markUsed(String id) {
+        if (!usedIds.containsKey(id)) {
+            usedIds.put(id, new int[1]);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @param id the id.
+     * @return <code>true</code> if the id has been used.
+     */
+    public boolean isUsed(String id) {
+        return usedIds.containsKey(id);
+    }
+}
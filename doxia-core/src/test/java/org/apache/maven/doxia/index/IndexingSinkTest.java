@@ -24,6 +24,8 @@ import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 class IndexingSinkTest {
 
@@ -80,6 +82,62 @@ class IndexingSinkTest {
                 "Title_3", "Title 3", 0, entry.getFirstEntry().getFirstEntry().getFirstEntry());
     }
 
+    @Test
+    void titleAndIdAssignedOnCompletion() {
+        IndexingSink sink = new IndexingSink(new SinkEventTestingSink());
+        sink.section1();
+        sink.sectionTitle1();
+        sink.text("Split\r\n");
+        sink.text("title");
+        sink.sectionTitle1_();
+        sink.section1_();
+        sink.section1();
+        sink.sectionTitle1();
+        sink.anchor("anchor");
+        sink.text("Anchored");
+        sink.anchor_();
+        sink.sectionTitle1_();
+        sink.section1_();
+        sink.section1();
+        sink.sectionTitle1();
+        sink.text("Splittitle");
+        sink.sectionTitle1_();
+        sink.section1_();
+        sink.close();
+
+        IndexEntry first = sink.getRootEntry().getFirstEntry();
+        assertIndexEntry("Splittitle", "Splittitle", 0, first);
+        IndexEntry second = first.getNextEntry();
+        assertIndexEntry("Anchored", "Anchored", 0, second);
+        IndexEntry third = second.getNextEntry();
+        assertIndexEntry("Splittitle_1", "Splittitle", 0, third);
+        assertNull(third.getNextEntry());
+        assertSame(second, third.getPrevEntry());
+        assertSame(first, second.getPrevEntry());
+        assertNull(first.getPrevEntry());
+    }
+
+    @Test
+    void siblingNavigationWithManySections() {
+        IndexingSink sink = new IndexingSink(new SinkEventTestingSink());
+        int count = 20000;
+        for (int i = 0; i < count; i++) {
+            sink.section2();
+            sink.sectionTitle2();
+            sink.text("Section " + i);
+            sink.sectionTitle2_();
+            sink.section2_();
+        }
+        sink.close();
+
+        int i = 0;
+        for (IndexEntry entry = sink.getRootEntry().getFirstEntry(); entry != null; entry = entry.getNextEntry()) {
+            assertEquals("Section_" + i, entry.getId());
+            i++;
+        }
+        assertEquals(count, i);
+    }
+
     private void assertIndexEntry(String id, String title, int numChildren, IndexEntry entry) {
         assertNotNull(entry);
         assertEquals(id, entry.getId());
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.doxia.macro;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.maven.doxia.macro.manager.MacroNotFoundException;
+import org.apache.maven.doxia.parser.AbstractParserTest;
+import org.apache.maven.doxia.parser.Xhtml5BaseParser;
+import org.apache.maven.doxia.sink.Sink;
+import org.apache.maven.doxia.sink.impl.SinkEventTestingSink;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AsyncMacroExecutorTest {
+
+    /** Waits for a latch before emitting its text parameter. */
+    private static class WaitingMacro extends AbstractMacro implements IndependentMacro {
+        private final CountDownLatch latch = new CountDownLatch(1);
+
+        @Override
+        public void execute(Sink sink, MacroRequest request) throws MacroExecutionException {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MacroExecutionException("interrupted", e);
+            }
+            if (request.getParameter("text") == null) {
+                throw new MacroExecutionException("missing text");
+            }
+            sink.text((String) request.getParameter("text"));
+        }
+    }
+
+    private final WaitingMacro macro = new WaitingMacro();
+
+    private final ExecutorService executorService = Executors.newFixedThreadPool(2);
+
+    private final AsyncMacroExecutor executor = new AsyncMacroExecutor(
+            id -> {
+                if ("waiting".equals(id)) {
+                    return macro;
+                } else if ("echo".equals(id)) {
+                    return new EchoMacro();
+                }
+                throw new MacroNotFoundException(id);
+            },
+            executorService);
+
+    @AfterEach
+    void shutdown() {
+        executorService.shutdownNow();
+    }
+
+    private static MacroRequest request(String text) {
+        Map<String, Object> parameters = new HashMap<>();
+        if (text != null) {
+            parameters.put("text", text);
+        }
+        return new MacroRequest(null, new Xhtml5BaseParser(), parameters, new File("."));
+    }
+
+    @Test
+    void splicesOutputInOrder() throws Exception {
+        SinkEventTestingSink result = new SinkEventTestingSink();
+        Sink sink = new AsyncMacroSinkFactory().createWrapper(result);
+
+        sink.paragraph();
+        executor.executeMacro("waiting", request("macro 1"), sink);
+        sink.lineBreak();
+        executor.executeMacro("waiting", request("macro 2"), sink);
+        executor.executeMacro("echo", request(null), sink);
+        sink.paragraph_();
+
+        AbstractParserTest.assertSinkEquals(result.getEventList().iterator(), "paragraph");
+
+        macro.latch.countDown();
+        sink.flush();
+
+        AbstractParserTest.assertSinkEquals(
+                result.getEventList().iterator(),
+                "paragraph",
+                "text",
+                "lineBreak",
+                "text",
+                "verbatim",
+                "text",
+                "verbatim_",
+                "paragraph_",
+                "flush");
+        assertEquals("macro 1", result.getEventList().get(1).getArgs()[0]);
+        assertEquals("macro 2", result.getEventList().get(3).getArgs()[0]);
+    }
+
+    @Test
+    void synchronousWithoutAsyncSink() throws Exception {
+        SinkEventTestingSink sink = new SinkEventTestingSink();
+        macro.latch.countDown();
+        executor.executeMacro("waiting", request("macro"), sink);
+
+        AbstractParserTest.assertSinkEquals(sink.getEventList().iterator(), "text");
+    }
+
+    @Test
+    void failure() throws Exception {
+        Sink sink = new AsyncMacroSinkFactory().createWrapper(new SinkEventTestingSink());
+        macro.latch.countDown();
+        executor.executeMacro("waiting", request(null), sink);
+
+        AsyncMacroExecutionException e = assertThrows(AsyncMacroExecutionException.class, sink::body_);
+        assertEquals("missing text", e.getCause().getMessage());
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.doxia.macro;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.maven.doxia.macro.manager.MacroNotFoundException;
+import org.apache.maven.doxia.parser.AbstractParserTest;
+import org.apache.maven.doxia.parser.Xhtml5BaseParser;
+import org.apache.maven.doxia.sink.Sink;
+import org.apache.maven.doxia.sink.impl.SinkEventTestingSink;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CachingMacroExecutorTest {
+
+    /** Counts its executions, cacheable as long as the fingerprint is not null. */
+    private static class CountingMacro extends AbstractMacro implements CacheableMacro {
+        private int executions;
+
+        private Object fingerprint = "v1";
+
+        @Override
+        public void execute(Sink sink, MacroRequest request) {
+            executions++;
+            sink.paragraph();
+            sink.text((String) request.getParameter("text"));
+            sink.paragraph_();
+        }
+
+        @Override
+        public Object getDependencyFingerprint(MacroRequest request) {
+            return fingerprint;
+        }
+    }
+
+    private final CountingMacro macro = new CountingMacro();
+
+    private final CachingMacroExecutor executor = new CachingMacroExecutor(id -> {
+        if (!"counting".equals(id)) {
+            throw new MacroNotFoundException(id);
+        }
+        return macro;
+    });
+
+    private SinkEventTestingSink execute(String text, String sourceContent) throws Exception {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("text", text);
+        MacroRequest request = new MacroRequest(sourceContent, new Xhtml5BaseParser(), parameters, new File("."));
+
+        SinkEventTestingSink sink = new SinkEventTestingSink();
+        executor.executeMacro("counting", request, sink);
+        AbstractParserTest.assertSinkEquals(sink.getEventList().iterator(), "paragraph", "text", "paragraph_");
+        assertEquals(text, sink.getEventList().get(1).getArgs()[0]);
+        return sink;
+    }
+
+    @Test
+    void replaysEqualRequests() throws Exception {
+        execute("first", "source 1");
+        execute("first", "source 2");
+        assertEquals(1, macro.executions, "internal parameters are ignored");
+
+        execute("second", "source 1");
+        assertEquals(2, macro.executions);
+
+        macro.fingerprint = "v2";
+        execute("first", "source 1");
+        assertEquals(3, macro.executions, "changed dependencies");
+
+        macro.fingerprint = null;
+        execute("first", "source 1");
+        execute("first", "source 1");
+        assertEquals(5, macro.executions, "not cacheable");
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.doxia.macro;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.doxia.parser.Xhtml5BaseParser;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class MacroRequestTest {
+
+    @Test
+    void lazySourceContentAndParser() {
+        AtomicInteger createdParsers = new AtomicInteger();
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("name", "value");
+
+        MacroRequest request = new MacroRequest(
+                () -> "source",
+                () -> {
+                    createdParsers.incrementAndGet();
+                    return new Xhtml5BaseParser();
+                },
+                parameters,
+                new File("."));
+
+        assertEquals("value", request.getParameter("name"));
+        assertEquals(1, request.getParameters().size(), "internal parameters are not in the map");
+        assertEquals(0, createdParsers.get());
+
+        assertEquals("source", request.getSourceContent());
+        Object parser = request.getParser();
+        assertSame(parser, request.getParameter("parser"));
+        assertEquals(1, createdParsers.get());
+    }
+
+    @Test
+    void eagerSourceContentAndParser() {
+        Map<String, Object> parameters = new HashMap<>();
+        Xhtml5BaseParser parser = new Xhtml5BaseParser();
+
+        MacroRequest request = new MacroRequest("source", parser, parameters, new File("."));
+
+        assertEquals("source", request.getSourceContent());
+        assertSame(parser, request.getParser());
+        assertEquals(2, parameters.size());
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.doxia.macro.snippet;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SnippetCacheTest {
+
+    @Test
+    void evictsLeastRecentlyUsed() throws IOException {
+        URL url = new URL("http://localhost/snippet.txt");
+        SnippetCache cache = new SnippetCache(10);
+        cache.put("a", "aaaa", null);
+        cache.put("b", "bbbb", null);
+        assertEquals("aaaa", cache.get("a", url, Long.MAX_VALUE));
+
+        cache.put("c", "cccc", null);
+        assertNull(cache.get("b", url, Long.MAX_VALUE));
+        assertEquals("aaaa", cache.get("a", url, Long.MAX_VALUE));
+        assertEquals("cccc", cache.get("c", url, Long.MAX_VALUE));
+        assertEquals(8, cache.getWeight());
+
+        cache.put("d", "too long to be cached", null);
+        assertNull(cache.get("d", url, Long.MAX_VALUE));
+        assertEquals(8, cache.getWeight());
+    }
+
+    @Test
+    void timeout() throws IOException {
+        URL url = new URL("http://localhost/snippet.txt");
+        SnippetCache cache = new SnippetCache(100);
+        cache.put("a", "aaaa", SnippetCache.FileStamp.of(url));
+        assertEquals("aaaa", cache.get("a", url, Long.MAX_VALUE));
+        assertNull(cache.get("a", url, -1));
+        assertEquals(0, cache.getWeight());
+    }
+
+    @Test
+    void fileModification(@TempDir File dir) throws IOException {
+        File file = new File(dir, "snippet.txt");
+        Files.write(file.toPath(), "first".getBytes(StandardCharsets.UTF_8));
+        URL url = file.toURI().toURL();
+
+        SnippetCache cache = new SnippetCache(100);
+        cache.put("a", "first", SnippetCache.FileStamp.of(url));
+        assertEquals("first", cache.get("a", url, -1), "file snippets don't time out");
+
+        Files.write(file.toPath(), "modified".getBytes(StandardCharsets.UTF_8));
+        assertNull(cache.get("a", url, Long.MAX_VALUE));
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.doxia.macro.snippet;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.maven.doxia.macro.MacroExecutionException;
+import org.apache.maven.doxia.macro.MacroRequest;
+import org.apache.maven.doxia.parser.Xhtml5BaseParser;
+import org.apache.maven.doxia.sink.impl.SinkEventTestingSink;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnippetFetcherTest {
+    private static final String ETAG = "\"v1\"";
+
+    private HttpServer server;
+
+    private URL url;
+
+    /** The status codes returned by the server. */
+    private final List<Integer> responses = new ArrayList<>();
+
+    @TempDir
+    private File cacheDirectory;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/snippet.txt", exchange -> {
+            int status;
+            byte[] body = new byte[0];
+            if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                status = 304;
+            } else {
+                status = 200;
+                body = ("// START SNIPPET: a\nremote\n// END SNIPPET: a\n"
+                                + "// START SNIPPET: b\nother\n// END SNIPPET: b\n")
+                        .getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("ETag", ETAG);
+            }
+            responses.add(status);
+            exchange.sendResponseHeaders(status, status == 304 ? -1 : body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        url = new URL("http://localhost:" + server.getAddress().getPort() + "/snippet.txt");
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void conditionalRequests() throws IOException {
+        SnippetFetcher fetcher = new SnippetFetcher(cacheDirectory, false, 1000, 1000);
+        String first = new String(fetcher.fetch(url), StandardCharsets.UTF_8);
+        String second = new String(fetcher.fetch(url), StandardCharsets.UTF_8);
+
+        assertEquals(first, second);
+        assertEquals("[200, 304]", responses.toString());
+        assertEquals(
+                "remote" + System.lineSeparator(),
+                SnippetIndex.forContent(url, second.getBytes(StandardCharsets.UTF_8), "UTF-8")
+                        .readSnippet("a")
+                        .toString());
+    }
+
+    @Test
+    void withoutCacheDirectory() throws IOException {
+        SnippetFetcher fetcher = new SnippetFetcher(null, false, 1000, 1000);
+        fetcher.fetch(url);
+        fetcher.fetch(url);
+
+        assertEquals("[200, 200]", responses.toString());
+    }
+
+    @Test
+    void unusableCacheDirectory() throws IOException {
+        File notADirectory = new File(cacheDirectory, "file");
+        assertTrue(notADirectory.createNewFile());
+
+        SnippetFetcher fetcher = new SnippetFetcher(notADirectory, false, 1000, 1000);
+        fetcher.fetch(url);
+        fetcher.fetch(url);
+
+        assertEquals("[200, 200]", responses.toString());
+    }
+
+    @Test
+    void offline() throws IOException {
+        SnippetFetcher offlineFetcher = new SnippetFetcher(cacheDirectory, true, 1000, 1000);
+        assertThrows(IOException.class, () -> offlineFetcher.fetch(url));
+
+        byte[] fetched = new SnippetFetcher(cacheDirectory, false, 1000, 1000).fetch(url);
+        server.stop(0);
+
+        assertEquals(
+                new String(fetched, StandardCharsets.UTF_8),
+                new String(offlineFetcher.fetch(url), StandardCharsets.UTF_8));
+        assertEquals("[200]", responses.toString());
+    }
+
+    @Test
+    void allSnippetsFromOneFetch() throws MacroExecutionException {
+        SnippetMacro macro = new SnippetMacro();
+        macro.setCacheDirectory(null);
+
+        assertEquals("remote" + System.lineSeparator(), executeSnippetMacro(macro, "a"));
+        assertEquals("other" + System.lineSeparator(), executeSnippetMacro(macro, "b"));
+        assertEquals("[200]", responses.toString());
+    }
+
+    private String executeSnippetMacro(SnippetMacro macro, String id) throws MacroExecutionException {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("url", url.toString());
+        parameters.put("id", id);
+        parameters.put("verbatim", "false");
+        SinkEventTestingSink sink = new SinkEventTestingSink();
+        macro.execute(sink, new MacroRequest(null, new Xhtml5BaseParser(), parameters, new File(".")));
+        return (String) sink.getEventList().get(0).getArgs()[0];
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.doxia.macro.snippet;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SnippetIndexTest {
+
+    @Test
+    void sameSnippetsAsReader() throws IOException {
+        URL url = new File("src/test/resources/macro/snippet/testSnippet.txt")
+                .toURI()
+                .toURL();
+        SnippetIndex index = SnippetIndex.forFile(url, "UTF-8", SnippetCache.FileStamp.of(url));
+
+        for (String id : Arrays.asList(null, "firstId", "secondId", "thirdId")) {
+            assertEquals(
+                    new SnippetReader(url, "UTF-8").readSnippet(id).toString(),
+                    index.readSnippet(id).toString(),
+                    "snippet " + id);
+        }
+
+        IOException e = assertThrows(IOException.class, () -> index.readSnippet("first"));
+        assertEquals("Failed to find START of snippet first in file at URL: " + url, e.getMessage());
+    }
+
+    @Test
+    void reindexedOnModification(@TempDir File dir) throws IOException {
+        File file = new File(dir, "snippet.txt");
+        Files.write(file.toPath(), Arrays.asList("// START SNIPPET: a", "  first", "// END SNIPPET: a"));
+        URL url = file.toURI().toURL();
+
+        SnippetIndex index = SnippetIndex.forFile(url, null, SnippetCache.FileStamp.of(url));
+        assertEquals("first" + System.lineSeparator(), index.readSnippet("a").toString());
+        assertSame(index, SnippetIndex.forFile(url, null, SnippetCache.FileStamp.of(url)));
+
+        Files.write(
+                file.toPath(), "// START SNIPPET: a\n  modified\n// END SNIPPET: a\n".getBytes(StandardCharsets.UTF_8));
+        SnippetIndex modified = SnippetIndex.forFile(url, null, SnippetCache.FileStamp.of(url));
+        assertNotSame(index, modified);
+        assertEquals(
+                "modified" + System.lineSeparator(), modified.readSnippet("a").toString());
+
+        IOException e = assertThrows(IOException.class, () -> modified.readSnippet("b"));
+        assertEquals("Failed to find START of snippet b in file at URL: " + url, e.getMessage());
+    }
+}
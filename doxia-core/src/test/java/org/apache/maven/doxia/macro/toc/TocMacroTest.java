@@ -33,6 +33,7 @@ import org.apache.maven.doxia.parser.AbstractParserTest;
 import org.apache.maven.doxia.parser.Xhtml5BaseParser;
 import org.apache.maven.doxia.sink.Sink;
 import org.apache.maven.doxia.sink.impl.CreateAnchorsForIndexEntriesFactory;
+import org.apache.maven.doxia.sink.impl.EventBufferSink;
 import org.apache.maven.doxia.sink.impl.SinkEventAttributeSet;
 import org.apache.maven.doxia.sink.impl.SinkEventElement;
 import org.apache.maven.doxia.sink.impl.SinkEventTestingSink;
@@ -201,6 +202,69 @@ class TocMacroTest {
                 out.toString());
     }
 
+    @Test
+    void deferredToc() throws Exception {
+        // the source must not be parsed a second time
+        MacroRequest request =
+                new MacroRequest("<h1>not parsed</h1>", new Xhtml5BaseParser(), new HashMap<>(), new File(""));
+        SinkEventTestingSink sink = new SinkEventTestingSink();
+        Sink tocSink = new DeferredTocSinkFactory().createWrapper(sink);
+
+        tocSink.body();
+        tocSink.section1();
+        tocSink.sectionTitle1();
+        tocSink.text("h1");
+        tocSink.sectionTitle1_();
+        new TocMacro().execute(tocSink, request);
+        tocSink.section2();
+        tocSink.sectionTitle2();
+        tocSink.text("h2");
+        tocSink.sectionTitle2_();
+        tocSink.section2_();
+        tocSink.section1_();
+        tocSink.body_();
+
+        Iterator<SinkEventElement> it = sink.getEventList().iterator();
+        AbstractParserTest.assertSinkStartsWith(it, "body", "section1", "sectionTitle1", "text", "sectionTitle1_");
+        AbstractParserTest.assertSinkStartsWith(it, "list");
+        assertListItem(it, "#h1", "h1");
+        AbstractParserTest.assertSinkStartsWith(it, "list");
+        assertListItem(it, "#h2", "h2");
+        AbstractParserTest.assertSinkStartsWith(it, "listItem_", "list_", "listItem_", "list_");
+        AbstractParserTest.assertSinkEquals(
+                it, "section2", "sectionTitle2", "text", "sectionTitle2_", "section2_", "section1_", "body_");
+    }
+
+    @Test
+    void deferredTocWithEntryOpenAtClose() throws Exception {
+        MacroRequest request = new MacroRequest("", new Xhtml5BaseParser(), new HashMap<>(), new File(""));
+        SinkEventTestingSink sink = new SinkEventTestingSink();
+        Sink tocSink = new DeferredTocSinkFactory().createWrapper(sink);
+
+        new TocMacro().execute(tocSink, request);
+        tocSink.section1();
+        tocSink.sectionTitle1();
+        tocSink.text("h1");
+        tocSink.close();
+
+        Iterator<SinkEventElement> it = sink.getEventList().iterator();
+        AbstractParserTest.assertSinkStartsWith(it, "list");
+        assertListItem(it, "#h1", "h1");
+        AbstractParserTest.assertSinkEquals(it, "listItem_", "list_", "section1", "sectionTitle1", "text", "close");
+    }
+
+    @Test
+    void deferredTocSinkFlushesIntoEventBufferSink() {
+        SinkEventTestingSink sink = new SinkEventTestingSink();
+        EventBufferSink bufferSink = new EventBufferSink(sink);
+        Sink tocSink = new DeferredTocSinkFactory().createWrapper(bufferSink);
+
+        tocSink.paragraph();
+        tocSink.flush();
+
+        AbstractParserTest.assertSinkStartsWith(sink.getEventList().iterator(), "paragraph");
+    }
+
     @Test
     void writeTocWithEmptyAndNotApplicableIndexEntries() {
         TocMacro macro = new TocMacro();
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.doxia.sink.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.maven.doxia.sink.Sink;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ArchiveSinkFactoryTest {
+    private final File baseDir = new File("target/archive-site");
+
+    private ByteArrayOutputStream archive;
+
+    private ArchiveSinkFactory factory;
+
+    @BeforeEach
+    void setUp() {
+        archive = new ByteArrayOutputStream();
+        factory = new ArchiveSinkFactory(
+                new AbstractTextSinkFactory() {
+                    @Override
+                    protected Sink createSink(Writer writer, String encoding) {
+                        return new Xhtml5BaseSink(writer);
+                    }
+                },
+                baseDir,
+                archive);
+    }
+
+    @Test
+    void concurrentEntries() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                int page = i;
+                futures.add(executor.submit(() -> {
+                    render(new File(baseDir, "dir" + (page % 3)), "page" + page + ".html", "page " + page);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        factory.close();
+
+        Map<String, String> entries = readEntries();
+        assertEquals(50, entries.size());
+        for (int i = 0; i < 50; i++) {
+            assertEquals("<p>page " + i + "</p>", entries.get("dir" + (i % 3) + "/page" + i + ".html"));
+        }
+        assertFalse(baseDir.exists(), "nothing should be written to disk");
+    }
+
+    @Test
+    void outsideOfBaseDir() {
+        assertThrows(IllegalArgumentException.class, () -> factory.createSink(new File(baseDir, ".."), "index.html"));
+    }
+
+    private void render(File outputDir, String outputName, String text) throws IOException {
+        try (Sink sink = factory.createSink(outputDir, outputName)) {
+            sink.paragraph();
+            sink.text(text);
+            sink.paragraph_();
+        }
+    }
+
+    private Map<String, String> readEntries() throws IOException {
+        Map<String, String> entries = new HashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(archive.toByteArray()))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                entries.put(entry.getName(), IOUtils.toString(zip, StandardCharsets.UTF_8));
+            }
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.doxia.sink.impl;
+
+import javax.swing.text.MutableAttributeSet;
+
+import java.util.Enumeration;
+
+import org.apache.maven.doxia.sink.SinkEventAttributes;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AttributeFilterTest {
+    @Test
+    void applyKeepsAcceptedAttributes() {
+        assertNull(AttributeFilter.SINK_BASE_ATTRIBUTES.apply(null));
+
+        SinkEventAttributes attributes = new SinkEventAttributeSet(SinkEventAttributes.ID, "a", "class", "b");
+        assertSame(attributes, AttributeFilter.SINK_BASE_ATTRIBUTES.apply(attributes));
+        assertSame(SinkEventAttributeSet.BOLD, AttributeFilter.SINK_BASE_ATTRIBUTES.apply(SinkEventAttributeSet.BOLD));
+    }
+
+    @Test
+    void applyFiltersAttributes() {
+        SinkEventAttributes attributes = new SinkEventAttributeSet(
+                SinkEventAttributes.ID, "a", SinkEventAttributes.HREF, "b", SinkEventAttributes.CLASS, "c");
+
+        MutableAttributeSet filtered = AttributeFilter.SINK_BASE_ATTRIBUTES.apply(attributes);
+        assertEquals(2, filtered.getAttributeCount());
+        assertEquals(" id=\"a\" class=\"c\"", SinkUtils.getAttributeString(filtered));
+        assertTrue(filtered.isDefined(SinkEventAttributes.ID));
+        assertFalse(filtered.isDefined(SinkEventAttributes.HREF));
+        assertNull(filtered.getAttribute(SinkEventAttributes.HREF));
+        assertThrows(UnsupportedOperationException.class, () -> filtered.addAttribute("x", "y"));
+
+        // the filtered attributes are the same as those filtered by SinkUtils
+        assertTrue(filtered.isEqual(SinkUtils.filterAttributes(attributes, SinkUtils.SINK_BASE_ATTRIBUTES)));
+
+        SinkEventAttributes copy = (SinkEventAttributes) filtered.copyAttributes();
+        copy.addAttribute("x", "y");
+        assertEquals(3, copy.getAttributeCount());
+
+        Enumeration<?> names = AttributeFilter.SINK_HR_ATTRIBUTES
+                .apply(SinkEventAttributeSet.CENTER)
+                .getAttributeNames();
+        assertFalse(names.hasMoreElements());
+    }
+
+    @Test
+    void accepts() {
+        AttributeFilter filter = new AttributeFilter("data-x", SinkEventAttributes.SRC);
+        assertTrue(filter.accepts("data-x"));
+        assertTrue(filter.accepts(SinkEventAttributes.SRC));
+        assertFalse(filter.accepts(SinkEventAttributes.ID));
+        assertFalse(filter.accepts("unknown"));
+        assertFalse(filter.accepts(null));
+
+        // names equal to a well-known name but not interned are looked up by value
+        assertTrue(filter.accepts(new String(SinkEventAttributes.SRC)));
+        assertFalse(filter.accepts(new String(SinkEventAttributes.ID)));
+        assertTrue(new AttributeFilter(new String(SinkEventAttributes.ID)).accepts(SinkEventAttributes.ID));
+    }
+}
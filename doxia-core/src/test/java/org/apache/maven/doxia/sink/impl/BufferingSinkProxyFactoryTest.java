@@ -26,6 +26,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+// tests the deprecated factory itself, which is kept for compatibility
+@SuppressWarnings("deprecation")
 class BufferingSinkProxyFactoryTest {
 
     @Test
@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.doxia.sink.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.doxia.sink.Sink;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ByteChannelWriterTest {
+
+    @Test
+    void writeSmallDocument() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (Writer writer = new ByteChannelWriter(Channels.newChannel(out), StandardCharsets.UTF_8)) {
+            writer.write("<p>");
+            writer.write('x');
+            writer.write("</p>".toCharArray());
+            assertEquals(0, out.size(), "nothing should be written before close");
+        }
+        assertEquals("<p>x</p>", new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void writeAcrossBufferBoundaries() throws IOException {
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            // mixes one, two, three and four byte sequences, including surrogate pairs
+            expected.append("aé€😀");
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (Writer writer = new ByteChannelWriter(Channels.newChannel(out), StandardCharsets.UTF_8, 17)) {
+            for (int i = 0; i < expected.length(); i += 7) {
+                writer.write(expected.toString(), i, Math.min(7, expected.length() - i));
+            }
+        }
+        assertEquals(expected.toString(), new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void writeNonAsciiDocumentAtOnce() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        WritableByteChannel outChannel = Channels.newChannel(out);
+        AtomicInteger writes = new AtomicInteger();
+        WritableByteChannel channel = new WritableByteChannel() {
+            @Override
+            public int write(ByteBuffer src) throws IOException {
+                writes.incrementAndGet();
+                return outChannel.write(src);
+            }
+
+            @Override
+            public boolean isOpen() {
+                return outChannel.isOpen();
+            }
+
+            @Override
+            public void close() throws IOException {
+                outChannel.close();
+            }
+        };
+
+        // 16 chars encoded into 48 bytes
+        String document = "€€€€€€€€€€€€€€€€";
+        try (Writer writer = new ByteChannelWriter(channel, StandardCharsets.UTF_8, document.length())) {
+            writer.write(document.substring(0, 15));
+            writer.write(document.substring(15));
+        }
+        assertEquals(document, new String(out.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals(1, writes.get());
+    }
+
+    @Test
+    void flush() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (Writer writer = new ByteChannelWriter(Channels.newChannel(out), StandardCharsets.ISO_8859_1)) {
+            writer.write("café");
+            writer.flush();
+            assertEquals(4, out.size());
+        }
+        assertEquals(4, out.size());
+    }
+
+    @Test
+    void reuseAfterClose() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (Writer writer = new ByteChannelWriter(Channels.newChannel(out), StandardCharsets.UTF_8)) {
+                writer.write("document " + i);
+            }
+            assertEquals("document " + i, new String(out.toByteArray(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void unmappableCharacter() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Writer writer = new ByteChannelWriter(Channels.newChannel(out), StandardCharsets.US_ASCII);
+        writer.write("€");
+        assertThrows(CharacterCodingException.class, writer::close);
+        assertThrows(IOException.class, () -> writer.write("closed"));
+    }
+
+    @Test
+    void createSinkIntoFile(@TempDir File outputDir) throws IOException {
+        AbstractTextSinkFactory factory = new AbstractTextSinkFactory() {
+            @Override
+            protected Sink createSink(Writer writer, String encoding) {
+                return new Xhtml5BaseSink(writer);
+            }
+        };
+        factory.setOutputBufferSize(32);
+
+        try (Sink sink = factory.createSink(outputDir, "index.html")) {
+            sink.paragraph();
+            sink.text("A text which is longer than the buffer");
+            sink.paragraph_();
+        }
+
+        assertEquals(
+                "<p>A text which is longer than the buffer</p>",
+                new String(Files.readAllBytes(new File(outputDir, "index.html").toPath()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void unsupportedEncodingLeavesFileUntouched(@TempDir File outputDir) throws IOException {
+        AbstractTextSinkFactory factory = new AbstractTextSinkFactory() {
+            @Override
+            protected Sink createSink(Writer writer, String encoding) {
+                return new Xhtml5BaseSink(writer);
+            }
+        };
+        File page = new File(outputDir, "index.html");
+        Files.write(page.toPath(), "previous".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(UnsupportedCharsetException.class, () -> factory.createSink(outputDir, "index.html", "x-none"));
+
+        assertEquals("previous", new String(Files.readAllBytes(page.toPath()), StandardCharsets.UTF_8));
+    }
+}
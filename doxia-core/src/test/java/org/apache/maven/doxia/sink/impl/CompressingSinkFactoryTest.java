@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.doxia.sink.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.maven.doxia.sink.Sink;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class CompressingSinkFactoryTest {
+    private static final FileTime OLD = FileTime.fromMillis(1000000000000L);
+
+    @TempDir
+    File outputDir;
+
+    private AbstractTextSinkFactory textSinkFactory;
+
+    private CompressingSinkFactory factory;
+
+    @BeforeEach
+    void setUp() {
+        textSinkFactory = new AbstractTextSinkFactory() {
+            @Override
+            protected Sink createSink(Writer writer, String encoding) {
+                return new Xhtml5BaseSink(writer);
+            }
+        };
+        factory = new CompressingSinkFactory(textSinkFactory);
+    }
+
+    @Test
+    void gzipSidecar() throws IOException {
+        render();
+
+        assertEquals("<p>compressed text</p>", read("page.html"));
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(new File(outputDir, "page.html.gz").toPath()))) {
+            assertEquals("<p>compressed text</p>", IOUtils.toString(in, StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void additionalCompressor() throws IOException {
+        // stand-in for a Brotli codec
+        factory.addCompressor(".br", out -> out);
+        factory.addCompressor(CompressingSinkFactory.GZIP_EXTENSION, null);
+
+        render();
+
+        assertEquals("<p>compressed text</p>", read("page.html"));
+        assertEquals("<p>compressed text</p>", read("page.html.br"));
+        assertFalse(new File(outputDir, "page.html.gz").exists());
+    }
+
+    @Test
+    void largeDocument() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            text.append("line ").append(i).append('\n');
+        }
+
+        try (Sink sink = factory.createSink(outputDir, "page.html")) {
+            sink.text(text.toString());
+        }
+
+        assertEquals(text.toString(), read("page.html"));
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(new File(outputDir, "page.html.gz").toPath()))) {
+            assertEquals(text.toString(), IOUtils.toString(in, StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void writeIfChanged() throws IOException {
+        textSinkFactory.setWriteIfChanged(true);
+        render();
+        Path page = new File(outputDir, "page.html").toPath();
+        Path gzip = new File(outputDir, "page.html.gz").toPath();
+        Files.setLastModifiedTime(page, OLD);
+        Files.setLastModifiedTime(gzip, OLD);
+
+        render();
+
+        assertEquals(OLD, Files.getLastModifiedTime(page));
+        assertEquals(OLD, Files.getLastModifiedTime(gzip));
+        assertEquals("<p>compressed text</p>", read("page.html"));
+
+        try (Sink sink = factory.createSink(outputDir, "page.html")) {
+            sink.text("changed");
+        }
+
+        assertNotEquals(OLD, Files.getLastModifiedTime(page));
+        assertNotEquals(OLD, Files.getLastModifiedTime(gzip));
+        assertEquals("changed", read("page.html"));
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(gzip))) {
+            assertEquals("changed", IOUtils.toString(in, StandardCharsets.UTF_8));
+        }
+        try (Stream<Path> files = Files.list(outputDir.toPath())) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    private void render() throws IOException {
+        try (Sink sink = factory.createSink(outputDir, "page.html")) {
+            sink.paragraph();
+            sink.text("compressed text");
+            sink.paragraph_();
+        }
+    }
+
+    private String read(String name) throws IOException {
+        return new String(Files.readAllBytes(new File(outputDir, name).toPath()), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.doxia.sink.impl;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+
+import org.apache.maven.doxia.sink.Sink;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DeferredRegionSinkTest {
+
+    private void buildSimple(Sink sink, String text) {
+        sink.anchor("foobar");
+        sink.text(text);
+        sink.anchor_();
+    }
+
+    @Test
+    void regionsFilledInReverseOrder() {
+        String summaryText = "Summary text";
+        String detailText = "Detail text";
+        StringWriter outFlatSink = new StringWriter();
+        try (Sink flatSink = new TextSink(outFlatSink)) {
+            buildSimple(flatSink, summaryText);
+            flatSink.horizontalRule();
+            buildSimple(flatSink, detailText);
+        }
+
+        StringWriter out = new StringWriter();
+        try (DeferredRegionSink sink = new DeferredRegionSink(out, TextSink::new)) {
+            Sink summarySink = sink.addRegion("summary");
+            sink.horizontalRule();
+            Sink detailSink = sink.addRegion("detail");
+
+            buildSimple(detailSink, detailText);
+            buildSimple(summarySink, summaryText);
+            assertEquals("", out.toString(), "nothing is written before closing");
+        }
+
+        assertEquals(outFlatSink.toString(), out.toString());
+    }
+
+    @Test
+    void writerWithRegion() throws IOException {
+        StringWriter out = new StringWriter();
+        try (DeferredRegionWriter writer = new DeferredRegionWriter(out)) {
+            writer.write("<html>");
+            Writer head = writer.addRegion("head");
+            for (int i = 0; i < 1000; i++) {
+                writer.write("<p>" + i + "</p>");
+            }
+            head.write("<title>1000 paragraphs</title>");
+            writer.write("</html>");
+
+            assertThrows(IllegalArgumentException.class, () -> writer.addRegion("head"));
+        }
+
+        StringBuilder expected = new StringBuilder("<html><title>1000 paragraphs</title>");
+        for (int i = 0; i < 1000; i++) {
+            expected.append("<p>").append(i).append("</p>");
+        }
+        assertEquals(expected.append("</html>").toString(), out.toString());
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.doxia.sink.impl;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.maven.doxia.parser.AbstractParserTest;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventBufferSinkTest {
+
+    @Test
+    void bufferingSink() {
+        SinkEventTestingSink testingSink = new SinkEventTestingSink();
+        EventBufferSink bufferingSink = new EventBufferSink(testingSink);
+        assertNotNull(bufferingSink.getDocumentLocator());
+        assertEquals(testingSink, bufferingSink.getBufferedSink());
+
+        bufferingSink.text("buffered text");
+        bufferingSink.section(2, SinkEventAttributeSet.BOLD);
+        bufferingSink.comment("comment", true);
+        assertEquals(0, testingSink.getEventList().size());
+        assertEquals(3, bufferingSink.size());
+
+        bufferingSink.flush();
+        assertTrue(bufferingSink.isEmpty());
+        AbstractParserTest.assertSinkEquals(testingSink.getEventList().iterator(), "text", "section2", "comment");
+        assertEquals(
+                new SinkEventElement("section2", new Object[] {SinkEventAttributeSet.BOLD}, -1),
+                testingSink.getEventList().get(1));
+    }
+
+    @Test
+    void replayDocument() {
+        SinkEventTestingSink expectedSink = new SinkEventTestingSink();
+        SinkTestDocument.generate(expectedSink);
+        List<SinkEventElement> expected = expectedSink.getEventList().stream()
+                .filter(e -> !"flush".equals(e.getName()))
+                .collect(Collectors.toList());
+
+        SinkEventTestingSink testingSink = new SinkEventTestingSink();
+        EventBufferSink bufferingSink = new EventBufferSink(testingSink);
+        // generate() flushes at the end
+        SinkTestDocument.generate(bufferingSink);
+        assertEquals(expected, testingSink.getEventList());
+
+        // reuse the buffer for another sink
+        SinkEventTestingSink otherSink = new SinkEventTestingSink();
+        bufferingSink.setBufferedSink(otherSink);
+        SinkTestDocument.generate(bufferingSink);
+        assertEquals(expected, otherSink.getEventList());
+    }
+
+    @Test
+    void clear() {
+        SinkEventTestingSink testingSink = new SinkEventTestingSink();
+        EventBufferSink bufferingSink = new EventBufferSink(testingSink);
+        bufferingSink.text("discarded");
+        bufferingSink.clear();
+        bufferingSink.text("kept");
+        bufferingSink.flush();
+
+        assertEquals(1, testingSink.getEventList().size());
+        AbstractParserTest.assertSinkEquals(testingSink.getEventList().get(0), "text", "kept", null);
+    }
+}
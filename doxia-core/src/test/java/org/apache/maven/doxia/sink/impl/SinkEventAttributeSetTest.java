@@ -31,6 +31,8 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -279,4 +281,59 @@ class SinkEventAttributeSetTest {
         expected = " decoration=source align=center";
         assertEquals(expected, sinkEventAttributeSet.toString());
     }
+
+    /**
+     * Test that copies share nothing observable with the original set.
+     */
+    @Test
+    void copyOnWrite() {
+        sinkEventAttributeSet.addAttribute("a", "1");
+        sinkEventAttributeSet.addAttribute("b", "2");
+
+        SinkEventAttributeSet copy = (SinkEventAttributeSet) sinkEventAttributeSet.copyAttributes();
+        SinkEventAttributeSet other = new SinkEventAttributeSet(sinkEventAttributeSet);
+        Enumeration<String> names = sinkEventAttributeSet.getAttributeNames();
+
+        copy.addAttribute("a", "3");
+        other.removeAttribute("a");
+        sinkEventAttributeSet.addAttribute("c", "4");
+
+        assertEquals(" a=1 b=2 c=4", sinkEventAttributeSet.toString());
+        assertEquals(" a=3 b=2", copy.toString());
+        assertEquals(" b=2", other.toString());
+
+        assertEquals("a", names.nextElement());
+        assertEquals("b", names.nextElement());
+        assertFalse(names.hasMoreElements());
+    }
+
+    /**
+     * Test of unmodifiable method, of class SinkEventAttributeSet.
+     */
+    @Test
+    void unmodifiable() {
+        assertThrows(UnsupportedOperationException.class, () -> SinkEventAttributeSet.BOLD.addAttribute("a", "1"));
+        assertThrows(
+                UnsupportedOperationException.class,
+                () -> SinkEventAttributeSet.BOLD.removeAttribute(SinkEventAttributes.STYLE));
+
+        SinkEventAttributeSet copy = new SinkEventAttributeSet(SinkEventAttributeSet.BOLD);
+        copy.addAttribute(SinkEventAttributes.STYLE, "italic");
+        assertEquals("italic", copy.getAttribute(SinkEventAttributes.STYLE));
+        assertEquals("bold", SinkEventAttributeSet.BOLD.getAttribute(SinkEventAttributes.STYLE));
+    }
+
+    /**
+     * Test that the names of well-known attributes are interned.
+     */
+    @Test
+    void wellKnownNames() {
+        sinkEventAttributeSet.addAttribute(new String("class"), "a");
+        sinkEventAttributeSet.addAttribute(new String("data-x"), "b");
+
+        Enumeration<String> names = sinkEventAttributeSet.getAttributeNames();
+        assertSame(SinkEventAttributes.CLASS, names.nextElement());
+        assertEquals("data-x", names.nextElement());
+        assertEquals("a", sinkEventAttributeSet.getAttribute(new String("class")));
+    }
 }
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.doxia.sink.impl;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.doxia.index.IndexingSink;
+import org.apache.maven.doxia.sink.Sink;
+import org.apache.maven.doxia.sink.SinkEventAttributes;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class SinkWrapperChainTest {
+
+    @Test
+    void sameEventsAsWithoutCompilation() {
+        SinkEventTestingSink expected = new SinkEventTestingSink();
+        SinkTestDocument.generate(createChain(expected, new AtomicInteger()));
+
+        SinkEventTestingSink actual = new SinkEventTestingSink();
+        AtomicInteger passedWrappers = new AtomicInteger();
+        SinkTestDocument.generate(SinkWrapperChain.compile(createChain(actual, passedWrappers)));
+
+        assertEquals(expected.getEventList(), actual.getEventList());
+        // only the text events pass the counting wrapper
+        assertEquals(
+                actual.getEventList().stream()
+                        .filter(e -> "text".equals(e.getName()))
+                        .count(),
+                passedWrappers.get());
+    }
+
+    @Test
+    void nothingToSkip() {
+        SinkEventTestingSink sink = new SinkEventTestingSink();
+        assertSame(sink, SinkWrapperChain.compile(sink));
+
+        Sink wrapper = new SinkWrapper(sink);
+        assertSame(wrapper, SinkWrapperChain.compile(wrapper));
+    }
+
+    @Test
+    void indexingSinkIsNotBypassed() {
+        SinkEventTestingSink sink = new SinkEventTestingSink();
+        IndexingSink indexingSink = new IndexingSink(new SinkWrapper(new SinkWrapper(sink)));
+        assertSame(indexingSink, SinkWrapperChain.compile(indexingSink));
+
+        indexingSink.section1();
+        indexingSink.sectionTitle1();
+        indexingSink.bold();
+        indexingSink.text("title");
+        indexingSink.bold_();
+        indexingSink.sectionTitle1_();
+        indexingSink.section1_();
+        indexingSink.close();
+
+        assertEquals("title", indexingSink.getRootEntry().getFirstEntry().getTitle());
+        assertEquals(8, sink.getEventList().size());
+    }
+
+    @Test
+    void subclassesAreNotBypassedByDefault() {
+        SinkEventTestingSink first = new SinkEventTestingSink();
+        SinkEventTestingSink second = new SinkEventTestingSink();
+        // switches its delegate while receiving events, like wrappers written before chains were compiled
+        Sink switching = new SinkWrapper(first) {
+            @Override
+            public void horizontalRule(SinkEventAttributes attributes) {
+                setWrappedSink(second);
+            }
+        };
+        Sink chain = SinkWrapperChain.compile(new SinkWrapper(new SinkWrapper(switching)));
+
+        chain.paragraph();
+        chain.horizontalRule();
+        chain.paragraph_();
+
+        assertEquals(1, first.getEventList().size());
+        assertEquals("paragraph", first.getEventList().get(0).getName());
+        assertEquals(1, second.getEventList().size());
+        assertEquals("paragraph_", second.getEventList().get(0).getName());
+    }
+
+    @Test
+    void textCharactersReachWrappersHandlingText() {
+        SinkEventTestingSink sink = new SinkEventTestingSink();
+        AtomicInteger passedWrappers = new AtomicInteger();
+        Sink chain = SinkWrapperChain.compile(createChain(sink, passedWrappers));
+
+        chain.text("[text]".toCharArray(), 1, 4);
+        chain.rawText("[raw]".toCharArray(), 1, 3);
+
+        assertEquals(1, passedWrappers.get());
+        assertEquals(2, sink.getEventList().size());
+        assertEquals("text", sink.getEventList().get(0).getArgs()[0]);
+        assertEquals("raw", sink.getEventList().get(1).getArgs()[0]);
+    }
+
+    private static Sink createChain(Sink sink, AtomicInteger passedWrappers) {
+        Sink wrapped = new SinkWrapper(sink) {
+            @Override
+            public void text(String text, SinkEventAttributes attributes) {
+                passedWrappers.incrementAndGet();
+                super.text(text, attributes);
+            }
+
+            @Override
+            protected boolean isBypassable() {
+                return true;
+            }
+        };
+        wrapped = new SinkWrapper(wrapped);
+        wrapped = new SinkWrapper(wrapped) {
+            @Override
+            public void anchor(String name, SinkEventAttributes attributes) {
+                super.anchor("prefixed-" + name, attributes);
+            }
+
+            @Override
+            protected boolean isBypassable() {
+                return true;
+            }
+        };
+        return new SinkWrapper(wrapped);
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.doxia.sink.impl;
+
+import java.io.StringWriter;
+
+import org.apache.maven.doxia.index.IndexingSink;
+import org.apache.maven.doxia.sink.SinkEventAttributes;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TeeSinkTest {
+
+    @Test
+    void allSinksReceiveAllEvents() {
+        SinkEventTestingSink expected = new SinkEventTestingSink();
+        SinkTestDocument.generate(expected);
+        expected.close();
+
+        SinkEventTestingSink first = new SinkEventTestingSink();
+        SinkEventTestingSink second = new SinkEventTestingSink();
+        IndexingSink indexingSink = new IndexingSink(new SinkEventTestingSink());
+        TeeSink teeSink = new TeeSink(first, second, indexingSink);
+        SinkTestDocument.generate(teeSink);
+        teeSink.close();
+
+        assertEquals(expected.getEventList(), first.getEventList());
+        assertEquals(expected.getEventList(), second.getEventList());
+        assertEquals(
+                "Section title", indexingSink.getRootEntry().getFirstEntry().getTitle());
+        assertEquals(3, teeSink.getSinks().size());
+    }
+
+    @Test
+    void attributesAreCopied() {
+        StringWriter firstWriter = new StringWriter();
+        StringWriter secondWriter = new StringWriter();
+        SinkEventAttributes attributes = new SinkEventAttributeSet(SinkEventAttributes.STYLE, "color: red");
+        TeeSink teeSink = new TeeSink(new Xhtml5BaseSink(firstWriter), new Xhtml5BaseSink(secondWriter));
+
+        teeSink.table();
+        teeSink.tableRows(new int[] {Xhtml5BaseSink.JUSTIFY_CENTER}, false);
+        teeSink.tableRow();
+        teeSink.tableCell(attributes);
+        teeSink.tableCell_();
+        teeSink.tableRow_();
+        teeSink.tableRows_();
+        teeSink.table_();
+
+        assertEquals(firstWriter.toString(), secondWriter.toString());
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.doxia.sink.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.apache.maven.doxia.sink.Sink;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class WriteIfChangedChannelTest {
+    private static final FileTime OLD = FileTime.fromMillis(1000000000000L);
+
+    @TempDir
+    File outputDir;
+
+    private AbstractTextSinkFactory factory;
+
+    @BeforeEach
+    void setUp() {
+        factory = new AbstractTextSinkFactory() {
+            @Override
+            protected Sink createSink(Writer writer, String encoding) {
+                return new Xhtml5BaseSink(writer);
+            }
+        };
+        factory.setWriteIfChanged(true);
+        // small buffer to compare in several chunks
+        factory.setOutputBufferSize(16);
+    }
+
+    @Test
+    void newFile() throws IOException {
+        render("first version");
+
+        assertEquals("<p>first version</p>", read());
+        assertEquals(1, countFiles());
+    }
+
+    @Test
+    void unchangedFileIsNotTouched() throws IOException {
+        render("some paragraph text");
+        Path page = page();
+        Files.setLastModifiedTime(page, OLD);
+
+        render("some paragraph text");
+
+        assertEquals(OLD, Files.getLastModifiedTime(page));
+        assertEquals("<p>some paragraph text</p>", read());
+        assertEquals(1, countFiles());
+    }
+
+    @Test
+    void changedFileIsReplaced() throws IOException {
+        render("some paragraph text");
+        Files.setLastModifiedTime(page(), OLD);
+
+        render("some paragraph test");
+
+        assertNotEquals(OLD, Files.getLastModifiedTime(page()));
+        assertEquals("<p>some paragraph test</p>", read());
+        assertEquals(1, countFiles());
+    }
+
+    @Test
+    void changedFileKeepsPermissions() throws IOException {
+        assumeTrue(Files.getFileAttributeView(outputDir.toPath(), PosixFileAttributeView.class) != null);
+
+        render("some paragraph text");
+        Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-r-----");
+        Files.setPosixFilePermissions(page(), permissions);
+
+        render("some paragraph test");
+
+        assertEquals("<p>some paragraph test</p>", read());
+        assertEquals(permissions, Files.getPosixFilePermissions(page()));
+    }
+
+    @Test
+    void shorterAndLongerContent() throws IOException {
+        render("some paragraph text");
+
+        render("some paragraph");
+        assertEquals("<p>some paragraph</p>", read());
+
+        render("some paragraph text which is longer");
+        assertEquals("<p>some paragraph text which is longer</p>", read());
+        assertEquals(1, countFiles());
+    }
+
+    private void render(String text) throws IOException {
+        try (Sink sink = factory.createSink(outputDir, "page.html")) {
+            sink.paragraph();
+            sink.text(text);
+            sink.paragraph_();
+        }
+    }
+
+    private Path page() {
+        return new File(outputDir, "page.html").toPath();
+    }
+
+    private String read() throws IOException {
+        return new String(Files.readAllBytes(page()), StandardCharsets.UTF_8);
+    }
+
+    private long countFiles() throws IOException {
+        try (Stream<Path> files = Files.list(outputDir.toPath())) {
+            return files.count();
+        }
+    }
+}
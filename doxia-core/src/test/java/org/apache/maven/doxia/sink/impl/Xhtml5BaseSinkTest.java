@@ -22,6 +22,7 @@ import javax.swing.text.html.HTML.Attribute;
 
 import java.io.StringWriter;
 import java.io.Writer;
+import java.util.function.BiConsumer;
 
 import org.apache.maven.doxia.markup.Markup;
 import org.apache.maven.doxia.sink.Sink;
@@ -1058,6 +1059,70 @@ class Xhtml5BaseSinkTest {
         assertEquals("a text &amp; &#xc6;", writer.toString());
     }
 
+    /**
+     * Test that text given as characters is written the same as text given as String.
+     */
+    @Test
+    void textCharacters() {
+        String text = "x <a href=\"#\">&amp; &#160;</a>\r\n\u00c6\ud83d\ude00\rend\n&";
+
+        checkTextCharacters(text, (sink, write) -> write.accept(sink, null));
+        checkTextCharacters(text, (sink, write) -> write.accept(sink, attributes));
+        checkTextCharacters(text, (sink, write) -> {
+            sink.verbatim();
+            write.accept(sink, null);
+            sink.verbatim_();
+        });
+        checkTextCharacters(text, (sink, write) -> {
+            sink.verbatim(new SinkEventAttributeSet(SinkEventAttributes.DECORATION, "source"));
+            write.accept(sink, null);
+            write.accept(sink, null);
+            sink.verbatim_();
+        });
+        checkTextCharacters(text, (sink, write) -> {
+            sink.head();
+            sink.title();
+            write.accept(sink, null);
+            sink.title_();
+            sink.head_();
+        });
+        checkTextCharacters(text, (sink, write) -> {
+            sink.table();
+            sink.tableRows();
+            sink.tableRow();
+            sink.tableCell();
+            write.accept(sink, null);
+            sink.tableCell_();
+            sink.tableRow_();
+            sink.tableRows_();
+            sink.table_();
+        });
+    }
+
+    private void checkTextCharacters(String text, BiConsumer<Sink, BiConsumer<Sink, SinkEventAttributes>> document) {
+        char[] chars = ("[" + text + "]").toCharArray();
+
+        StringWriter expected = new StringWriter();
+        StringWriter actual = new StringWriter();
+        try (Xhtml5BaseSink sink = new Xhtml5BaseSink(expected)) {
+            document.accept(sink, (s, atts) -> s.text(text, atts));
+        }
+        try (Xhtml5BaseSink sink = new Xhtml5BaseSink(actual)) {
+            document.accept(sink, (s, atts) -> s.text(chars, 1, text.length(), atts));
+        }
+        assertEquals(expected.toString(), actual.toString());
+
+        expected = new StringWriter();
+        actual = new StringWriter();
+        try (Xhtml5BaseSink sink = new Xhtml5BaseSink(expected)) {
+            document.accept(sink, (s, atts) -> s.rawText(text));
+        }
+        try (Xhtml5BaseSink sink = new Xhtml5BaseSink(actual)) {
+            document.accept(sink, (s, atts) -> s.rawText(chars, 1, text.length()));
+        }
+        assertEquals(expected.toString(), actual.toString());
+    }
+
     /**
      * Test of text method, of class Xhtml5BaseSink.
      */
@@ -1176,4 +1241,62 @@ class Xhtml5BaseSinkTest {
 
         assertTrue(result.contains("&#x2713;"));
     }
+
+    /**
+     * Test of compact output.
+     */
+    @Test
+    void compact() {
+        try (Xhtml5BaseSink sink = new Xhtml5BaseSink(writer)) {
+            sink.setCompact(true);
+            sink.paragraph();
+            sink.text("some  text\nwith\t whitespace");
+            sink.lineBreak();
+            sink.paragraph_();
+            sink.verbatim();
+            sink.text("  verbatim\n  text");
+            sink.verbatim_();
+            sink.table();
+            sink.tableRows();
+            sink.tableCaption();
+            sink.text("caption");
+            sink.tableCaption_();
+            sink.tableRows_();
+            sink.table_();
+            sink.comment("comment", true);
+        }
+
+        assertEquals(
+                "<p>some text with whitespace<br/></p><pre>  verbatim" + LS + "  text</pre>"
+                        + "<table class=\"bodyTable\"><caption>caption</caption></table><!--comment-->",
+                writer.toString());
+    }
+
+    /**
+     * Test of reusing a sink for several documents.
+     */
+    @Test
+    void reset() {
+        StringWriter expected = new StringWriter();
+        try (Xhtml5BaseSink sink = new Xhtml5BaseSink(expected)) {
+            SinkTestDocument.generate(sink);
+        }
+
+        Xhtml5BaseSink sink = new Xhtml5BaseSink(writer);
+        // leave the sink in the middle of a table and an inline element
+        sink.table();
+        sink.tableRows(new int[] {Sink.JUSTIFY_CENTER}, false);
+        sink.tableRow();
+        sink.tableCell();
+        sink.bold();
+        sink.text("aborted");
+
+        for (int i = 0; i < 2; i++) {
+            StringWriter out = new StringWriter();
+            sink.reset(out);
+            SinkTestDocument.generate(sink);
+            sink.close();
+            assertEquals(expected.toString(), out.toString());
+        }
+    }
 }
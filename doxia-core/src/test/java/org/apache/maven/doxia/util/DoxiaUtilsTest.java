@@ -18,19 +18,35 @@
  */
 package org.apache.maven.doxia.util;
 
+import javax.imageio.ImageIO;
+import javax.swing.text.MutableAttributeSet;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import org.apache.maven.doxia.sink.impl.SinkEventAttributeSet;
 import org.codehaus.plexus.testing.PlexusTest;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -145,6 +161,9 @@ class DoxiaUtilsTest {
         assertEquals("my.26Anchor", DoxiaUtils.encodeId("my&Anchor"));
         assertEquals("H.C3.A5kon", DoxiaUtils.encodeId("H\u00E5kon"));
         assertEquals("Theu.C3.9Fl", DoxiaUtils.encodeId("Theu\u00DFl"));
+        assertEquals("a.E2.82.AC", DoxiaUtils.encodeId("\u20AC"));
+        assertEquals("a.E6.97.A5.E6.9C.AC_text", DoxiaUtils.encodeId("\u65E5\u672C text"));
+        assertEquals("a.3F.3F", DoxiaUtils.encodeId("\uD83D\uDE00"));
     }
 
     /**
@@ -215,4 +234,74 @@ class DoxiaUtilsTest {
             assertNotNull(ex);
         }
     }
+
+    /**
+     * Verify that dates are resolved as leniently as by SimpleDateFormat.
+     */
+    @Test
+    void parseDateLeniently() throws ParseException {
+        final Date mar2 = new GregorianCalendar(2004, Calendar.MARCH, 2).getTime();
+        assertEquals(mar2, DoxiaUtils.parseDate("2004-02-31"));
+        assertEquals(mar2, DoxiaUtils.parseDate("20040231"));
+        assertEquals(new GregorianCalendar(2003, Calendar.MARCH, 1).getTime(), DoxiaUtils.parseDate("2003-02-29"));
+        assertEquals(new GregorianCalendar(2005, Calendar.JANUARY, 1).getTime(), DoxiaUtils.parseDate("2004-13-01"));
+        assertEquals(new GregorianCalendar(2003, Calendar.DECEMBER, 10).getTime(), DoxiaUtils.parseDate("2004-00-10"));
+        assertEquals(new GregorianCalendar(2004, Calendar.MAY, 1).getTime(), DoxiaUtils.parseDate("31.04.2004"));
+
+        // Julian calendar before the Gregorian cutover, like SimpleDateFormat
+        assertEquals(new GregorianCalendar(1500, Calendar.MARCH, 1).getTime(), DoxiaUtils.parseDate("1500-03-01"));
+    }
+
+    @Test
+    void imageAttributes(@TempDir File dir) throws IOException {
+        File image = new File(dir, "image.png");
+        ImageIO.write(new BufferedImage(20, 10, BufferedImage.TYPE_INT_RGB), "png", image);
+
+        MutableAttributeSet atts = DoxiaUtils.getImageAttributes(image.getPath());
+        assertEquals("20", atts.getAttribute(SinkEventAttributeSet.WIDTH));
+        assertEquals("10", atts.getAttribute(SinkEventAttributeSet.HEIGHT));
+
+        // the cached size is invalidated when the file changes
+        ImageIO.write(new BufferedImage(300, 200, BufferedImage.TYPE_INT_RGB), "png", image);
+        image.setLastModified(image.lastModified() + 2000);
+
+        atts = DoxiaUtils.getImageAttributes(image.getPath());
+        assertEquals("300", atts.getAttribute(SinkEventAttributeSet.WIDTH));
+        assertEquals("200", atts.getAttribute(SinkEventAttributeSet.HEIGHT));
+
+        atts = DoxiaUtils.getImageAttributes(image.toURI().toString());
+        assertEquals("300", atts.getAttribute(SinkEventAttributeSet.WIDTH));
+
+        File text = new File(dir, "text.txt");
+        Files.write(text.toPath(), "no image".getBytes(StandardCharsets.UTF_8));
+        assertNull(DoxiaUtils.getImageAttributes(text.getPath()));
+
+        assertThrows(IOException.class, () -> DoxiaUtils.getImageAttributes(new File(dir, "missing.png").getPath()));
+    }
+
+    @Test
+    void parseDateConcurrently() throws Exception {
+        final Date feb27 = new GregorianCalendar(1973, Calendar.FEBRUARY, 27).getTime();
+        final Date mar1 = new GregorianCalendar(2004, Calendar.MARCH, 1).getTime();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                final boolean even = i % 2 == 0;
+                results.add(executor.submit(() -> even
+                        ? feb27.equals(DoxiaUtils.parseDate("27 february 1973"))
+                        : mar1.equals(DoxiaUtils.parseDate("2004/03/01"))));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // modifying a returned date doesn't affect later results
+        DoxiaUtils.parseDate("2004/03/01").setTime(0L);
+        assertEquals(mar1, DoxiaUtils.parseDate("2004/03/01"));
+    }
 }
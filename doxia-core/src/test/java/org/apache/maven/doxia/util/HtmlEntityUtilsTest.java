@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.doxia.util;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class HtmlEntityUtilsTest {
+
+    @Test
+    void unescapeHtml4() {
+        String plain = "no entities";
+        assertSame(plain, HtmlEntityUtils.unescapeHtml4(plain));
+        assertEquals("\u00E9t\u00E9 & \u20AC", HtmlEntityUtils.unescapeHtml4("&eacute;t&eacute; &amp; &euro;"));
+        assertEquals("&#x41;", HtmlEntityUtils.unescapeHtml4("&amp;#x41;"), "decoded only once");
+        assertEquals("&eacutex; &Eacute", HtmlEntityUtils.unescapeHtml4("&eacutex; &Eacute"));
+        assertEquals("&; &# &#x; &#X41; &#1114112;", HtmlEntityUtils.unescapeHtml4("&; &# &#x; &#X41; &#1114112;"));
+        assertEquals("&#99999999999999999999;", HtmlEntityUtils.unescapeHtml4("&#99999999999999999999;"));
+        assertEquals("A\uDBFF\uDFFF", HtmlEntityUtils.unescapeHtml4("&#65;&#x10FFFF;"));
+        assertEquals("&apos;", HtmlEntityUtils.unescapeHtml4("&apos;"));
+        assertEquals("'", HtmlEntityUtils.unescapeXml("&apos;"));
+        assertEquals("&eacute;", HtmlEntityUtils.unescapeXml("&eacute;"));
+    }
+
+    @Test
+    void unescapeHtml5() {
+        assertEquals("\u00E9 & \u20AC", HtmlEntityUtils.unescapeHtml5("&eacute; &amp; &euro;"));
+        assertEquals("& \u2192 \uD835\uDD04", HtmlEntityUtils.unescapeHtml5("&AMP; &rarr; &Afr;"));
+        assertEquals("\u2AA2\u0338", HtmlEntityUtils.unescapeHtml5("&NotNestedGreaterGreater;"));
+        assertEquals("&NotNestedGreaterGreater;", HtmlEntityUtils.unescapeHtml4("&NotNestedGreaterGreater;"));
+        assertEquals("&apos; &unknown; &amp", HtmlEntityUtils.unescapeHtml5("&apos; &unknown; &amp"));
+    }
+
+    @Test
+    void unescapeRange() throws IOException {
+        StringBuilder out = new StringBuilder("<");
+        HtmlEntityUtils.unescapeHtml4("&lt;a&amp;b&gt;", 4, 11, out);
+        assertEquals("<a&b", out.toString());
+
+        out.setLength(0);
+        HtmlEntityUtils.unescapeXml("x&quot;&lt", 1, 10, out);
+        assertEquals("\"&lt", out.toString());
+
+        out.setLength(0);
+        HtmlEntityUtils.unescapeHtml5("x&rarr;&hellip;y", 1, 15, out);
+        assertEquals("\u2192\u2026", out.toString());
+    }
+
+    @Test
+    void manyAmpersandsWithoutSemicolon() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            text.append("&amp &#12 ");
+        }
+        assertEquals(text.toString(), HtmlEntityUtils.unescapeHtml4(text.toString()));
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.doxia.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdRegistryTest {
+
+    @Test
+    void encodeId() {
+        IdRegistry ids = new IdRegistry();
+        assertNull(ids.encodeId(null));
+        assertNull(ids.encodeId(" "));
+        String encoded = ids.encodeId("Håkon 1");
+        assertEquals("H.C3.A5kon_1", encoded);
+        assertSame(encoded, ids.encodeId("Håkon 1"));
+        // shared by the registries of all documents
+        assertSame(encoded, new IdRegistry().encodeId("Håkon 1"));
+        assertEquals("valid_id", ids.encodeId("valid_id"));
+    }
+
+    @Test
+    void uniqueIds() {
+        IdRegistry ids = new IdRegistry();
+        assertFalse(ids.isUsed("id"));
+        assertTrue(ids.markUsed("id"));
+        assertFalse(ids.markUsed("id"));
+        assertTrue(ids.isUsed("id"));
+        assertEquals("id_1", ids.getUniqueId("id"));
+        assertEquals("id_2", ids.getUniqueId("id"));
+        assertEquals("other", ids.getUniqueId("other"));
+        assertEquals("other_1", ids.getUniqueId("other"));
+    }
+}
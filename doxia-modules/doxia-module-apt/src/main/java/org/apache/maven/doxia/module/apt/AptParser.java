@@ -30,6 +30,7 @@ import java.util.Map;
 import java.util.StringTokenizer;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.maven.doxia.macro.AsyncMacroExecutionException;
 import org.apache.maven.doxia.macro.MacroExecutionException;
 import org.apache.maven.doxia.macro.MacroRequest;
 import org.apache.maven.doxia.macro.manager.MacroNotFoundException;
@@ -242,6 +243,13 @@ public class AptParser extends AbstractTextParser implements AptMarkup {
         } catch (AptParseException ape) {
             // TODO handle column number
             throw new AptParseException(null, ape, getSourceName(), getSourceLineNumber(), -1);
+        } catch (AsyncMacroExecutionException e) {
+            throw new AptParseException(
+                    "Unable to execute macro in the APT document",
+                    e.getCause(),
+                    getSourceName(),
+                    getSourceLineNumber(),
+                    -1);
         } finally {
             setSecondParsing(false);
             init();
@@ -2396,7 +2404,8 @@ public class AptParser extends AbstractTextParser implements AptMarkup {
 
             // getBasedir() does not work in multi-module builds, see DOXIA-373
             // the basedir should be injected from here, see DOXIA-224
-            MacroRequest request = new MacroRequest(sourceContent, new AptParser(), parameters, getBasedir());
+            String documentContent = sourceContent;
+            MacroRequest request = new MacroRequest(() -> documentContent, AptParser::new, parameters, getBasedir());
             try {
                 AptParser.this.executeMacro(macroId, request, sink);
             } catch (MacroExecutionException e) {
@@ -31,6 +31,7 @@ import java.util.Stack;
 import org.apache.maven.doxia.sink.Sink;
 import org.apache.maven.doxia.sink.SinkEventAttributes;
 import org.apache.maven.doxia.sink.impl.AbstractTextSink;
+import org.apache.maven.doxia.sink.impl.AttributeFilter;
 import org.apache.maven.doxia.sink.impl.SinkEventAttributeSet;
 import org.apache.maven.doxia.sink.impl.SinkUtils;
 import org.apache.maven.doxia.util.DoxiaStringUtils;
@@ -48,6 +49,26 @@ import org.slf4j.LoggerFactory;
 public class AptSink extends AbstractTextSink implements AptMarkup {
     private static final Logger LOGGER = LoggerFactory.getLogger(AptSink.class);
 
+    /** Whether a subclass changes how text is written, so text given as characters must be passed on as String. */
+    private static final ClassValue<Boolean> HANDLES_TEXT = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return SinkUtils.isOverridden(type, AptSink.class, "text", String.class, SinkEventAttributes.class)
+                    || SinkUtils.isOverridden(type, AptSink.class, "content", String.class)
+                    || SinkUtils.isOverridden(type, AptSink.class, "verbatimContent", String.class)
+                    || SinkUtils.isOverridden(type, AptSink.class, "write", String.class);
+        }
+    };
+
+    /** Whether a subclass changes how raw text is written. */
+    private static final ClassValue<Boolean> HANDLES_RAW_TEXT = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return SinkUtils.isOverridden(type, AptSink.class, "rawText", String.class)
+                    || SinkUtils.isOverridden(type, AptSink.class, "write", String.class);
+        }
+    };
+
     // ----------------------------------------------------------------------
     // Instance fields
     // ----------------------------------------------------------------------
@@ -464,7 +485,7 @@ public class AptSink extends AbstractTextSink implements AptMarkup {
 
     @Override
     public void verbatim(SinkEventAttributes attributes) {
-        MutableAttributeSet atts = SinkUtils.filterAttributes(attributes, SinkUtils.SINK_VERBATIM_ATTRIBUTES);
+        MutableAttributeSet atts = AttributeFilter.SINK_VERBATIM_ATTRIBUTES.apply(attributes);
 
         boolean source = false;
 
@@ -829,10 +850,39 @@ public class AptSink extends AbstractTextSink implements AptMarkup {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * The characters are escaped and written without creating a String, unless they have attributes or a subclass
+     * overrides how text is written.
+     */
+    @Override
+    public void text(char[] text, int offset, int length, SinkEventAttributes attributes) {
+        if (attributes != null || HANDLES_TEXT.get(getClass())) {
+            text(new String(text, offset, length), attributes);
+        } else if (tableCaptionFlag) {
+            tableCaptionBuffer.append(text, offset, length);
+        } else if (headerFlag || bufferFlag) {
+            buffer.append(text, offset, length);
+        } else {
+            // same as content(String) and verbatimContent(String)
+            writeChars(text, offset, length, true);
+        }
+    }
+
     public void rawText(String text) {
         write(text);
     }
 
+    @Override
+    public void rawText(char[] text, int offset, int length) {
+        if (HANDLES_RAW_TEXT.get(getClass())) {
+            rawText(new String(text, offset, length));
+        } else {
+            writeChars(text, offset, length, false);
+        }
+    }
+
     public void comment(String comment) {
         comment(comment, false);
     }
@@ -866,6 +916,55 @@ public class AptSink extends AbstractTextSink implements AptMarkup {
         }
     }
 
+    /**
+     * Write a range of characters like {@link #write(String)}, optionally escaping them like {@link #escapeAPT(String)},
+     * without creating any intermediate String.
+     *
+     * @param text the array containing the text to write
+     * @param offset the index of the first character to write
+     * @param length the number of characters to write
+     * @param escape whether to escape the characters
+     */
+    private void writeChars(char[] text, int offset, int length, boolean escape) {
+        startFlag = false;
+        int end = offset + length;
+        int start = offset;
+        for (int i = offset; i < end; i++) {
+            char c = text[i];
+            if (escape && isSpecial(c)) {
+                // the character itself is written with the next range
+                writeRange(text, start, i);
+                writeRange("\\");
+                start = i;
+            } else if (!tableCellFlag && (c == '\r' || c == '\n')) {
+                // table cells are buffered without unifying EOLs
+                writeRange(text, start, i);
+                writeRange(EOL);
+                if (c == '\r' && i + 1 < end && text[i + 1] == '\n') {
+                    i++;
+                }
+                start = i + 1;
+            }
+        }
+        writeRange(text, start, end);
+    }
+
+    private void writeRange(char[] text, int start, int end) {
+        if (tableCellFlag) {
+            buffer.append(text, start, end - start);
+        } else {
+            writer.write(text, start, end - start);
+        }
+    }
+
+    private void writeRange(String text) {
+        if (tableCellFlag) {
+            buffer.append(text);
+        } else {
+            writer.write(text);
+        }
+    }
+
     /**
      * Write Apt escaped text to output.
      *
@@ -924,27 +1023,36 @@ public class AptSink extends AbstractTextSink implements AptMarkup {
 
         for (int i = 0; i < length; ++i) {
             char c = text.charAt(i);
-            switch (c) { // 0080
-                case '\\':
-                case '~':
-                case '=':
-                case '-':
-                case '+':
-                case '*':
-                case '[':
-                case ']':
-                case '<':
-                case '>':
-                case '{':
-                case '}':
-                    buffer.append('\\');
-                    buffer.append(c);
-                    break;
-                default:
-                    buffer.append(c);
+            if (isSpecial(c)) {
+                buffer.append('\\');
             }
+            buffer.append(c);
         }
 
         return buffer.toString();
     }
+
+    /**
+     * @param c a character.
+     * @return <code>true</code> if the character is escaped by {@link #escapeAPT(String)}.
+     */
+    private static boolean isSpecial(char c) {
+        switch (c) { // 0080
+            case '\\':
+            case '~':
+            case '=':
+            case '-':
+            case '+':
+            case '*':
+            case '[':
+            case ']':
+            case '<':
+            case '>':
+            case '{':
+            case '}':
+                return true;
+            default:
+                return false;
+        }
+    }
 }
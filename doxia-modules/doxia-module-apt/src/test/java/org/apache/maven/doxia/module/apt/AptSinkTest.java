@@ -18,11 +18,15 @@
  */
 package org.apache.maven.doxia.module.apt;
 
+import java.io.StringWriter;
 import java.io.Writer;
+import java.util.function.BiConsumer;
 
 import org.apache.maven.doxia.markup.Markup;
 import org.apache.maven.doxia.sink.Sink;
+import org.apache.maven.doxia.sink.SinkEventAttributes;
 import org.apache.maven.doxia.sink.impl.AbstractSinkTest;
+import org.apache.maven.doxia.sink.impl.SinkEventAttributeSet;
 import org.apache.maven.doxia.util.DoxiaStringUtils;
 import org.junit.jupiter.api.Test;
 
@@ -410,4 +414,69 @@ class AptSinkTest extends AbstractSinkTest {
 
         assertEquals(expected, getSinkContent(), "Wrong justification in table cells");
     }
+
+    @Test
+    void textCharacters() {
+        String text = "[x] <y> ~*-+= {z}\\" + EOL + "line\r\nline\rend";
+        checkTextCharacters(text, (sink, write) -> {
+            sink.paragraph();
+            write.accept(sink, null);
+            sink.paragraph_();
+        });
+        checkTextCharacters(text, (sink, write) -> {
+            sink.paragraph();
+            write.accept(sink, SinkEventAttributeSet.Semantics.BOLD);
+            sink.paragraph_();
+        });
+        checkTextCharacters(text, (sink, write) -> {
+            sink.verbatim();
+            write.accept(sink, null);
+            sink.verbatim_();
+        });
+        checkTextCharacters(text, (sink, write) -> {
+            sink.head();
+            sink.title();
+            write.accept(sink, null);
+            sink.title_();
+            sink.head_();
+        });
+        checkTextCharacters(text, (sink, write) -> {
+            sink.table();
+            sink.tableRows();
+            sink.tableRow();
+            sink.tableCell();
+            write.accept(sink, null);
+            sink.tableCell_();
+            sink.tableRow_();
+            sink.tableRows_();
+            sink.tableCaption();
+            write.accept(sink, null);
+            sink.tableCaption_();
+            sink.table_();
+        });
+    }
+
+    private void checkTextCharacters(String text, BiConsumer<Sink, BiConsumer<Sink, SinkEventAttributes>> document) {
+        char[] chars = ("[" + text + "]").toCharArray();
+
+        StringWriter expected = new StringWriter();
+        StringWriter actual = new StringWriter();
+        try (Sink sink = createSink(expected)) {
+            document.accept(sink, (s, atts) -> s.text(text, atts));
+        }
+        try (Sink sink = createSink(actual)) {
+            document.accept(sink, (s, atts) -> s.text(chars, 1, text.length(), atts));
+        }
+        assertEquals(expected.toString(), actual.toString());
+
+        expected = new StringWriter();
+        actual = new StringWriter();
+        try (Sink sink = createSink(expected)) {
+            document.accept(sink, (s, atts) -> s.rawText(text));
+        }
+        try (Sink sink = createSink(actual)) {
+            document.accept(sink, (s, atts) -> s.rawText(chars, 1, text.length()));
+        }
+        assertEquals(expected.toString(), actual.toString());
+    }
 }
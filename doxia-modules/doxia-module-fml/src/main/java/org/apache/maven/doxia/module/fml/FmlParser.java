@@ -32,6 +32,7 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.maven.doxia.macro.AsyncMacroExecutionException;
 import org.apache.maven.doxia.macro.MacroExecutionException;
 import org.apache.maven.doxia.macro.MacroRequest;
 import org.apache.maven.doxia.macro.manager.MacroNotFoundException;
@@ -106,6 +107,8 @@ public class FmlParser extends AbstractXmlParser implements FmlMarkup {
             super.parse(tmp, sink, reference);
 
             writeFaqs(getWrappedSink(sink));
+        } catch (AsyncMacroExecutionException e) {
+            throw new ParseException("Macro execution failed", e.getCause());
         } finally {
             this.faqs = null;
             this.sourceContent = null;
@@ -379,7 +382,9 @@ public class FmlParser extends AbstractXmlParser implements FmlMarkup {
     private void handleMacroEnd(StringBuilder buffer) throws MacroExecutionException {
         if (!isSecondParsing()) {
             if (macroName != null && !macroName.isEmpty()) {
-                MacroRequest request = new MacroRequest(sourceContent, new FmlParser(), macroParameters, getBasedir());
+                String documentContent = sourceContent;
+                MacroRequest request =
+                        new MacroRequest(() -> documentContent, FmlParser::new, macroParameters, getBasedir());
 
                 try {
                     StringWriter sw = new StringWriter();
@@ -35,6 +35,7 @@ import java.util.stream.Collectors;
 import org.apache.maven.doxia.sink.Sink;
 import org.apache.maven.doxia.sink.SinkEventAttributes;
 import org.apache.maven.doxia.sink.impl.AbstractTextSink;
+import org.apache.maven.doxia.sink.impl.AttributeFilter;
 import org.apache.maven.doxia.sink.impl.SinkEventAttributeSet;
 import org.apache.maven.doxia.sink.impl.SinkUtils;
 import org.apache.maven.doxia.sink.impl.Xhtml5BaseSink;
@@ -52,6 +53,15 @@ import org.slf4j.LoggerFactory;
 public class MarkdownSink extends AbstractTextSink implements MarkdownMarkup {
     private static final Logger LOGGER = LoggerFactory.getLogger(MarkdownSink.class);
 
+    /** Whether a subclass changes how raw text is written, so raw text given as characters must be passed on as String. */
+    private static final ClassValue<Boolean> HANDLES_RAW_TEXT = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return SinkUtils.isOverridden(type, MarkdownSink.class, "rawText", String.class)
+                    || SinkUtils.isOverridden(type, MarkdownSink.class, "writeUnescaped", String.class);
+        }
+    };
+
     // ----------------------------------------------------------------------
     // Instance fields
     // ----------------------------------------------------------------------
@@ -891,7 +901,7 @@ public class MarkdownSink extends AbstractTextSink implements MarkdownMarkup {
 
     public void anchor(String name, SinkEventAttributes attributes) {
         // emit html anchor as markdown does not support anchors
-        MutableAttributeSet atts = SinkUtils.filterAttributes(attributes, SinkUtils.SINK_BASE_ATTRIBUTES);
+        MutableAttributeSet atts = AttributeFilter.SINK_BASE_ATTRIBUTES.apply(attributes);
 
         String id = name;
 
@@ -1086,6 +1096,27 @@ public class MarkdownSink extends AbstractTextSink implements MarkdownMarkup {
         writeUnescaped(text);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * The characters are written without creating a String, unless a subclass overrides how raw text is written.
+     * Text given as characters is still passed on as String, as its escaping depends on the element context and
+     * the preceding output.
+     */
+    @Override
+    public void rawText(char[] text, int offset, int length) {
+        if (HANDLES_RAW_TEXT.get(getClass())) {
+            rawText(new String(text, offset, length));
+            return;
+        }
+        StringBuilder buffer = bufferStack.peek();
+        if (buffer != null) {
+            buffer.append(text, offset, length);
+        } else {
+            writer.write(text, offset, length);
+        }
+    }
+
     @Override
     public void comment(String comment) {
         comment(comment, false);
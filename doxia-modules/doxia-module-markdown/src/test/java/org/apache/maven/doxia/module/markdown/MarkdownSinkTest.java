@@ -576,4 +576,25 @@ class MarkdownSinkTest extends AbstractSinkTest {
                 + "- item 3" + EOL;
         assertEquals(expected, getSinkContent());
     }
+
+    @Test
+    void rawTextCharacters() {
+        String text = "<b>raw</b>" + EOL + "*text*";
+        char[] chars = ("[" + text + "]").toCharArray();
+
+        StringWriter expected = new StringWriter();
+        try (Sink sink = createSink(expected)) {
+            sink.rawText(text);
+            sink.tableCell();
+            sink.rawText(text);
+            sink.tableCell_();
+        }
+        try (Sink sink = getSink()) {
+            sink.rawText(chars, 1, text.length());
+            sink.tableCell();
+            sink.rawText(chars, 1, text.length());
+            sink.tableCell_();
+        }
+        assertEquals(expected.toString(), getSinkContent());
+    }
 }
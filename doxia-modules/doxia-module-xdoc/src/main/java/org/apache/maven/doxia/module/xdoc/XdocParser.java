@@ -273,7 +273,9 @@ public class XdocParser extends Xhtml1BaseParser implements XdocMarkup {
 
     private void handleMacroEnd(Sink sink) throws MacroExecutionException {
         if (!isSecondParsing() && (macroName != null && !macroName.isEmpty())) {
-            MacroRequest request = new MacroRequest(sourceContent, new XdocParser(), macroParameters, getBasedir());
+            String documentContent = sourceContent;
+            MacroRequest request =
+                    new MacroRequest(() -> documentContent, XdocParser::new, macroParameters, getBasedir());
 
             try {
                 executeMacro(macroName, request, sink);
@@ -24,6 +24,7 @@ import javax.swing.text.html.HTML.Attribute;
 import java.io.Writer;
 
 import org.apache.maven.doxia.sink.SinkEventAttributes;
+import org.apache.maven.doxia.sink.impl.AttributeFilter;
 import org.apache.maven.doxia.sink.impl.SinkEventAttributeSet;
 import org.apache.maven.doxia.sink.impl.SinkUtils;
 import org.apache.maven.doxia.sink.impl.Xhtml5BaseSink;
@@ -243,8 +244,7 @@ public class XdocSink extends Xhtml5BaseSink implements XdocMarkup {
         if (depth == SECTION_LEVEL_1) {
             write(LESS_THAN
                     + SECTION_TAG.toString()
-                    + SinkUtils.getAttributeString(
-                            SinkUtils.filterAttributes(attributes, SinkUtils.SINK_BASE_ATTRIBUTES))
+                    + SinkUtils.getAttributeString(AttributeFilter.SINK_BASE_ATTRIBUTES.apply(attributes))
                     + SPACE
                     + Attribute.NAME
                     + EQUAL
@@ -252,8 +252,7 @@ public class XdocSink extends Xhtml5BaseSink implements XdocMarkup {
         } else if (depth == SECTION_LEVEL_2) {
             write(LESS_THAN
                     + SUBSECTION_TAG.toString()
-                    + SinkUtils.getAttributeString(
-                            SinkUtils.filterAttributes(attributes, SinkUtils.SINK_BASE_ATTRIBUTES))
+                    + SinkUtils.getAttributeString(AttributeFilter.SINK_BASE_ATTRIBUTES.apply(attributes))
                     + SPACE
                     + Attribute.NAME
                     + EQUAL
@@ -286,7 +285,7 @@ public class XdocSink extends Xhtml5BaseSink implements XdocMarkup {
      * @see #H6
      */
     protected void onSectionTitle(int depth, SinkEventAttributes attributes) {
-        MutableAttributeSet atts = SinkUtils.filterAttributes(attributes, SinkUtils.SINK_SECTION_ATTRIBUTES);
+        MutableAttributeSet atts = AttributeFilter.SINK_SECTION_ATTRIBUTES.apply(attributes);
 
         if (depth == SECTION_LEVEL_3) {
             writeStartTag(H3, atts);
@@ -23,11 +23,23 @@ import javax.inject.Inject;
 import java.io.File;
 import java.io.FileReader;
 import java.io.Reader;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.regex.Pattern;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.maven.doxia.macro.AbstractMacro;
+import org.apache.maven.doxia.macro.AsyncMacroExecutor;
+import org.apache.maven.doxia.macro.AsyncMacroSinkFactory;
+import org.apache.maven.doxia.macro.IndependentMacro;
+import org.apache.maven.doxia.macro.MacroExecutionException;
+import org.apache.maven.doxia.macro.MacroRequest;
+import org.apache.maven.doxia.macro.toc.DeferredTocSinkFactory;
 import org.apache.maven.doxia.parser.AbstractParser;
 import org.apache.maven.doxia.parser.AbstractParserTest;
 import org.apache.maven.doxia.parser.ParseException;
@@ -42,6 +54,7 @@ import static org.codehaus.plexus.testing.PlexusExtension.getBasedir;
 import static org.codehaus.plexus.testing.PlexusExtension.getTestFile;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -124,6 +137,27 @@ class XdocParserTest extends AbstractParserTest {
         assertFalse(content.contains("<a href=\"#Section_1211\">Section 1211</a>"));
     }
 
+    @Test
+    void deferredTocMacro() throws Exception {
+        StringWriter expected = new StringWriter();
+        try (Reader reader = getTestReader("toc")) {
+            Sink sink = new XdocSink(expected);
+            createParser().parse(reader, sink);
+            sink.close();
+        }
+
+        StringWriter output = new StringWriter();
+        try (Reader reader = getTestReader("toc")) {
+            Sink sink = new XdocSink(output);
+            AbstractParser deferredTocParser = createParser();
+            deferredTocParser.addSinkWrapperFactory(new DeferredTocSinkFactory());
+            deferredTocParser.parse(reader, sink);
+            sink.close();
+        }
+
+        assertEquals(expected.toString(), output.toString());
+    }
+
     private Iterator<SinkEventElement> parseText(String text) throws ParseException {
         SinkEventTestingSink sink = new SinkEventTestingSink();
 
@@ -358,6 +392,62 @@ class XdocParserTest extends AbstractParserTest {
         assertParseException(sink, "<macro name=\"unknown\"></macro>");
     }
 
+    /**
+     * Test that independent macros are executed asynchronously through the parser pipeline, and that their failure
+     * is reported as ParseException.
+     */
+    @Test
+    void asyncMacros() throws Exception {
+        Thread parsingThread = Thread.currentThread();
+        List<Thread> macroThreads = new CopyOnWriteArrayList<>();
+        class TextMacro extends AbstractMacro implements IndependentMacro {
+            @Override
+            public void execute(Sink sink, MacroRequest request) throws MacroExecutionException {
+                macroThreads.add(Thread.currentThread());
+                String text = (String) request.getParameter("text");
+                if (text == null) {
+                    throw new MacroExecutionException("missing text");
+                }
+                sink.text(text);
+            }
+        }
+
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            XdocParser asyncParser = new XdocParser();
+            asyncParser.addSinkWrapperFactory(new AsyncMacroSinkFactory());
+            asyncParser.setMacroExecutor(new AsyncMacroExecutor(macroId -> new TextMacro(), executorService));
+
+            SinkEventTestingSink sink = new SinkEventTestingSink();
+            asyncParser.parse(
+                    "<document><body><p>before</p>"
+                            + "<macro name=\"text\"><param name=\"text\" value=\"macro\"/></macro>"
+                            + "<p>after</p></body></document>",
+                    sink);
+
+            Iterator<SinkEventElement> it = sink.getEventList().iterator();
+            assertSinkStartsWith(it, "body", "paragraph");
+            assertSinkEquals(it.next(), "text", "before", null);
+            assertSinkStartsWith(it, "paragraph_");
+            assertSinkEquals(it.next(), "text", "macro", null);
+            assertSinkStartsWith(it, "paragraph");
+            assertSinkEquals(it.next(), "text", "after", null);
+            assertSinkEquals(it, "paragraph_", "body_");
+            assertEquals(1, macroThreads.size());
+            assertNotEquals(parsingThread, macroThreads.get(0));
+
+            ParseException e = assertThrows(
+                    ParseException.class,
+                    () -> asyncParser.parse(
+                            "<document><body><macro name=\"text\"></macro></body></document>",
+                            new SinkEventTestingSink()));
+            assertTrue(e.getCause() instanceof MacroExecutionException);
+            assertEquals("missing text", e.getCause().getMessage());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
     private void assertParseException(Sink sink, String text) {
         assertThrows(ParseException.class, () -> parser.parse(text, sink), "Should not be parseable: '" + text + "'");
     }
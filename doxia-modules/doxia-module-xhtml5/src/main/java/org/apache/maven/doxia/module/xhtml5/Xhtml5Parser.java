@@ -203,7 +203,8 @@ public class Xhtml5Parser extends Xhtml5BaseParser implements Xhtml5Markup {
             parameters.put(key, value);
         }
 
-        MacroRequest request = new MacroRequest(sourceContent, new Xhtml5Parser(), parameters, getBasedir());
+        String documentContent = sourceContent;
+        MacroRequest request = new MacroRequest(() -> documentContent, Xhtml5Parser::new, parameters, getBasedir());
 
         try {
             executeMacro(macroName, request, sink);
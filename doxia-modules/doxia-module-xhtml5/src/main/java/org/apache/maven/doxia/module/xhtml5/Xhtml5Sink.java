@@ -86,6 +86,13 @@ public class Xhtml5Sink extends Xhtml5BaseSink implements Xhtml5Markup {
         this.languageId = languageId;
     }
 
+    @Override
+    protected void init() {
+        super.init();
+
+        this.headTitleFlag = false;
+    }
+
     @Override
     public void head(SinkEventAttributes attributes) {
         init();
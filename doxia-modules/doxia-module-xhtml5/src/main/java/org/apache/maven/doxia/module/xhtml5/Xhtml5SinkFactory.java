@@ -33,11 +33,39 @@ import org.apache.maven.doxia.sink.impl.AbstractXmlSinkFactory;
 @Named("xhtml")
 public class Xhtml5SinkFactory extends AbstractXmlSinkFactory {
 
+    /** Create sinks writing compact output. */
+    private boolean compact;
+
+    /**
+     * Sets whether the created sinks omit optional whitespace from their output.
+     *
+     * @param compact <code>true</code> to create sinks writing compact output.
+     * @see Xhtml5Sink#setCompact(boolean)
+     * @since 2.1.0
+     */
+    public void setCompact(boolean compact) {
+        this.compact = compact;
+    }
+
+    /**
+     * Return whether the created sinks omit optional whitespace from their output.
+     *
+     * @return <code>true</code> if the created sinks write compact output.
+     * @since 2.1.0
+     */
+    public boolean isCompact() {
+        return compact;
+    }
+
     protected Sink createSink(Writer writer, String encoding) {
-        return new Xhtml5Sink(writer, encoding);
+        Xhtml5Sink sink = new Xhtml5Sink(writer, encoding);
+        sink.setCompact(compact);
+        return sink;
     }
 
     protected Sink createSink(Writer writer, String encoding, String languageId) {
-        return new Xhtml5Sink(writer, encoding, languageId);
+        Xhtml5Sink sink = new Xhtml5Sink(writer, encoding, languageId);
+        sink.setCompact(compact);
+        return sink;
     }
 }
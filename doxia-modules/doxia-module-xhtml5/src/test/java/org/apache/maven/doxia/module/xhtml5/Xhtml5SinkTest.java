@@ -18,11 +18,16 @@
  */
 package org.apache.maven.doxia.module.xhtml5;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 
 import org.apache.maven.doxia.markup.HtmlMarkup;
+import org.apache.maven.doxia.sink.EmptyLocator;
 import org.apache.maven.doxia.sink.Sink;
+import org.apache.maven.doxia.sink.impl.AbstractLocator;
 import org.apache.maven.doxia.sink.impl.AbstractSinkTest;
 import org.apache.maven.doxia.sink.impl.SinkEventAttributeSet;
 import org.apache.maven.doxia.util.HtmlTools;
@@ -30,6 +35,7 @@ import org.junit.jupiter.api.Test;
 
 import static org.apache.maven.doxia.util.HtmlTools.escapeHTML;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class Xhtml5SinkTest extends AbstractSinkTest {
@@ -77,6 +83,75 @@ public class Xhtml5SinkTest extends AbstractSinkTest {
         assertTrue(actual.contains("<a href=\"index.html\"></a>"));
     }
 
+    /**
+     * Test compact output of a whole document.
+     */
+    /**
+     * Test of reusing a sink after a document which was aborted inside the head title.
+     */
+    @Test
+    void resetAfterAbortedDocument() {
+        StringWriter expected = new StringWriter();
+        try (Xhtml5Sink sink = new Xhtml5Sink(expected, "UTF-8")) {
+            sink.head();
+            sink.head_();
+        }
+
+        Xhtml5Sink sink = new Xhtml5Sink(new StringWriter(), "UTF-8");
+        sink.setDocumentLocator(new AbstractLocator("aborted.html") {
+            @Override
+            public int getLineNumber() {
+                return 1;
+            }
+
+            @Override
+            public int getColumnNumber() {
+                return 1;
+            }
+        });
+        sink.head();
+        sink.title();
+        sink.text("aborted");
+
+        StringWriter out = new StringWriter();
+        sink.reset(out);
+        sink.head();
+        sink.head_();
+        sink.close();
+
+        assertEquals(expected.toString(), out.toString());
+        assertSame(EmptyLocator.INSTANCE, sink.getDocumentLocator());
+    }
+
+    @Test
+    void compact() throws IOException {
+        Xhtml5SinkFactory factory = new Xhtml5SinkFactory();
+        factory.setCompact(true);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (Sink sink = factory.createSink(out, "UTF-8")) {
+            sink.head();
+            sink.title();
+            sink.text("Title");
+            sink.title_();
+            sink.head_();
+            sink.body();
+            sink.section1();
+            sink.sectionTitle1();
+            sink.text("Section\n  title");
+            sink.sectionTitle1_();
+            sink.horizontalRule();
+            sink.section1_();
+            sink.body_();
+        }
+
+        assertEquals(
+                "<!DOCTYPE html><html xmlns=\"http://www.w3.org/1999/xhtml\"><head><title>Title</title>"
+                        + "<meta charset=\"UTF-8\"/></head><body><section><h1>Section title</h1><hr/></section>"
+                        + "</body></html>",
+                new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
     protected String getTitleBlock(String title) {
         return "<title>" + title + "</title>";
     }
@@ -1752,6 +1752,50 @@ public interface Sink extends AutoCloseable {
      */
     void rawText(String text);
 
+    /**
+     * Adds a text given as a range of characters.
+     * Shortcut for {@link #text(char[], int, int, SinkEventAttributes)} with last argument being {@code null}.
+     *
+     * @param text The array containing the text to write.
+     * @param offset The index of the first character of the text.
+     * @param length The number of characters of the text.
+     * @see #text(char[], int, int, SinkEventAttributes)
+     * @since 2.1.0
+     */
+    default void text(char[] text, int offset, int length) {
+        text(text, offset, length, null);
+    }
+
+    /**
+     * Adds a text given as a range of characters, for instance of the buffer of a parser, so it
+     * doesn't need to be copied into a String first. Otherwise the same as {@link #text(String, SinkEventAttributes)}.
+     * The characters must not be modified and the array must not be retained by the sink after the call.
+     * The default implementation calls {@link #text(String, SinkEventAttributes)}.
+     *
+     * @param text The array containing the text to write.
+     * @param offset The index of the first character of the text.
+     * @param length The number of characters of the text.
+     * @param attributes A set of {@link SinkEventAttributes}, may be <code>null</code>.
+     * @since 2.1.0
+     */
+    default void text(char[] text, int offset, int length, SinkEventAttributes attributes) {
+        text(new String(text, offset, length), attributes);
+    }
+
+    /**
+     * Adds a raw text given as a range of characters. Otherwise the same as {@link #rawText(String)}.
+     * The characters must not be modified and the array must not be retained by the sink after the call.
+     * The default implementation calls {@link #rawText(String)}.
+     *
+     * @param text The array containing the text to write.
+     * @param offset The index of the first character of the text.
+     * @param length The number of characters of the text.
+     * @since 2.1.0
+     */
+    default void rawText(char[] text, int offset, int length) {
+        rawText(new String(text, offset, length));
+    }
+
     /**
      * Add a comment.
      * Semantically the same as {@link #comment(String, boolean)} with second argument being {@code false}.